@@ -0,0 +1,113 @@
+package com.resolveit.bench;
+
+import com.resolveit.dao.BatchResult;
+import com.resolveit.dao.ComplaintDAO;
+import com.resolveit.dao.DatabaseConfig;
+import com.resolveit.dao.DatabaseConnection;
+import com.resolveit.dao.FeedbackDAO;
+import com.resolveit.dao.UserDAO;
+import com.resolveit.model.Complaint;
+import com.resolveit.model.User;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Embedded in-memory database shared by the benchmarks of one JMH fork.
+ * Created from the schema script on the classpath and filled with a fixed, seeded data set
+ * so that results are comparable between runs.
+ */
+final class BenchmarkDatabase {
+    static final int USERS = 50;
+    static final int COMPLAINTS = 10000;
+    static final int FEEDBACK = 5000;
+
+    private static final String[] CATEGORIES = {"Maintenance", "Billing", "Service", "Security", "Other"};
+    private static final String[] WORDS = {
+            "heater", "broken", "invoice", "late", "parking", "noise", "elevator", "leak", "refund", "door",
+            "window", "internet", "slow", "charge", "wrong", "lights", "water", "cold", "delivery", "missing"};
+    private static final int IMPORT_CHUNK = 1000;
+
+    private static BenchmarkDatabase instance;
+
+    private final int[] userIds;
+    private final int[] complaintIds;
+
+    private BenchmarkDatabase(int[] userIds, int[] complaintIds) {
+        this.userIds = userIds;
+        this.complaintIds = complaintIds;
+    }
+
+    /**
+     * The shared database, created and populated on first use
+     */
+    static synchronized BenchmarkDatabase get() {
+        if (instance == null) {
+            DatabaseConnection.configure(DatabaseConfig.embeddedInMemory("bench"));
+            instance = populate(new Random(42));
+        }
+        return instance;
+    }
+
+    int[] getUserIds() {
+        return userIds;
+    }
+
+    int[] getComplaintIds() {
+        return complaintIds;
+    }
+
+    private static BenchmarkDatabase populate(Random random) {
+        int[] userIds = new int[USERS];
+        for (int i = 0; i < USERS; i++) {
+            String email = "bench" + i + "@resolveit.test";
+            UserDAO.registerUser("bench" + i, email, "secret" + i);
+            User user = UserDAO.authenticateUser(email, "secret" + i);
+            if (user == null) {
+                throw new IllegalStateException("Could not create benchmark user " + email);
+            }
+            userIds[i] = user.getUserId();
+        }
+
+        List<Complaint> chunk = new ArrayList<>(IMPORT_CHUNK);
+        for (int i = 0; i < COMPLAINTS; i++) {
+            Complaint complaint = new Complaint();
+            complaint.setUserId(userIds[random.nextInt(USERS)]);
+            complaint.setTitle(sentence(random, 4));
+            complaint.setDescription(sentence(random, 30));
+            complaint.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            chunk.add(complaint);
+            if (chunk.size() == IMPORT_CHUNK || i == COMPLAINTS - 1) {
+                BatchResult<Integer> result = ComplaintDAO.importComplaints(chunk);
+                if (result.getFailureCount() > 0) {
+                    throw new IllegalStateException("Benchmark import failed: " + result.getFailed());
+                }
+                chunk.clear();
+            }
+        }
+
+        List<Complaint> all = ComplaintDAO.getAllComplaints();
+        int[] complaintIds = new int[all.size()];
+        for (int i = 0; i < complaintIds.length; i++) {
+            complaintIds[i] = all.get(i).getComplaintId();
+        }
+
+        for (int i = 0; i < FEEDBACK; i++) {
+            FeedbackDAO.submitFeedback(complaintIds[random.nextInt(complaintIds.length)],
+                    userIds[random.nextInt(USERS)], sentence(random, 8), 1 + random.nextInt(5));
+        }
+        ComplaintDAO.invalidateCache();
+        return new BenchmarkDatabase(userIds, complaintIds);
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+}
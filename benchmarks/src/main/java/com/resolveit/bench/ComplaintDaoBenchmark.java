@@ -0,0 +1,77 @@
+package com.resolveit.bench;
+
+import com.resolveit.dao.ComplaintDAO;
+import com.resolveit.model.Complaint;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ComplaintDAO listing queries against the embedded database, including row mapping.
+ * The uncached variants drop the complaint cache first so every call reads the database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class ComplaintDaoBenchmark {
+
+    private int[] userIds;
+    private int[] complaintIds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        BenchmarkDatabase database = BenchmarkDatabase.get();
+        userIds = database.getUserIds();
+        complaintIds = database.getComplaintIds();
+    }
+
+    /**
+     * Page sizes for the keyset page query; the admin table loads 200 rows at a time
+     */
+    @State(Scope.Benchmark)
+    public static class PageSize {
+        @Param({"50", "200", "1000"})
+        public int rows;
+    }
+
+    @Benchmark
+    public List<Complaint> complaintsPage(PageSize pageSize) {
+        return ComplaintDAO.getComplaintsPage(null, pageSize.rows);
+    }
+
+    @Benchmark
+    public List<Complaint> allComplaintsUncached() {
+        ComplaintDAO.invalidateCache();
+        return ComplaintDAO.getAllComplaints();
+    }
+
+    @Benchmark
+    public List<Complaint> allComplaintsCached() {
+        return ComplaintDAO.getAllComplaints();
+    }
+
+    @Benchmark
+    public List<Complaint> userComplaintsUncached() {
+        ComplaintDAO.invalidateCache();
+        return ComplaintDAO.getUserComplaints(userIds[next++ % userIds.length]);
+    }
+
+    @Benchmark
+    public Complaint complaintById() {
+        return ComplaintDAO.getComplaintById(complaintIds[next++ % complaintIds.length]);
+    }
+}
@@ -0,0 +1,65 @@
+package com.resolveit.bench;
+
+import com.resolveit.dao.FeedbackDAO;
+import com.resolveit.model.Feedback;
+import com.resolveit.model.RatingSummary;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * FeedbackDAO reads against the embedded database, including row mapping
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class FeedbackDaoBenchmark {
+    // Ratings are loaded for one admin table page at a time
+    private static final int PAGE_SIZE = 200;
+
+    private int[] complaintIds;
+    private List<List<Integer>> pages;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        complaintIds = BenchmarkDatabase.get().getComplaintIds();
+        pages = new ArrayList<>();
+        for (int start = 0; start + PAGE_SIZE <= complaintIds.length; start += PAGE_SIZE) {
+            List<Integer> page = new ArrayList<>(PAGE_SIZE);
+            for (int i = start; i < start + PAGE_SIZE; i++) {
+                page.add(complaintIds[i]);
+            }
+            pages.add(page);
+        }
+    }
+
+    @Benchmark
+    public List<Feedback> complaintFeedback() {
+        return FeedbackDAO.getComplaintFeedback(complaintIds[next++ % complaintIds.length]);
+    }
+
+    @Benchmark
+    public RatingSummary ratingSummary() {
+        return FeedbackDAO.getRatingSummary(complaintIds[next++ % complaintIds.length]);
+    }
+
+    @Benchmark
+    public Map<Integer, RatingSummary> ratingSummariesForPage() {
+        return FeedbackDAO.getRatingSummaries(pages.get(next++ % pages.size()));
+    }
+}
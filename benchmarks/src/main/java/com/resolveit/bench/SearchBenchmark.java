@@ -0,0 +1,109 @@
+package com.resolveit.bench;
+
+import com.resolveit.model.Complaint;
+import com.resolveit.search.ComplaintIndex;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ComplaintIndex queries over synthetic complaints. Two common words each appear in about 60%
+ * of the descriptions, the rest of the text is drawn from a few thousand generated words, so
+ * the common-term queries intersect postings lists of more than half the index.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+    private static final String[] SYLLABLES = {
+        "ba", "ce", "di", "fo", "gu", "ha", "ke", "li", "mo", "nu",
+        "pa", "re", "si", "to", "vu", "wa", "xe", "yi", "zo", "lu"
+    };
+    private static final String[] CATEGORIES = {"Facilities", "IT", "Billing", "Transport", "Canteen", "Security"};
+    private static final int RESULT_LIMIT = 50;
+
+    @Param({"100000", "1000000"})
+    private int complaints;
+
+    private ComplaintIndex index;
+    private Complaint unchanged;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new ComplaintIndex();
+        for (int id = 1; id <= complaints; id++) {
+            Complaint complaint = new Complaint();
+            complaint.setComplaintId(id);
+            complaint.setTitle(words(random, 3 + random.nextInt(4)));
+            complaint.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            StringBuilder description = new StringBuilder(words(random, 8 + random.nextInt(12)));
+            if (random.nextInt(10) < 6) {
+                description.append(" water");
+            }
+            if (random.nextInt(10) < 6) {
+                description.append(" leaking");
+            }
+            complaint.setDescription(description.toString());
+            index.add(complaint);
+            unchanged = complaint;
+        }
+    }
+
+    @Benchmark
+    public Object commonTerms() {
+        return index.search("water leaking ", RESULT_LIMIT);
+    }
+
+    @Benchmark
+    public Object commonTermAndPrefix() {
+        return index.search("water le", RESULT_LIMIT);
+    }
+
+    @Benchmark
+    public Object shortPrefix() {
+        return index.search("ba", RESULT_LIMIT);
+    }
+
+    @Benchmark
+    public Object rareTerms() {
+        return index.search("bacedi facilities ", RESULT_LIMIT);
+    }
+
+    /**
+     * Re-indexing a complaint whose text did not change, as on a status update
+     */
+    @Benchmark
+    public void reindexUnchanged() {
+        index.add(unchanged);
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            int syllables = 2 + random.nextInt(2);
+            for (int s = 0; s < syllables; s++) {
+                // Skewed towards the first syllables, so some words are much more frequent than others
+                int pick = (int) (SYLLABLES.length * Math.pow(random.nextDouble(), 2));
+                text.append(SYLLABLES[pick]);
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,90 @@
+package com.resolveit.bench;
+
+import com.resolveit.dao.ComplaintDAO;
+import com.resolveit.dao.FeedbackDAO;
+import com.resolveit.model.Complaint;
+import com.resolveit.model.RatingSummary;
+import com.resolveit.ui.ComplaintTableModel;
+import com.resolveit.ui.DataLoader;
+import com.resolveit.ui.UserComplaintTableModel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.swing.table.TableModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Populating the dashboard table models with one page of complaints and reading every cell,
+ * as the JTable does when the page is first painted. Rows come from the embedded database
+ * once during setup, so only the model work is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class TableModelBenchmark {
+    // Same page size and page cache as AdminDashboard
+    private static final int PAGE_SIZE = 200;
+    private static final int MAX_CACHED_PAGES = 10;
+
+    private List<Complaint> page;
+    private Map<Integer, RatingSummary> ratings;
+    private DataLoader loader;
+    private ComplaintTableModel populatedModel;
+
+    @Setup
+    public void setUp() {
+        BenchmarkDatabase.get();
+        page = ComplaintDAO.getComplaintsPage(null, PAGE_SIZE);
+        List<Integer> ids = new ArrayList<>(page.size());
+        for (Complaint complaint : page) {
+            ids.add(complaint.getComplaintId());
+        }
+        ratings = FeedbackDAO.getRatingSummaries(ids);
+        loader = new DataLoader();
+        populatedModel = new ComplaintTableModel(PAGE_SIZE, MAX_CACHED_PAGES, loader);
+        populatedModel.applyChanges(page, ratings);
+    }
+
+    @Benchmark
+    public void adminPopulateAndRender(Blackhole blackhole) {
+        ComplaintTableModel model = new ComplaintTableModel(PAGE_SIZE, MAX_CACHED_PAGES, loader);
+        model.applyChanges(page, ratings);
+        render(model, blackhole);
+    }
+
+    @Benchmark
+    public void adminRender(Blackhole blackhole) {
+        render(populatedModel, blackhole);
+    }
+
+    @Benchmark
+    public void userPopulateAndRender(Blackhole blackhole) {
+        UserComplaintTableModel model = new UserComplaintTableModel();
+        model.setComplaints(page);
+        render(model, blackhole);
+    }
+
+    private static void render(TableModel model, Blackhole blackhole) {
+        int rows = model.getRowCount();
+        int columns = model.getColumnCount();
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                blackhole.consume(model.getValueAt(row, column));
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.resolveit.bench;
+
+import com.resolveit.util.ValidationUtil;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * ValidationUtil checks over a fixed mix of valid and invalid inputs.
+ * The stringMatches variants repeat the former String.matches implementation,
+ * which compiled the pattern on every call, as a reference point.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidationBenchmark {
+    private static final String[] PASSWORDS = {"secret1", "password", "12345678", "abc", "Tr0ub4dor&3", "correcthorse9"};
+    private static final String[] USERNAMES = {"alice", "bob42", "x", "name with space", "averyveryverylongusername", "Admin1"};
+    private static final String[] EMAILS = {"alice@example.com", "not-an-email", "bob@mail", "@nobody", "a.b+c@x.org", ""};
+
+    @Benchmark
+    public void password(Blackhole blackhole) {
+        for (String password : PASSWORDS) {
+            blackhole.consume(ValidationUtil.isValidPassword(password));
+        }
+    }
+
+    @Benchmark
+    public void passwordStringMatches(Blackhole blackhole) {
+        for (String password : PASSWORDS) {
+            blackhole.consume(password.length() >= 6
+                    && password.matches(".*[A-Za-z].*") && password.matches(".*[0-9].*"));
+        }
+    }
+
+    @Benchmark
+    public void username(Blackhole blackhole) {
+        for (String username : USERNAMES) {
+            blackhole.consume(ValidationUtil.isValidUsername(username));
+        }
+    }
+
+    @Benchmark
+    public void usernameStringMatches(Blackhole blackhole) {
+        for (String username : USERNAMES) {
+            blackhole.consume(username.matches("^[a-zA-Z0-9]{3,20}$"));
+        }
+    }
+
+    @Benchmark
+    public void email(Blackhole blackhole) {
+        for (String email : EMAILS) {
+            blackhole.consume(ValidationUtil.isValidEmail(email));
+        }
+    }
+}
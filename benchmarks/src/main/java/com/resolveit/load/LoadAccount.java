@@ -0,0 +1,65 @@
+package com.resolveit.load;
+
+import com.resolveit.dao.ComplaintDAO;
+import com.resolveit.dao.UserDAO;
+import com.resolveit.model.Complaint;
+import com.resolveit.model.User;
+import java.util.List;
+
+/**
+ * Login of a load-test user, created on first use together with one complaint
+ * so that listing and feedback have something to work on.
+ */
+final class LoadAccount {
+    private final String email;
+    private final String password;
+    private final int userId;
+    private final List<Complaint> complaints;
+
+    private LoadAccount(String email, String password, int userId, List<Complaint> complaints) {
+        this.email = email;
+        this.password = password;
+        this.userId = userId;
+        this.complaints = complaints;
+    }
+
+    /**
+     * Log in as load-test user number n, registering the account if it does not exist yet.
+     * Returns null if the account can be neither found nor created.
+     */
+    static LoadAccount prepare(int n) {
+        String name = "loaduser" + n;
+        String email = name + "@resolveit.test";
+        String password = "Load" + n + "pass";
+        User user = UserDAO.authenticateUser(email, password);
+        if (user == null) {
+            UserDAO.registerUser(name, email, password);
+            user = UserDAO.authenticateUser(email, password);
+            if (user == null) {
+                return null;
+            }
+        }
+        List<Complaint> complaints = ComplaintDAO.getUserComplaints(user.getUserId());
+        if (complaints.isEmpty()) {
+            ComplaintDAO.submitComplaint(user.getUserId(), "Load test setup", "Created before the run", "Other");
+            complaints = ComplaintDAO.getUserComplaints(user.getUserId());
+        }
+        return new LoadAccount(email, password, user.getUserId(), complaints);
+    }
+
+    String getEmail() {
+        return email;
+    }
+
+    String getPassword() {
+        return password;
+    }
+
+    int getUserId() {
+        return userId;
+    }
+
+    List<Complaint> getComplaints() {
+        return complaints;
+    }
+}
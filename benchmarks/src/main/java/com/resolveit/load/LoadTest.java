@@ -0,0 +1,216 @@
+package com.resolveit.load;
+
+import com.resolveit.dao.DatabaseConfig;
+import com.resolveit.dao.DatabaseConnection;
+import com.resolveit.dao.PoolStatistics;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Headless load generator for the backend DAOs
+ *
+ * Usage: java -cp benchmarks/target/benchmarks.jar com.resolveit.load.LoadTest
+ *            [--users N] [--ramp-up seconds] [--duration seconds] [--mix login=W,submit=W,mine=W,all=W,feedback=W]
+ *            [--think-time ms] [--interval seconds] [--embedded]
+ *
+ * Runs --users simulated users against the database from resolveit.properties (or an
+ * in-memory embedded database with --embedded), starting them evenly over --ramp-up seconds.
+ * The run lasts --duration seconds in total, ramp-up included. Every --interval seconds the
+ * throughput and p99 latency of the last interval are printed next to the number of active
+ * users, so the point where latency degrades can be read off; at the end the
+ * p50/p99/p99.9 latencies of the whole run are printed per operation.
+ *
+ * Users run closed-loop: a slow response delays that user's next request, so latencies
+ * under overload are understated compared to a fixed arrival rate.
+ */
+public class LoadTest {
+    private static final int DEFAULT_USERS = 50;
+    private static final int DEFAULT_RAMP_UP_SECONDS = 10;
+    private static final int DEFAULT_DURATION_SECONDS = 60;
+    private static final int DEFAULT_INTERVAL_SECONDS = 5;
+
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+    public static void main(String[] args) {
+        int users = DEFAULT_USERS;
+        int rampUpSeconds = DEFAULT_RAMP_UP_SECONDS;
+        int durationSeconds = DEFAULT_DURATION_SECONDS;
+        int intervalSeconds = DEFAULT_INTERVAL_SECONDS;
+        long thinkTimeMillis = 0;
+        String mixSpec = OperationMix.DEFAULT;
+        boolean embedded = false;
+        OperationMix mix = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--users":
+                        users = Integer.parseInt(args[++i]);
+                        break;
+                    case "--ramp-up":
+                        rampUpSeconds = Integer.parseInt(args[++i]);
+                        break;
+                    case "--duration":
+                        durationSeconds = Integer.parseInt(args[++i]);
+                        break;
+                    case "--interval":
+                        intervalSeconds = Integer.parseInt(args[++i]);
+                        break;
+                    case "--think-time":
+                        thinkTimeMillis = Long.parseLong(args[++i]);
+                        break;
+                    case "--mix":
+                        mixSpec = args[++i];
+                        break;
+                    case "--embedded":
+                        embedded = true;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            mix = OperationMix.parse(mixSpec);
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println(e.getMessage() == null ? "Missing option value" : e.getMessage());
+            mix = null;
+        }
+        if (mix == null || users < 1 || rampUpSeconds < 0 || durationSeconds < 1 || durationSeconds < rampUpSeconds
+                || intervalSeconds < 1 || thinkTimeMillis < 0) {
+            System.err.println("Usage: LoadTest [--users N] [--ramp-up seconds] [--duration seconds] "
+                    + "[--mix login=W,submit=W,mine=W,all=W,feedback=W] [--think-time ms] [--interval seconds] [--embedded]");
+            System.exit(2);
+        }
+
+        if (embedded) {
+            DatabaseConnection.configure(DatabaseConfig.embeddedInMemory("loadtest"));
+        }
+        LoadTest test = new LoadTest();
+        boolean ok = test.run(users, rampUpSeconds, durationSeconds, intervalSeconds, thinkTimeMillis, mix);
+        DatabaseConnection.shutdownPool();
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    private boolean run(int users, int rampUpSeconds, int durationSeconds, int intervalSeconds,
+                        long thinkTimeMillis, OperationMix mix) {
+        System.out.println("Preparing " + users + " load-test accounts...");
+        List<LoadAccount> accounts = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            LoadAccount account = LoadAccount.prepare(i);
+            if (account == null) {
+                System.err.println("Could not create load-test account " + i + "; is the database reachable?");
+                return false;
+            }
+            accounts.add(account);
+        }
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+
+        System.out.println("Running " + users + " users, ramp-up " + rampUpSeconds + " s, duration " + durationSeconds
+                + " s, think time " + thinkTimeMillis + " ms, mix " + mix);
+        long start = System.nanoTime();
+        long rampUpNanos = TimeUnit.SECONDS.toNanos(rampUpSeconds);
+        long deadline = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+        List<Thread> threads = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            long userStart = start + rampUpNanos * i / users;
+            Thread thread = new Thread(new VirtualUser(accounts.get(i), mix, stats, userStart, deadline,
+                    thinkTimeMillis, i), "load-user-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+
+        printIntervalHeader();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(intervalSeconds);
+        long nextReport = start + intervalNanos;
+        try {
+            while (nextReport < deadline) {
+                TimeUnit.NANOSECONDS.sleep(nextReport - System.nanoTime());
+                printInterval(start, nextReport - intervalNanos, active(users, start, rampUpNanos));
+                nextReport += intervalNanos;
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        printInterval(start, nextReport - intervalNanos, users);
+        printSummary(System.nanoTime() - start);
+        return true;
+    }
+
+    private static int active(int users, long start, long rampUpNanos) {
+        if (rampUpNanos == 0) {
+            return users;
+        }
+        long elapsed = System.nanoTime() - start;
+        return (int) Math.min(users, elapsed * users / rampUpNanos + 1);
+    }
+
+    private void printIntervalHeader() {
+        StringBuilder header = new StringBuilder(String.format("%8s %6s %9s   p99 ms:", "time", "users", "ops/s"));
+        for (Operation operation : Operation.values()) {
+            header.append(String.format(" %9s", operation.getKey()));
+        }
+        System.out.println(header);
+    }
+
+    private void printInterval(long start, long intervalStart, int activeUsers) {
+        long now = System.nanoTime();
+        double seconds = Math.max(1, now - intervalStart) / 1e9;
+        long count = 0;
+        StringBuilder latencies = new StringBuilder();
+        for (Operation operation : Operation.values()) {
+            Histogram interval = stats.get(operation).sampleInterval();
+            count += interval.getTotalCount();
+            latencies.append(interval.getTotalCount() == 0 ? String.format(" %9s", "-")
+                    : String.format(" %9.2f", millis(interval.getValueAtPercentile(99.0))));
+        }
+        System.out.println(String.format("%7ds %6d %9.1f          ", TimeUnit.NANOSECONDS.toSeconds(now - start),
+                activeUsers, count / seconds) + latencies);
+    }
+
+    private void printSummary(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.println();
+        System.out.println(String.format("%-10s %10s %8s %10s %10s %10s %10s %10s",
+                "operation", "count", "errors", "ops/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        long totalCount = 0;
+        long totalErrors = 0;
+        for (Operation operation : Operation.values()) {
+            OperationStats operationStats = stats.get(operation);
+            Histogram total = operationStats.getTotal();
+            totalCount += total.getTotalCount();
+            totalErrors += operationStats.getErrors();
+            if (total.getTotalCount() == 0) {
+                continue;
+            }
+            System.out.println(String.format("%-10s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f",
+                    operation.getKey(), total.getTotalCount(), operationStats.getErrors(),
+                    total.getTotalCount() / seconds,
+                    millis(total.getValueAtPercentile(50.0)),
+                    millis(total.getValueAtPercentile(99.0)),
+                    millis(total.getValueAtPercentile(99.9)),
+                    millis(total.getMaxValue())));
+        }
+        System.out.println(String.format("%-10s %10d %8d %10.1f", "total", totalCount, totalErrors, totalCount / seconds));
+
+        PoolStatistics pool = DatabaseConnection.getPoolStatistics();
+        if (pool != null) {
+            System.out.println("Connection pool: " + pool);
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
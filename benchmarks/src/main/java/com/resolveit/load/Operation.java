@@ -0,0 +1,31 @@
+package com.resolveit.load;
+
+/**
+ * Backend operations driven by the load test, with the names used in --mix
+ */
+enum Operation {
+    LOGIN("login"),
+    SUBMIT_COMPLAINT("submit"),
+    USER_COMPLAINTS("mine"),
+    ALL_COMPLAINTS("all"),
+    SUBMIT_FEEDBACK("feedback");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    static Operation forKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + key);
+    }
+}
@@ -0,0 +1,44 @@
+package com.resolveit.load;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latencies and errors of one operation. Virtual users record concurrently;
+ * the reporting thread takes interval snapshots and accumulates the run total.
+ */
+final class OperationStats {
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+    private final Histogram total = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+    private final AtomicLong errors = new AtomicLong();
+    private Histogram interval;
+
+    void record(long nanos, boolean ok) {
+        recorder.recordValue(Math.min(Math.max(nanos, 1), HIGHEST_TRACKABLE_NANOS));
+        if (!ok) {
+            errors.incrementAndGet();
+        }
+    }
+
+    /**
+     * Latencies recorded since the previous call; also added to the total
+     */
+    Histogram sampleInterval() {
+        interval = recorder.getIntervalHistogram(interval);
+        total.add(interval);
+        return interval;
+    }
+
+    Histogram getTotal() {
+        return total;
+    }
+
+    long getErrors() {
+        return errors.get();
+    }
+}
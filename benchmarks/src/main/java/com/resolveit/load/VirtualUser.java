@@ -0,0 +1,98 @@
+package com.resolveit.load;
+
+import com.resolveit.dao.ComplaintDAO;
+import com.resolveit.dao.FeedbackDAO;
+import com.resolveit.dao.UserDAO;
+import com.resolveit.model.Complaint;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One simulated user: waits for its ramp-up slot, then runs operations from the mix
+ * back to back (closed loop, optionally with think time) until the deadline.
+ * A DAO call counts as an error when it reports failure (false or null) or throws.
+ */
+final class VirtualUser implements Runnable {
+    private static final String[] CATEGORIES = {"Maintenance", "Billing", "Service", "Security", "Other"};
+
+    private final LoadAccount account;
+    private final OperationMix mix;
+    private final Map<Operation, OperationStats> stats;
+    private final long startNanos;
+    private final long deadlineNanos;
+    private final long thinkTimeMillis;
+    private final Random random;
+
+    private List<Complaint> ownComplaints;
+    private int submitted;
+
+    VirtualUser(LoadAccount account, OperationMix mix, Map<Operation, OperationStats> stats,
+                long startNanos, long deadlineNanos, long thinkTimeMillis, long seed) {
+        this.account = account;
+        this.mix = mix;
+        this.stats = stats;
+        this.startNanos = startNanos;
+        this.deadlineNanos = deadlineNanos;
+        this.thinkTimeMillis = thinkTimeMillis;
+        this.random = new Random(seed);
+        this.ownComplaints = account.getComplaints();
+    }
+
+    @Override
+    public void run() {
+        try {
+            sleepNanos(startNanos - System.nanoTime());
+            while (System.nanoTime() < deadlineNanos) {
+                Operation operation = mix.next(random);
+                long start = System.nanoTime();
+                boolean ok;
+                try {
+                    ok = execute(operation);
+                } catch (RuntimeException e) {
+                    ok = false;
+                }
+                stats.get(operation).record(System.nanoTime() - start, ok);
+                if (thinkTimeMillis > 0) {
+                    // Uniform between half and one and a half times the think time
+                    long jitter = thinkTimeMillis / 2 + (long) (random.nextDouble() * thinkTimeMillis);
+                    sleepNanos(TimeUnit.MILLISECONDS.toNanos(jitter));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean execute(Operation operation) {
+        switch (operation) {
+            case LOGIN:
+                return UserDAO.authenticateUser(account.getEmail(), account.getPassword()) != null;
+            case SUBMIT_COMPLAINT:
+                submitted++;
+                return ComplaintDAO.submitComplaint(account.getUserId(), "Load test complaint " + submitted,
+                        "Submitted by the load generator", CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            case USER_COMPLAINTS:
+                ownComplaints = ComplaintDAO.getUserComplaints(account.getUserId());
+                return true;
+            case ALL_COMPLAINTS:
+                return ComplaintDAO.getAllComplaints() != null;
+            case SUBMIT_FEEDBACK:
+                if (ownComplaints.isEmpty()) {
+                    return false;
+                }
+                Complaint complaint = ownComplaints.get(random.nextInt(ownComplaints.size()));
+                return FeedbackDAO.submitFeedback(complaint.getComplaintId(), account.getUserId(),
+                        "Load test feedback", 1 + random.nextInt(5));
+            default:
+                throw new IllegalStateException("Unhandled operation " + operation);
+        }
+    }
+
+    private static void sleepNanos(long nanos) throws InterruptedException {
+        if (nanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        }
+    }
+}
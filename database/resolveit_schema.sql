@@ -18,6 +18,8 @@ CREATE TABLE IF NOT EXISTS users (
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- Complaints Table
+-- version is incremented by every update; updates that pass the version they
+-- were based on fail instead of overwriting a concurrent change
 CREATE TABLE IF NOT EXISTS complaints (
     complaint_id INT AUTO_INCREMENT PRIMARY KEY,
     user_id INT NOT NULL,
@@ -28,6 +30,7 @@ CREATE TABLE IF NOT EXISTS complaints (
     status ENUM('OPEN', 'IN_PROGRESS', 'RESOLVED', 'CLOSED') DEFAULT 'OPEN',
     assigned_to INT,
     resolution_note TEXT,
+    version INT NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE,
@@ -41,15 +44,34 @@ CREATE TABLE IF NOT EXISTS complaints (
 CREATE TABLE IF NOT EXISTS feedback (
     feedback_id INT AUTO_INCREMENT PRIMARY KEY,
     complaint_id INT NOT NULL,
+    user_id INT,
     rating INT CHECK (rating >= 1 AND rating <= 5),
     comments TEXT,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (complaint_id) REFERENCES complaints(complaint_id) ON DELETE CASCADE,
+    FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE SET NULL,
     INDEX idx_complaint_id (complaint_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- Rating Summary Table
+-- Per-complaint feedback aggregates, maintained by FeedbackDAO in the same
+-- transaction as feedback inserts/deletes (rebuild with RatingSummaryRepair)
+CREATE TABLE IF NOT EXISTS complaint_rating_summary (
+    complaint_id INT PRIMARY KEY,
+    rating_count INT NOT NULL DEFAULT 0,
+    rating_sum INT NOT NULL DEFAULT 0,
+    rating_min INT,
+    rating_max INT,
+    rating_1 INT NOT NULL DEFAULT 0,
+    rating_2 INT NOT NULL DEFAULT 0,
+    rating_3 INT NOT NULL DEFAULT 0,
+    rating_4 INT NOT NULL DEFAULT 0,
+    rating_5 INT NOT NULL DEFAULT 0,
+    FOREIGN KEY (complaint_id) REFERENCES complaints(complaint_id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 -- Insert Sample Admin User
--- Password: admin123 (SHA-256 hashed)
+-- Password: admin123 (legacy unsalted MD5, replaced with a PBKDF2 hash on first login)
 INSERT INTO users (name, email, password_hash, role) VALUES
 ('Admin User', 'admin@resolveit.com', '0192023a7bbd73250516f069df18b500', 'ADMIN');
 
@@ -67,12 +89,16 @@ INSERT INTO complaints (user_id, category, title, description, priority, status,
 (4, 'Bug Report', 'UI Broken on Mobile', 'The application UI is broken when accessed from mobile devices', 'HIGH', 'RESOLVED', 1);
 
 -- Insert Sample Feedback
-INSERT INTO feedback (complaint_id, rating, comments) VALUES
-(4, 5, 'Issue was resolved quickly and efficiently. Great support!');
+INSERT INTO feedback (complaint_id, user_id, rating, comments) VALUES
+(4, 4, 5, 'Issue was resolved quickly and efficiently. Great support!');
+
+INSERT INTO complaint_rating_summary (complaint_id, rating_count, rating_sum, rating_min, rating_max, rating_5) VALUES
+(4, 1, 5, 5, 5, 1);
 
 -- Create Indexes for better query performance
 CREATE INDEX idx_users_email ON users(email);
 CREATE INDEX idx_complaints_created_at ON complaints(created_at);
+CREATE INDEX idx_complaints_updated_at ON complaints(updated_at);
 CREATE INDEX idx_feedback_rating ON feedback(rating);
 
 -- Display tables info
@@ -0,0 +1,13 @@
+package com.resolveit.dao;
+
+/**
+ * Thrown by UserDAO when a password could not be checked because the verification
+ * executor is saturated (its queue is full or the check waited too long).
+ * The credentials were not judged either way; the caller should ask the user to retry.
+ */
+public class AuthenticationBusyException extends RuntimeException {
+
+    public AuthenticationBusyException(String message) {
+        super(message);
+    }
+}
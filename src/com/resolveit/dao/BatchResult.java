@@ -0,0 +1,51 @@
+package com.resolveit.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-item outcome of a batched DAO write.
+ * Items are identified by a key chosen by the operation (row position, complaint id, ...).
+ */
+public class BatchResult<K> {
+    private final List<K> succeeded = new ArrayList<>();
+    private final Map<K, String> failed = new LinkedHashMap<>();
+
+    public void addSuccess(K key) {
+        succeeded.add(key);
+    }
+
+    public void addFailure(K key, String reason) {
+        failed.put(key, reason);
+    }
+
+    public List<K> getSucceeded() {
+        return Collections.unmodifiableList(succeeded);
+    }
+
+    /**
+     * Failed items and the reason each one failed
+     */
+    public Map<K, String> getFailed() {
+        return Collections.unmodifiableMap(failed);
+    }
+
+    public int getSuccessCount() {
+        return succeeded.size();
+    }
+
+    public int getFailureCount() {
+        return failed.size();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{" +
+                "succeeded=" + succeeded.size() +
+                ", failed=" + failed.size() +
+                '}';
+    }
+}
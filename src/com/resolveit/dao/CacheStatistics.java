@@ -0,0 +1,80 @@
+package com.resolveit.dao;
+
+/**
+ * Cache Statistics
+ * Point-in-time snapshot of ComplaintCache counters
+ */
+public class CacheStatistics {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+    private final long invalidations;
+    private final int cachedLists;
+    private final int cachedRows;
+
+    public CacheStatistics(long hits, long misses, long evictions, long expirations, long invalidations,
+                           int cachedLists, int cachedRows) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.invalidations = invalidations;
+        this.cachedLists = cachedLists;
+        this.cachedRows = cachedRows;
+    }
+
+    // Getters
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Lists dropped because the cache was full (least recently used first)
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Lists dropped because they outlived the time-to-live
+     */
+    public long getExpirations() {
+        return expirations;
+    }
+
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    public int getCachedLists() {
+        return cachedLists;
+    }
+
+    public int getCachedRows() {
+        return cachedRows;
+    }
+
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatistics{" +
+                "hits=" + hits +
+                ", misses=" + misses +
+                ", hitRatio=" + String.format("%.3f", getHitRatio()) +
+                ", evictions=" + evictions +
+                ", expirations=" + expirations +
+                ", invalidations=" + invalidations +
+                ", cachedLists=" + cachedLists +
+                ", cachedRows=" + cachedRows +
+                '}';
+    }
+}
@@ -0,0 +1,226 @@
+package com.resolveit.dao;
+
+import com.resolveit.model.Complaint;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-through cache in front of ComplaintDAO's list queries.
+ * Holds one list per user (LRU-bounded) plus the global list, each expiring after a TTL.
+ * Writes made through ComplaintDAO patch the cached lists in place instead of dropping them.
+ * Cached Complaint objects are never mutated; updates replace them, and readers get a copy of the list.
+ */
+class ComplaintCache {
+    private final int maxUserLists;
+    private final int maxGlobalRows;
+    private final long ttlNanos;
+
+    private final Map<Integer, CachedList> userLists;
+    private CachedList allComplaints;
+
+    // Bumped by every write so that loads racing with a write are not cached
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    ComplaintCache(int maxUserLists, int maxGlobalRows, long ttlMillis) {
+        this.maxUserLists = maxUserLists;
+        this.maxGlobalRows = maxGlobalRows;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.userLists = new LinkedHashMap<Integer, CachedList>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, CachedList> eldest) {
+                if (size() > ComplaintCache.this.maxUserLists) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Cached complaints of a user, or null on a miss
+     */
+    synchronized List<Complaint> getUserComplaints(int userId) {
+        CachedList cached = userLists.get(userId);
+        if (cached != null && isExpired(cached)) {
+            userLists.remove(userId);
+            expirations++;
+            cached = null;
+        }
+        return copyOf(cached);
+    }
+
+    /**
+     * Cached global complaint list, or null on a miss
+     */
+    synchronized List<Complaint> getAllComplaints() {
+        if (allComplaints != null && isExpired(allComplaints)) {
+            allComplaints = null;
+            expirations++;
+        }
+        return copyOf(allComplaints);
+    }
+
+    /**
+     * Called before querying the database on a miss; pass the result to the matching put method
+     */
+    synchronized long beginLoad() {
+        return generation;
+    }
+
+    synchronized void putUserComplaints(int userId, List<Complaint> complaints, long loadGeneration) {
+        if (loadGeneration == generation) {
+            userLists.put(userId, new CachedList(complaints));
+        }
+    }
+
+    synchronized void putAllComplaints(List<Complaint> complaints, long loadGeneration) {
+        if (loadGeneration == generation && complaints.size() <= maxGlobalRows) {
+            allComplaints = new CachedList(complaints);
+        }
+    }
+
+    /**
+     * Write-through for a newly inserted complaint
+     */
+    synchronized void complaintAdded(Complaint complaint) {
+        generation++;
+        CachedList userList = userLists.get(complaint.getUserId());
+        if (userList != null) {
+            insertOrdered(userList.rows, complaint);
+        }
+        if (allComplaints != null) {
+            if (allComplaints.rows.size() >= maxGlobalRows) {
+                allComplaints = null;
+                invalidations++;
+            } else {
+                insertOrdered(allComplaints.rows, complaint);
+            }
+        }
+    }
+
+    /**
+     * Write-through for a complaint whose columns changed; the complaint keeps its position
+     */
+    synchronized void complaintUpdated(Complaint complaint) {
+        generation++;
+        CachedList userList = userLists.get(complaint.getUserId());
+        if (userList != null && !replace(userList.rows, complaint)) {
+            userLists.remove(complaint.getUserId());
+            invalidations++;
+        }
+        if (allComplaints != null && !replace(allComplaints.rows, complaint)) {
+            allComplaints = null;
+            invalidations++;
+        }
+    }
+
+    /**
+     * Merge complaints read by a delta query: replace cached copies, insert the ones not yet cached
+     */
+    synchronized void applyChanges(List<Complaint> complaints) {
+        if (complaints.isEmpty()) {
+            return;
+        }
+        generation++;
+        for (Complaint complaint : complaints) {
+            CachedList userList = userLists.get(complaint.getUserId());
+            if (userList != null && !replace(userList.rows, complaint)) {
+                insertOrdered(userList.rows, complaint);
+            }
+            if (allComplaints != null && !replace(allComplaints.rows, complaint)) {
+                insertOrdered(allComplaints.rows, complaint);
+            }
+        }
+        if (allComplaints != null && allComplaints.rows.size() > maxGlobalRows) {
+            allComplaints = null;
+            invalidations++;
+        }
+    }
+
+    /**
+     * Drop everything, e.g. when a write could not be applied in place
+     */
+    synchronized void invalidateAll() {
+        generation++;
+        invalidations += userLists.size() + (allComplaints == null ? 0 : 1);
+        userLists.clear();
+        allComplaints = null;
+    }
+
+    synchronized CacheStatistics getStatistics() {
+        int rows = allComplaints == null ? 0 : allComplaints.rows.size();
+        for (CachedList cached : userLists.values()) {
+            rows += cached.rows.size();
+        }
+        int lists = userLists.size() + (allComplaints == null ? 0 : 1);
+        return new CacheStatistics(hits, misses, evictions, expirations, invalidations, lists, rows);
+    }
+
+    private boolean isExpired(CachedList cached) {
+        return System.nanoTime() - cached.loadedAt > ttlNanos;
+    }
+
+    private List<Complaint> copyOf(CachedList cached) {
+        if (cached == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return new ArrayList<>(cached.rows);
+    }
+
+    private static boolean replace(List<Complaint> rows, Complaint complaint) {
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i).getComplaintId() == complaint.getComplaintId()) {
+                rows.set(i, complaint);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Insert keeping (created_at DESC, id DESC) order; new complaints normally land at the front
+     */
+    private static void insertOrdered(List<Complaint> rows, Complaint complaint) {
+        Iterator<Complaint> it = rows.iterator();
+        int index = 0;
+        while (it.hasNext() && isNewer(it.next(), complaint)) {
+            index++;
+        }
+        rows.add(index, complaint);
+    }
+
+    private static boolean isNewer(Complaint a, Complaint b) {
+        // Rows without a timestamp sort first, like the newest rows
+        if (b.getCreatedAt() == null) {
+            return false;
+        }
+        if (a.getCreatedAt() == null) {
+            return true;
+        }
+        int byTime = a.getCreatedAt().compareTo(b.getCreatedAt());
+        return byTime > 0 || (byTime == 0 && a.getComplaintId() > b.getComplaintId());
+    }
+
+    private static class CachedList {
+        private final List<Complaint> rows;
+        private final long loadedAt;
+
+        CachedList(List<Complaint> rows) {
+            this.rows = new ArrayList<>(rows);
+            this.loadedAt = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.resolveit.dao;
+
+import com.resolveit.model.Complaint;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Result of a "changed since watermark" complaint query.
+ * Pass getWatermark() to the next query to continue from where this one ended.
+ */
+public class ComplaintChanges {
+    private final List<Complaint> complaints;
+    private final LocalDateTime watermark;
+    private final boolean truncated;
+
+    public ComplaintChanges(List<Complaint> complaints, LocalDateTime watermark, boolean truncated) {
+        this.complaints = complaints;
+        this.watermark = watermark;
+        this.truncated = truncated;
+    }
+
+    /**
+     * Inserted or updated complaints, oldest change first
+     */
+    public List<Complaint> getComplaints() {
+        return complaints;
+    }
+
+    public LocalDateTime getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * True when more rows changed than the requested limit; callers should reload fully
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+}
@@ -0,0 +1,44 @@
+package com.resolveit.dao;
+
+import com.resolveit.model.Complaint;
+import java.time.LocalDateTime;
+
+/**
+ * Keyset position in the (created_at DESC, id DESC) complaint ordering.
+ * A page fetched with a cursor starts immediately after the row the cursor was taken from.
+ */
+public final class ComplaintCursor {
+    private final LocalDateTime createdAt;
+    private final int complaintId;
+
+    public ComplaintCursor(LocalDateTime createdAt, int complaintId) {
+        if (createdAt == null) {
+            throw new IllegalArgumentException("Cursor requires a creation time");
+        }
+        this.createdAt = createdAt;
+        this.complaintId = complaintId;
+    }
+
+    /**
+     * Cursor positioned just after the given complaint
+     */
+    public static ComplaintCursor after(Complaint complaint) {
+        return new ComplaintCursor(complaint.getCreatedAt(), complaint.getComplaintId());
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getComplaintId() {
+        return complaintId;
+    }
+
+    @Override
+    public String toString() {
+        return "ComplaintCursor{" +
+                "createdAt=" + createdAt +
+                ", complaintId=" + complaintId +
+                '}';
+    }
+}
@@ -1,9 +1,26 @@
 package com.resolveit.dao;
 
+import com.resolveit.export.RowWriter;
+import com.resolveit.metrics.DaoMetrics;
+import com.resolveit.metrics.OperationMetrics;
 import com.resolveit.model.Complaint;
+import com.resolveit.model.ComplaintGroup;
+import com.resolveit.model.ComplaintPriority;
+import com.resolveit.model.ComplaintStatus;
+import com.resolveit.search.ComplaintSearch;
+import com.resolveit.stats.ComplaintStatistics;
+import java.io.IOException;
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Data Access Object for Complaint entity
@@ -11,35 +28,191 @@ import java.util.List;
  */
 public class ComplaintDAO {
     
+    private static final int CACHE_MAX_USER_LISTS = 500;
+    private static final int CACHE_MAX_GLOBAL_ROWS = 50000;
+    private static final long CACHE_TTL_MILLIS = 60 * 1000L;
+    
+    /**
+     * Delta queries re-read this many seconds before the watermark, so rows written by
+     * transactions that committed after a newer timestamp was observed are not missed
+     */
+    private static final int DELTA_OVERLAP_SECONDS = 5;
+    
+    /**
+     * Rows per multi-row INSERT used by importComplaints()
+     */
+    private static final int IMPORT_ROWS_PER_STATEMENT = 100;
+    
+    /**
+     * Statements per executeBatch() and ids per IN (...) list used by the bulk methods
+     */
+    private static final int BULK_CHUNK_SIZE = 1000;
+    
+    /**
+     * Rows fetched per round trip by exportComplaintsWithFeedback() and scanComplaints() on drivers
+     * that honour the fetch size
+     */
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    
+    /**
+     * BatchResult failure reason for rows changed by someone else after they were read
+     */
+    private static final String CONFLICT_REASON = "Changed by another user since it was loaded";
+    
     /**
-     * Submit a new complaint
+     * Unknown status and priority values already reported by mapComplaint()
+     */
+    private static final Set<String> UNKNOWN_VALUES_WARNED = ConcurrentHashMap.newKeySet();
+    
+    private static final String[] EXPORT_COLUMNS = {
+        "complaint_id", "user_id", "title", "description", "category", "priority", "status", "created_at", "updated_at",
+        "feedback_id", "feedback_user_id", "rating", "comments", "feedback_created_at"
+    };
+    
+    private static final ComplaintCache CACHE =
+            new ComplaintCache(CACHE_MAX_USER_LISTS, CACHE_MAX_GLOBAL_ROWS, CACHE_TTL_MILLIS);
+    
+    private static final OperationMetrics SUBMIT_METRICS = DaoMetrics.operation("ComplaintDAO", "submitComplaint");
+    private static final OperationMetrics IMPORT_METRICS = DaoMetrics.operation("ComplaintDAO", "importComplaints");
+    private static final OperationMetrics USER_COMPLAINTS_METRICS = DaoMetrics.operation("ComplaintDAO", "getUserComplaints");
+    private static final OperationMetrics ALL_COMPLAINTS_METRICS = DaoMetrics.operation("ComplaintDAO", "getAllComplaints");
+    private static final OperationMetrics BY_ID_METRICS = DaoMetrics.operation("ComplaintDAO", "getComplaintById");
+    private static final OperationMetrics PAGE_METRICS = DaoMetrics.operation("ComplaintDAO", "getComplaintsPage");
+    private static final OperationMetrics WATERMARK_METRICS = DaoMetrics.operation("ComplaintDAO", "getChangeWatermark");
+    private static final OperationMetrics CHANGES_METRICS = DaoMetrics.operation("ComplaintDAO", "getComplaintsChangedSince");
+    private static final OperationMetrics STATUS_METRICS = DaoMetrics.operation("ComplaintDAO", "updateComplaintStatus");
+    private static final OperationMetrics BULK_STATUS_METRICS = DaoMetrics.operation("ComplaintDAO", "updateComplaintStatuses");
+    private static final OperationMetrics ASSIGN_METRICS = DaoMetrics.operation("ComplaintDAO", "assignComplaint");
+    private static final OperationMetrics NOTE_METRICS = DaoMetrics.operation("ComplaintDAO", "updateResolutionNote");
+    private static final OperationMetrics BY_IDS_METRICS = DaoMetrics.operation("ComplaintDAO", "getComplaintsByIds");
+    private static final OperationMetrics EXPORT_METRICS = DaoMetrics.operation("ComplaintDAO", "exportComplaintsWithFeedback");
+    private static final OperationMetrics GROUPS_METRICS = DaoMetrics.operation("ComplaintDAO", "getComplaintGroups");
+    private static final OperationMetrics SCAN_METRICS = DaoMetrics.operation("ComplaintDAO", "scanComplaints");
+    
+    /**
+     * Submit a new complaint.
+     * With write-behind enabled the complaint is queued instead (see WriteBehindQueue).
      */
     public static boolean submitComplaint(int userId, String title, String description, String category) {
+        WriteBehindQueue queue = WriteBehindQueue.get();
+        if (queue != null) {
+            return queue.submitComplaint(userId, title, description, category);
+        }
+        return createComplaint(userId, title, description, category) != null;
+    }
+    
+    /**
+     * Submit a new complaint and return it as stored (with its id and timestamps), or null on error
+     */
+    public static Complaint createComplaint(int userId, String title, String description, String category) {
+        long start = System.nanoTime();
         String query = "INSERT INTO complaints (user_id, title, description, category, status, created_at) VALUES (?, ?, ?, ?, ?, NOW())";
         
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
+             PreparedStatement pstmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             
             pstmt.setInt(1, userId);
             pstmt.setString(2, title);
             pstmt.setString(3, description);
             pstmt.setString(4, category);
-            pstmt.setString(5, "PENDING");
+            pstmt.setString(5, ComplaintStatus.OPEN.name());
             
             int result = pstmt.executeUpdate();
-            return result > 0;
+            
+            // Write the stored row (with its generated id and timestamp) through to the cache
+            ResultSet keys = pstmt.getGeneratedKeys();
+            Complaint inserted = keys.next() ? findComplaint(conn, keys.getInt(1)) : null;
+            if (inserted != null) {
+                CACHE.complaintAdded(inserted);
+                ComplaintSearch.complaintsChanged(Collections.singletonList(inserted));
+                ComplaintStatistics.complaintAdded(inserted);
+            } else {
+                CACHE.invalidateAll();
+                ComplaintStatistics.invalidate();
+            }
+            SUBMIT_METRICS.success(start, result);
+            return inserted;
         } catch (SQLException e) {
+            SUBMIT_METRICS.failure(start);
+            CACHE.invalidateAll();
+            ComplaintStatistics.invalidate();
             System.err.println("Error submitting complaint: " + e.getMessage());
         }
-        return false;
+        return null;
+    }
+    
+    /**
+     * Insert a chunk of imported complaints in one transaction using batched multi-row INSERTs.
+     * If the chunk fails as a whole it is retried row by row, so only the offending rows are rejected.
+     * Result keys are row positions within the given list.
+     */
+    public static BatchResult<Integer> importComplaints(List<Complaint> complaints) {
+        BatchResult<Integer> result = new BatchResult<>();
+        if (complaints.isEmpty()) {
+            return result;
+        }
+        long start = System.nanoTime();
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                insertImportRows(conn, complaints, null);
+                conn.commit();
+                for (int i = 0; i < complaints.size(); i++) {
+                    result.addSuccess(i);
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                insertImportRowsIndividually(conn, complaints, result);
+            }
+            IMPORT_METRICS.success(start, result.getSuccessCount());
+        } catch (SQLException e) {
+            IMPORT_METRICS.failure(start);
+            System.err.println("Error importing complaints: " + e.getMessage());
+            // Nothing was committed; every row not already rejected failed with the connection
+            for (int i = 0; i < complaints.size(); i++) {
+                if (!result.getFailed().containsKey(i)) {
+                    result.addFailure(i, e.getMessage());
+                }
+            }
+        } finally {
+            CACHE.invalidateAll();
+            ComplaintStatistics.invalidate();
+            if (result.getSuccessCount() > 0) {
+                // The imported rows' ids are not read back, so the search index is rebuilt instead
+                ComplaintSearch.complaintsChangedUnreported();
+            }
+        }
+        return result;
     }
     
     /**
      * Get all complaints by user ID
      */
     public static List<Complaint> getUserComplaints(int userId) {
+        long start = System.nanoTime();
+        List<Complaint> cached = CACHE.getUserComplaints(userId);
+        if (cached != null) {
+            USER_COMPLAINTS_METRICS.success(start, cached.size());
+            return cached;
+        }
+        return loadUserComplaints(userId, start);
+    }
+    
+    /**
+     * Get all complaints by user ID from the database, skipping the cache (whose entry is replaced).
+     * For callers that pair the rows with a change watermark read just before: a cached list may be
+     * older than the watermark, and the changes in between would never show up as deltas.
+     */
+    public static List<Complaint> reloadUserComplaints(int userId) {
+        return loadUserComplaints(userId, System.nanoTime());
+    }
+    
+    private static List<Complaint> loadUserComplaints(int userId, long start) {
+        long loadGeneration = CACHE.beginLoad();
+        
         List<Complaint> complaints = new ArrayList<>();
-        String query = "SELECT * FROM complaints WHERE user_id = ? ORDER BY created_at DESC";
+        String query = "SELECT * FROM complaints WHERE user_id = ? ORDER BY created_at DESC, complaint_id DESC";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
@@ -49,17 +222,12 @@ public class ComplaintDAO {
             ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
-                Complaint complaint = new Complaint();
-                complaint.setId(rs.getInt("id"));
-                complaint.setUserId(rs.getInt("user_id"));
-                complaint.setTitle(rs.getString("title"));
-                complaint.setDescription(rs.getString("description"));
-                complaint.setCategory(rs.getString("category"));
-                complaint.setStatus(rs.getString("status"));
-                complaint.setCreatedAt(rs.getTimestamp("created_at"));
-                complaints.add(complaint);
+                complaints.add(mapComplaint(rs));
             }
+            CACHE.putUserComplaints(userId, complaints, loadGeneration);
+            USER_COMPLAINTS_METRICS.success(start, complaints.size());
         } catch (SQLException e) {
+            USER_COMPLAINTS_METRICS.failure(start);
             System.err.println("Error fetching user complaints: " + e.getMessage());
         }
         return complaints;
@@ -69,8 +237,16 @@ public class ComplaintDAO {
      * Get all complaints (for admin)
      */
     public static List<Complaint> getAllComplaints() {
+        long start = System.nanoTime();
+        List<Complaint> cached = CACHE.getAllComplaints();
+        if (cached != null) {
+            ALL_COMPLAINTS_METRICS.success(start, cached.size());
+            return cached;
+        }
+        long loadGeneration = CACHE.beginLoad();
+        
         List<Complaint> complaints = new ArrayList<>();
-        String query = "SELECT * FROM complaints ORDER BY created_at DESC";
+        String query = "SELECT * FROM complaints ORDER BY created_at DESC, complaint_id DESC";
         
         try (Connection conn = DatabaseConnection.getConnection();
              Statement stmt = conn.createStatement()) {
@@ -78,39 +254,702 @@ public class ComplaintDAO {
             ResultSet rs = stmt.executeQuery(query);
             
             while (rs.next()) {
-                Complaint complaint = new Complaint();
-                complaint.setId(rs.getInt("id"));
-                complaint.setUserId(rs.getInt("user_id"));
-                complaint.setTitle(rs.getString("title"));
-                complaint.setDescription(rs.getString("description"));
-                complaint.setCategory(rs.getString("category"));
-                complaint.setStatus(rs.getString("status"));
-                complaint.setCreatedAt(rs.getTimestamp("created_at"));
-                complaints.add(complaint);
+                complaints.add(mapComplaint(rs));
             }
+            CACHE.putAllComplaints(complaints, loadGeneration);
+            ALL_COMPLAINTS_METRICS.success(start, complaints.size());
         } catch (SQLException e) {
+            ALL_COMPLAINTS_METRICS.failure(start);
             System.err.println("Error fetching all complaints: " + e.getMessage());
         }
         return complaints;
     }
     
     /**
-     * Update complaint status
+     * Get a single complaint by ID
      */
-    public static boolean updateComplaintStatus(int complaintId, String status) {
-        String query = "UPDATE complaints SET status = ? WHERE id = ?";
+    public static Complaint getComplaintById(int complaintId) {
+        long start = System.nanoTime();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            Complaint complaint = findComplaint(conn, complaintId);
+            BY_ID_METRICS.success(start, complaint == null ? 0 : 1);
+            return complaint;
+        } catch (SQLException e) {
+            BY_ID_METRICS.failure(start);
+            System.err.println("Error fetching complaint: " + e.getMessage());
+        }
+        return null;
+    }
+    
+    /**
+     * Get one page of complaints in (created_at DESC, id DESC) order using keyset pagination.
+     * Pass null for the first page, then ComplaintCursor.after(lastRowOfPreviousPage).
+     */
+    public static List<Complaint> getComplaintsPage(ComplaintCursor after, int pageSize) {
+        long start = System.nanoTime();
+        List<Complaint> complaints = new ArrayList<>(pageSize);
+        String query = after == null
+                ? "SELECT * FROM complaints ORDER BY created_at DESC, complaint_id DESC LIMIT ?"
+                : "SELECT * FROM complaints WHERE created_at < ? OR (created_at = ? AND complaint_id < ?) "
+                        + "ORDER BY created_at DESC, complaint_id DESC LIMIT ?";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
             
-            pstmt.setString(1, status);
-            pstmt.setInt(2, complaintId);
+            int index = 1;
+            if (after != null) {
+                Timestamp createdAt = Timestamp.valueOf(after.getCreatedAt());
+                pstmt.setTimestamp(index++, createdAt);
+                pstmt.setTimestamp(index++, createdAt);
+                pstmt.setInt(index++, after.getComplaintId());
+            }
+            pstmt.setInt(index, pageSize);
             
-            int result = pstmt.executeUpdate();
-            return result > 0;
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                complaints.add(mapComplaint(rs));
+            }
+            PAGE_METRICS.success(start, complaints.size());
+        } catch (SQLException e) {
+            PAGE_METRICS.failure(start);
+            System.err.println("Error fetching complaint page: " + e.getMessage());
+        }
+        return complaints;
+    }
+    
+    /**
+     * Latest updated_at over all complaints, or over one user's complaints when userId is given.
+     * Take it before a full load and pass it to getComplaintsChangedSince() on the next refresh.
+     * Returns null when there are no complaints yet or on error; callers then reload fully.
+     */
+    public static LocalDateTime getChangeWatermark(Integer userId) {
+        long start = System.nanoTime();
+        String query = userId == null
+                ? "SELECT MAX(updated_at) AS watermark FROM complaints"
+                : "SELECT MAX(updated_at) AS watermark FROM complaints WHERE user_id = ?";
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            
+            if (userId != null) {
+                pstmt.setInt(1, userId);
+            }
+            
+            ResultSet rs = pstmt.executeQuery();
+            
+            Timestamp watermark = rs.next() ? rs.getTimestamp("watermark") : null;
+            WATERMARK_METRICS.success(start, watermark == null ? 0 : 1);
+            return watermark == null ? null : watermark.toLocalDateTime();
+        } catch (SQLException e) {
+            WATERMARK_METRICS.failure(start);
+            System.err.println("Error fetching change watermark: " + e.getMessage());
+        }
+        return null;
+    }
+    
+    /**
+     * Get complaints inserted or updated since the watermark (optionally for one user only).
+     * At most limit rows are returned; if more changed the result is marked truncated.
+     * Deleted complaints are not reported.
+     */
+    public static ComplaintChanges getComplaintsChangedSince(LocalDateTime watermark, Integer userId, int limit) {
+        long start = System.nanoTime();
+        List<Complaint> complaints = new ArrayList<>();
+        String query = "SELECT * FROM complaints WHERE updated_at >= ?"
+                + (userId == null ? "" : " AND user_id = ?")
+                + " ORDER BY updated_at, complaint_id LIMIT ?";
+        LocalDateTime newWatermark = watermark;
+        boolean truncated = false;
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            
+            int index = 1;
+            pstmt.setTimestamp(index++, Timestamp.valueOf(watermark.minusSeconds(DELTA_OVERLAP_SECONDS)));
+            if (userId != null) {
+                pstmt.setInt(index++, userId);
+            }
+            pstmt.setInt(index, limit + 1);
+            
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                if (complaints.size() == limit) {
+                    truncated = true;
+                    break;
+                }
+                complaints.add(mapComplaint(rs));
+                LocalDateTime updatedAt = rs.getTimestamp("updated_at").toLocalDateTime();
+                if (updatedAt.isAfter(newWatermark)) {
+                    newWatermark = updatedAt;
+                }
+            }
+            CACHE.applyChanges(complaints);
+            ComplaintSearch.complaintsChanged(complaints);
+            CHANGES_METRICS.success(start, complaints.size());
+        } catch (SQLException e) {
+            CHANGES_METRICS.failure(start);
+            System.err.println("Error fetching changed complaints: " + e.getMessage());
+        }
+        return new ComplaintChanges(complaints, newWatermark, truncated);
+    }
+    
+    /**
+     * Set a complaint's status if it still has the expected version (optimistic concurrency).
+     * On a conflict nothing is written and the result carries the complaint as it is now.
+     */
+    public static ComplaintUpdateResult updateComplaintStatus(int complaintId, int expectedVersion, ComplaintStatus status) {
+        if (status == null) {
+            throw new IllegalArgumentException("status is required");
+        }
+        return updateIfUnchanged(complaintId, expectedVersion, "status", status.name(), Types.VARCHAR,
+                STATUS_METRICS, "updating complaint status");
+    }
+    
+    /**
+     * Assign a complaint to a user, or unassign it with null, if it still has the expected version
+     */
+    public static ComplaintUpdateResult assignComplaint(int complaintId, int expectedVersion, Integer assigneeId) {
+        return updateIfUnchanged(complaintId, expectedVersion, "assigned_to", assigneeId, Types.INTEGER,
+                ASSIGN_METRICS, "assigning complaint");
+    }
+    
+    /**
+     * Set a complaint's resolution note, or clear it with null, if it still has the expected version
+     */
+    public static ComplaintUpdateResult updateResolutionNote(int complaintId, int expectedVersion, String note) {
+        return updateIfUnchanged(complaintId, expectedVersion, "resolution_note", note, Types.VARCHAR,
+                NOTE_METRICS, "updating resolution note");
+    }
+    
+    /**
+     * Set the status of many complaints in one transaction, each only if it still has the version
+     * it was read with (map of complaint id to expected version). Complaints changed by someone
+     * else in the meantime are left alone and reported as failed, like ids that match no complaint.
+     */
+    public static BatchResult<Integer> updateComplaintStatuses(Map<Integer, Integer> expectedVersions, ComplaintStatus status) {
+        if (status == null) {
+            throw new IllegalArgumentException("status is required");
+        }
+        BatchResult<Integer> result = new BatchResult<>();
+        List<Integer> ids = new ArrayList<>(expectedVersions.keySet());
+        if (ids.isEmpty()) {
+            return result;
+        }
+        long start = System.nanoTime();
+        String query = "UPDATE complaints SET status = ?, version = version + 1 WHERE complaint_id = ? AND version = ?";
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                // Not locked: where a row still has its expected version, this is the state the update replaces
+                Map<Integer, Complaint> previous = new HashMap<>();
+                for (Complaint complaint : findComplaints(conn, ids, false)) {
+                    previous.put(complaint.getComplaintId(), complaint);
+                }
+                List<Integer> candidates = new ArrayList<>(ids.size());
+                for (Integer id : ids) {
+                    Complaint complaint = previous.get(id);
+                    if (complaint == null) {
+                        result.addFailure(id, "Complaint not found");
+                    } else if (complaint.getVersion() != expectedVersions.get(id)) {
+                        result.addFailure(id, CONFLICT_REASON);
+                    } else {
+                        candidates.add(id);
+                    }
+                }
+                
+                List<Integer> updated = new ArrayList<>(candidates.size());
+                List<Integer> unknown = new ArrayList<>();
+                for (int from = 0; from < candidates.size(); from += BULK_CHUNK_SIZE) {
+                    List<Integer> chunk = candidates.subList(from, Math.min(from + BULK_CHUNK_SIZE, candidates.size()));
+                    for (Integer id : chunk) {
+                        pstmt.setString(1, status.name());
+                        pstmt.setInt(2, id);
+                        pstmt.setInt(3, expectedVersions.get(id));
+                        pstmt.addBatch();
+                    }
+                    
+                    int[] counts = pstmt.executeBatch();
+                    
+                    for (int i = 0; i < chunk.size(); i++) {
+                        if (counts[i] > 0) {
+                            updated.add(chunk.get(i));
+                        } else if (counts[i] == Statement.SUCCESS_NO_INFO) {
+                            unknown.add(chunk.get(i));
+                        } else {
+                            result.addFailure(chunk.get(i), CONFLICT_REASON);
+                        }
+                    }
+                }
+                
+                List<Complaint> changed = new ArrayList<>(updated.size() + unknown.size());
+                changed.addAll(findComplaints(conn, updated, false));
+                // Without update counts, a row is ours if it moved exactly one version on (we hold its lock)
+                for (Complaint complaint : findComplaints(conn, unknown, false)) {
+                    if (complaint.getVersion() == expectedVersions.get(complaint.getComplaintId()) + 1) {
+                        updated.add(complaint.getComplaintId());
+                        changed.add(complaint);
+                    } else {
+                        result.addFailure(complaint.getComplaintId(), CONFLICT_REASON);
+                    }
+                }
+                conn.commit();
+                
+                List<Complaint> before = new ArrayList<>(updated.size());
+                for (Integer id : updated) {
+                    result.addSuccess(id);
+                    before.add(previous.get(id));
+                }
+                CACHE.applyChanges(changed);
+                ComplaintStatistics.complaintsUpdated(before, changed);
+                BULK_STATUS_METRICS.success(start, updated.size());
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            BULK_STATUS_METRICS.failure(start);
+            CACHE.invalidateAll();
+            ComplaintStatistics.invalidate();
+            System.err.println("Error updating complaint statuses: " + e.getMessage());
+            for (Integer id : ids) {
+                if (!result.getFailed().containsKey(id)) {
+                    result.addFailure(id, e.getMessage());
+                }
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Get complaints by ID in one round trip per chunk; ids with no complaint are skipped
+     */
+    public static List<Complaint> getComplaintsByIds(Collection<Integer> complaintIds) {
+        long start = System.nanoTime();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            List<Complaint> complaints = findComplaints(conn, new ArrayList<>(new LinkedHashSet<>(complaintIds)), false);
+            BY_IDS_METRICS.success(start, complaints.size());
+            return complaints;
         } catch (SQLException e) {
-            System.err.println("Error updating complaint status: " + e.getMessage());
+            BY_IDS_METRICS.failure(start);
+            System.err.println("Error fetching complaints: " + e.getMessage());
         }
-        return false;
+        return new ArrayList<>();
+    }
+    
+    private static Complaint mapComplaint(ResultSet rs) throws SQLException {
+        Complaint complaint = new Complaint();
+        complaint.setComplaintId(rs.getInt("complaint_id"));
+        complaint.setUserId(rs.getInt("user_id"));
+        complaint.setTitle(rs.getString("title"));
+        complaint.setDescription(rs.getString("description"));
+        complaint.setCategory(rs.getString("category"));
+        complaint.setPriority(toPriority(complaint.getComplaintId(), rs.getString("priority")));
+        complaint.setStatus(toStatus(complaint.getComplaintId(), rs.getString("status")));
+        int assignedTo = rs.getInt("assigned_to");
+        complaint.setAssignedTo(rs.wasNull() ? null : assignedTo);
+        complaint.setResolutionNote(rs.getString("resolution_note"));
+        complaint.setVersion(rs.getInt("version"));
+        complaint.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        complaint.setUpdatedAt(toLocalDateTime(rs.getTimestamp("updated_at")));
+        return complaint;
+    }
+    
+    /**
+     * Complaint counts per (status, category, priority) with the oldest and summed creation
+     * times of each group, in one aggregate query. Returns null on error.
+     */
+    public static List<ComplaintGroup> getComplaintGroups() {
+        long start = System.nanoTime();
+        String query = "SELECT status, category, priority, COUNT(*) AS complaints, MIN(created_at) AS oldest, "
+                + "SUM(TIMESTAMPDIFF(SECOND, '1970-01-01 00:00:00', created_at)) AS created_seconds "
+                + "FROM complaints GROUP BY status, category, priority";
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            
+            ResultSet rs = pstmt.executeQuery();
+            
+            List<ComplaintGroup> groups = new ArrayList<>();
+            while (rs.next()) {
+                groups.add(new ComplaintGroup(rs.getString("status"), rs.getString("category"),
+                        rs.getString("priority"), rs.getLong("complaints"),
+                        toLocalDateTime(rs.getTimestamp("oldest")), rs.getLong("created_seconds")));
+            }
+            GROUPS_METRICS.success(start, groups.size());
+            return groups;
+        } catch (SQLException e) {
+            GROUPS_METRICS.failure(start);
+            System.err.println("Error computing complaint statistics: " + e.getMessage());
+        }
+        return null;
+    }
+    
+    /**
+     * Stream the analytic columns of every complaint, in id order, to the handler without
+     * holding the result in memory. Returns the number of complaints scanned, or -1 on error.
+     */
+    public static long scanComplaints(ComplaintRowHandler handler) {
+        long start = System.nanoTime();
+        String query = "SELECT complaint_id, user_id, assigned_to, status, category, priority, "
+                + "TIMESTAMPDIFF(SECOND, '1970-01-01 00:00:00', created_at) AS created_seconds, "
+                + "TIMESTAMPDIFF(SECOND, '1970-01-01 00:00:00', updated_at) AS updated_seconds "
+                + "FROM complaints ORDER BY complaint_id";
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            // MySQL Connector/J buffers the whole result unless the fetch size is Integer.MIN_VALUE
+            boolean mysql = conn.getMetaData().getDriverName().toLowerCase().contains("mysql");
+            pstmt.setFetchSize(mysql ? Integer.MIN_VALUE : EXPORT_FETCH_SIZE);
+            
+            ResultSet rs = pstmt.executeQuery();
+            
+            long rows = 0;
+            while (rs.next()) {
+                int assignedTo = rs.getInt("assigned_to");
+                if (rs.wasNull()) {
+                    assignedTo = ComplaintRowHandler.NO_USER;
+                }
+                long createdSeconds = rs.getLong("created_seconds");
+                if (rs.wasNull()) {
+                    createdSeconds = ComplaintRowHandler.NO_TIME;
+                }
+                long updatedSeconds = rs.getLong("updated_seconds");
+                if (rs.wasNull()) {
+                    updatedSeconds = ComplaintRowHandler.NO_TIME;
+                }
+                handler.complaint(rs.getInt("complaint_id"), rs.getInt("user_id"), assignedTo,
+                        rs.getString("status"), rs.getString("category"), rs.getString("priority"),
+                        createdSeconds, updatedSeconds);
+                rows++;
+            }
+            SCAN_METRICS.success(start, rows);
+            return rows;
+        } catch (SQLException e) {
+            SCAN_METRICS.failure(start);
+            System.err.println("Error scanning complaints: " + e.getMessage());
+        }
+        return -1;
+    }
+    
+    /**
+     * Stream every complaint joined with its feedback (one row per feedback entry, or one row
+     * with empty feedback columns) to the writer, without holding the result in memory.
+     * Returns the number of rows written, or -1 on error.
+     */
+    public static long exportComplaintsWithFeedback(RowWriter writer) {
+        long start = System.nanoTime();
+        String query = "SELECT c.complaint_id, c.user_id, c.title, c.description, c.category, c.priority, c.status, "
+                + "c.created_at, c.updated_at, f.feedback_id, f.user_id AS feedback_user_id, f.rating, "
+                + "f.comments, f.created_at AS feedback_created_at "
+                + "FROM complaints c LEFT JOIN feedback f ON f.complaint_id = c.complaint_id ORDER BY c.complaint_id";
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            // MySQL Connector/J buffers the whole result unless the fetch size is Integer.MIN_VALUE
+            boolean mysql = conn.getMetaData().getDriverName().toLowerCase().contains("mysql");
+            pstmt.setFetchSize(mysql ? Integer.MIN_VALUE : EXPORT_FETCH_SIZE);
+            
+            ResultSet rs = pstmt.executeQuery();
+            
+            writer.writeHeader(EXPORT_COLUMNS);
+            Object[] values = new Object[EXPORT_COLUMNS.length];
+            while (rs.next()) {
+                for (int i = 0; i < values.length; i++) {
+                    Object value = rs.getObject(i + 1);
+                    if (value instanceof Timestamp) {
+                        value = ((Timestamp) value).toLocalDateTime();
+                    }
+                    values[i] = value;
+                }
+                writer.writeRow(values);
+            }
+            EXPORT_METRICS.success(start, writer.getRowCount());
+            return writer.getRowCount();
+        } catch (SQLException | IOException e) {
+            EXPORT_METRICS.failure(start);
+            System.err.println("Error exporting complaints: " + e.getMessage());
+        }
+        return -1;
+    }
+    
+    /**
+     * Hit, miss and eviction counters of the complaint list cache
+     */
+    public static CacheStatistics getCacheStatistics() {
+        return CACHE.getStatistics();
+    }
+    
+    /**
+     * Drop all cached complaint lists, e.g. after changes made outside this DAO
+     */
+    public static void invalidateCache() {
+        CACHE.invalidateAll();
+    }
+    
+    /**
+     * Set one column if the complaint still has the expected version. Rather than locking the row
+     * for the user's think time, the UPDATE checks the version in its WHERE clause; the short
+     * transaction only keeps the before and after reads consistent with it.
+     */
+    private static ComplaintUpdateResult updateIfUnchanged(int complaintId, int expectedVersion, String column,
+                                                           Object value, int sqlType, OperationMetrics metrics,
+                                                           String action) {
+        long start = System.nanoTime();
+        String query = "UPDATE complaints SET " + column + " = ?, version = version + 1 "
+                + "WHERE complaint_id = ? AND version = ?";
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                // Not locked: if the version still matches, this is the state the update replaces
+                Complaint previous = findComplaint(conn, complaintId);
+                if (previous == null || previous.getVersion() != expectedVersion) {
+                    conn.commit();
+                    metrics.success(start, 0);
+                    return previous == null
+                            ? new ComplaintUpdateResult(ComplaintUpdateResult.Outcome.NOT_FOUND, null)
+                            : new ComplaintUpdateResult(ComplaintUpdateResult.Outcome.CONFLICT, previous);
+                }
+                
+                if (value == null) {
+                    pstmt.setNull(1, sqlType);
+                } else {
+                    pstmt.setObject(1, value, sqlType);
+                }
+                pstmt.setInt(2, complaintId);
+                pstmt.setInt(3, expectedVersion);
+                
+                int result = pstmt.executeUpdate();
+                
+                // A locking read sees the latest row: exactly what was written after a successful update,
+                // otherwise the change that got in first (a plain read could return the earlier snapshot)
+                Complaint current = findComplaint(conn, complaintId, true);
+                conn.commit();
+                metrics.success(start, result);
+                if (current == null) {
+                    return new ComplaintUpdateResult(ComplaintUpdateResult.Outcome.NOT_FOUND, null);
+                }
+                if (result == 0) {
+                    // Changed between the read and the update
+                    return new ComplaintUpdateResult(ComplaintUpdateResult.Outcome.CONFLICT, current);
+                }
+                CACHE.complaintUpdated(current);
+                ComplaintStatistics.complaintsUpdated(Collections.singletonList(previous),
+                        Collections.singletonList(current));
+                return new ComplaintUpdateResult(ComplaintUpdateResult.Outcome.UPDATED, current);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            metrics.failure(start);
+            System.err.println("Error " + action + ": " + e.getMessage());
+        }
+        return new ComplaintUpdateResult(ComplaintUpdateResult.Outcome.FAILED, null);
+    }
+    
+    private static Complaint findComplaint(Connection conn, int complaintId) throws SQLException {
+        return findComplaint(conn, complaintId, false);
+    }
+    
+    private static Complaint findComplaint(Connection conn, int complaintId, boolean forUpdate) throws SQLException {
+        String query = "SELECT * FROM complaints WHERE complaint_id = ?" + (forUpdate ? " FOR UPDATE" : "");
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setInt(1, complaintId);
+            
+            ResultSet rs = pstmt.executeQuery();
+            
+            return rs.next() ? mapComplaint(rs) : null;
+        }
+    }
+    
+    private static List<Complaint> findComplaints(Connection conn, List<Integer> ids, boolean forUpdate) throws SQLException {
+        List<Complaint> complaints = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size()));
+            StringBuilder query = new StringBuilder("SELECT * FROM complaints WHERE complaint_id IN (");
+            for (int i = 0; i < chunk.size(); i++) {
+                query.append(i == 0 ? "?" : ", ?");
+            }
+            query.append(forUpdate ? ") FOR UPDATE" : ")");
+            
+            try (PreparedStatement pstmt = conn.prepareStatement(query.toString())) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    pstmt.setInt(i + 1, chunk.get(i));
+                }
+                
+                ResultSet rs = pstmt.executeQuery();
+                
+                while (rs.next()) {
+                    complaints.add(mapComplaint(rs));
+                }
+            }
+        }
+        return complaints;
+    }
+    
+    /**
+     * Insert complaints acknowledged by the WriteBehindQueue on the caller's connection and transaction,
+     * and return them as stored (with their ids and timestamps). Rows whose generated key the driver
+     * did not report are missing from the result.
+     */
+    static List<Complaint> insertQueuedComplaints(Connection conn, List<Complaint> complaints) throws SQLException {
+        if (complaints.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Integer> ids = new ArrayList<>(complaints.size());
+        insertImportRows(conn, complaints, ids);
+        return findComplaints(conn, ids, false);
+    }
+    
+    /**
+     * Called by the WriteBehindQueue once queued complaints are committed, with the rows returned by
+     * insertQueuedComplaints and the number of complaints it inserted
+     */
+    static void queuedComplaintsWritten(List<Complaint> written, int inserted) {
+        if (written.size() != inserted) {
+            CACHE.invalidateAll();
+            ComplaintStatistics.invalidate();
+            ComplaintSearch.complaintsChangedUnreported();
+            return;
+        }
+        CACHE.applyChanges(written);
+        ComplaintSearch.complaintsChanged(written);
+        for (Complaint complaint : written) {
+            ComplaintStatistics.complaintAdded(complaint);
+        }
+    }
+    
+    /**
+     * Insert with batched multi-row INSERTs; the generated ids are added to generatedIds unless it is null
+     */
+    private static void insertImportRows(Connection conn, List<Complaint> complaints,
+                                         List<Integer> generatedIds) throws SQLException {
+        int fullStatements = complaints.size() / IMPORT_ROWS_PER_STATEMENT;
+        int remainder = complaints.size() % IMPORT_ROWS_PER_STATEMENT;
+        int keys = generatedIds == null ? Statement.NO_GENERATED_KEYS : Statement.RETURN_GENERATED_KEYS;
+        
+        if (fullStatements > 0) {
+            try (PreparedStatement pstmt = conn.prepareStatement(importQuery(IMPORT_ROWS_PER_STATEMENT), keys)) {
+                for (int s = 0; s < fullStatements; s++) {
+                    int first = s * IMPORT_ROWS_PER_STATEMENT;
+                    for (int r = 0; r < IMPORT_ROWS_PER_STATEMENT; r++) {
+                        bindImportRow(pstmt, r * 7, complaints.get(first + r));
+                    }
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                readGeneratedIds(pstmt, generatedIds);
+            }
+        }
+        if (remainder > 0) {
+            try (PreparedStatement pstmt = conn.prepareStatement(importQuery(remainder), keys)) {
+                int first = fullStatements * IMPORT_ROWS_PER_STATEMENT;
+                for (int r = 0; r < remainder; r++) {
+                    bindImportRow(pstmt, r * 7, complaints.get(first + r));
+                }
+                pstmt.executeUpdate();
+                readGeneratedIds(pstmt, generatedIds);
+            }
+        }
+    }
+    
+    private static void readGeneratedIds(PreparedStatement pstmt, List<Integer> generatedIds) throws SQLException {
+        if (generatedIds == null) {
+            return;
+        }
+        try (ResultSet keys = pstmt.getGeneratedKeys()) {
+            while (keys.next()) {
+                generatedIds.add(keys.getInt(1));
+            }
+        }
+    }
+    
+    private static void insertImportRowsIndividually(Connection conn, List<Complaint> complaints,
+                                                     BatchResult<Integer> result) throws SQLException {
+        List<Integer> inserted = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(importQuery(1))) {
+            for (int i = 0; i < complaints.size(); i++) {
+                Savepoint savepoint = conn.setSavepoint();
+                try {
+                    bindImportRow(pstmt, 0, complaints.get(i));
+                    pstmt.executeUpdate();
+                    conn.releaseSavepoint(savepoint);
+                    inserted.add(i);
+                } catch (SQLException e) {
+                    conn.rollback(savepoint);
+                    result.addFailure(i, e.getMessage());
+                }
+            }
+        }
+        conn.commit();
+        for (Integer i : inserted) {
+            result.addSuccess(i);
+        }
+    }
+    
+    private static String importQuery(int rows) {
+        StringBuilder sb = new StringBuilder(
+                "INSERT INTO complaints (user_id, title, description, category, priority, status, created_at) VALUES ");
+        for (int i = 0; i < rows; i++) {
+            sb.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, ?, COALESCE(?, NOW()))");
+        }
+        return sb.toString();
+    }
+    
+    private static void bindImportRow(PreparedStatement pstmt, int offset, Complaint complaint) throws SQLException {
+        pstmt.setInt(offset + 1, complaint.getUserId());
+        pstmt.setString(offset + 2, complaint.getTitle());
+        pstmt.setString(offset + 3, complaint.getDescription());
+        pstmt.setString(offset + 4, complaint.getCategory());
+        pstmt.setString(offset + 5, (complaint.getPriority() == null ? ComplaintPriority.MEDIUM : complaint.getPriority()).name());
+        pstmt.setString(offset + 6, (complaint.getStatus() == null ? ComplaintStatus.OPEN : complaint.getStatus()).name());
+        if (complaint.getCreatedAt() == null) {
+            pstmt.setNull(offset + 7, Types.TIMESTAMP);
+        } else {
+            pstmt.setTimestamp(offset + 7, Timestamp.valueOf(complaint.getCreatedAt()));
+        }
+    }
+    
+    /**
+     * Rows written before status was typed may hold other values (PENDING, or '' where MySQL
+     * was not strict); they are read as the column default rather than failing the whole query
+     */
+    private static ComplaintStatus toStatus(int complaintId, String status) {
+        ComplaintStatus parsed = ComplaintStatus.fromName(status);
+        if (parsed == null) {
+            warnUnknownValue("status", status, complaintId, ComplaintStatus.OPEN.name());
+            return ComplaintStatus.OPEN;
+        }
+        return parsed;
+    }
+    
+    private static ComplaintPriority toPriority(int complaintId, String priority) {
+        ComplaintPriority parsed = ComplaintPriority.fromName(priority);
+        if (parsed == null) {
+            warnUnknownValue("priority", priority, complaintId, ComplaintPriority.MEDIUM.name());
+            return ComplaintPriority.MEDIUM;
+        }
+        return parsed;
+    }
+    
+    private static void warnUnknownValue(String column, String value, int complaintId, String fallback) {
+        // Once per value, not per row: a listing may read thousands of such rows
+        if (UNKNOWN_VALUES_WARNED.add(column + "=" + value)) {
+            System.err.println("Complaint " + complaintId + " has unknown " + column + " '" + value
+                    + "' (and possibly others); reading it as " + fallback);
+        }
+    }
+    
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
     }
 }
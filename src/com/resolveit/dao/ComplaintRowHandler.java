@@ -0,0 +1,21 @@
+package com.resolveit.dao;
+
+/**
+ * Receives complaints streamed by ComplaintDAO.scanComplaints() one row at a time, as
+ * primitive values so that no Complaint objects are created.
+ * Timestamps are seconds since 1970-01-01T00:00 in the database's local time.
+ */
+public interface ComplaintRowHandler {
+    /**
+     * Passed for a complaint that is not assigned to anyone
+     */
+    int NO_USER = 0;
+
+    /**
+     * Passed for a missing timestamp
+     */
+    long NO_TIME = Long.MIN_VALUE;
+
+    void complaint(int complaintId, int userId, int assignedTo, String status, String category,
+                   String priority, long createdSeconds, long updatedSeconds);
+}
@@ -0,0 +1,57 @@
+package com.resolveit.dao;
+
+import com.resolveit.model.Complaint;
+
+/**
+ * Result of a complaint update made against an expected version.
+ * On CONFLICT nothing was written and getComplaint() is the complaint as it is now,
+ * so the caller can show the other user's change and let its user decide again.
+ */
+public class ComplaintUpdateResult {
+
+    public enum Outcome {
+        /** Written; getComplaint() is the stored row with its new version */
+        UPDATED,
+        /** Someone else changed the complaint since the expected version was read */
+        CONFLICT,
+        /** The complaint does not exist (any more) */
+        NOT_FOUND,
+        /** Database error; nothing was written */
+        FAILED
+    }
+
+    private final Outcome outcome;
+    private final Complaint complaint;
+
+    public ComplaintUpdateResult(Outcome outcome, Complaint complaint) {
+        this.outcome = outcome;
+        this.complaint = complaint;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * The complaint after the update, or its current state on a conflict; null otherwise
+     */
+    public Complaint getComplaint() {
+        return complaint;
+    }
+
+    public boolean isUpdated() {
+        return outcome == Outcome.UPDATED;
+    }
+
+    public boolean isConflict() {
+        return outcome == Outcome.CONFLICT;
+    }
+
+    @Override
+    public String toString() {
+        return "ComplaintUpdateResult{" +
+                "outcome=" + outcome +
+                ", complaint=" + complaint +
+                '}';
+    }
+}
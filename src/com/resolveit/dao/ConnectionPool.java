@@ -0,0 +1,481 @@
+package com.resolveit.dao;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * Bounded JDBC Connection Pool
+ * Keeps physical connections open between DAO calls. Connections handed out
+ * are proxies whose close() returns the physical connection to the pool.
+ * Usable wherever a DataSource is expected; getConnection() is borrow().
+ */
+public class ConnectionPool implements DataSource {
+    /** Connections used more recently than this are not re-validated on borrow */
+    private static final long VALIDATION_BYPASS_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final PoolConfig config;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> leased = ConcurrentHashMap.newKeySet();
+    private int total;    // idle + leased + being created, guarded by lock
+    private int waiters;  // guarded by lock
+    private boolean shutdown;
+
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong borrowTimeouts = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final AtomicLong totalBorrowNanos = new AtomicLong();
+    private final AtomicLong maxBorrowNanos = new AtomicLong();
+
+    private final ScheduledExecutorService housekeeper;
+
+    public ConnectionPool(String url, String user, String password, PoolConfig config) {
+        if (config.getMinSize() > config.getMaxSize()) {
+            throw new IllegalArgumentException("Minimum pool size exceeds maximum: " + config);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.config = config;
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "resolveit-pool-housekeeper");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        long interval = config.getHousekeepingIntervalMillis();
+        housekeeper.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                housekeep();
+            }
+        }, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection, waiting up to the configured borrow timeout for one to become free
+     */
+    public Connection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(config.getBorrowTimeoutMillis());
+
+        while (true) {
+            PooledConnection pooled = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (pooled == null && !create) {
+                    if (shutdown) {
+                        throw new SQLException("Connection pool has been shut down");
+                    }
+                    pooled = idle.pollFirst();
+                    if (pooled == null && total < config.getMaxSize()) {
+                        total++;
+                        create = true;
+                    } else if (pooled == null) {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            borrowTimeouts.incrementAndGet();
+                            throw new SQLException("Timed out after " + config.getBorrowTimeoutMillis()
+                                    + " ms waiting for a database connection (" + total + " in use, "
+                                    + waiters + " waiting)");
+                        }
+                        waiters++;
+                        try {
+                            available.awaitNanos(remaining);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new SQLException("Interrupted while waiting for a database connection", e);
+                        } finally {
+                            waiters--;
+                        }
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                pooled = openPhysical();
+            } else if (!isUsable(pooled)) {
+                discard(pooled);
+                continue;
+            }
+            return lease(pooled, start);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return borrow();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pooled connections always use the configured credentials");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return 0;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    /**
+     * Snapshot of the current pool state and borrow counters
+     */
+    public PoolStatistics getStatistics() {
+        int idleCount;
+        int waiting;
+        lock.lock();
+        try {
+            idleCount = idle.size();
+            waiting = waiters;
+        } finally {
+            lock.unlock();
+        }
+        return new PoolStatistics(leased.size(), idleCount, waiting, borrowCount.get(),
+                borrowTimeouts.get(), leaksDetected.get(), totalBorrowNanos.get(), maxBorrowNanos.get());
+    }
+
+    public PoolConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Close all idle connections and refuse further borrows.
+     * Leased connections are closed when they are returned.
+     */
+    public void shutdown() {
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            shutdown = true;
+            toClose = new ArrayList<>(idle);
+            total -= idle.size();
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        housekeeper.shutdownNow();
+        for (PooledConnection pooled : toClose) {
+            closeQuietly(pooled);
+        }
+    }
+
+    private PooledConnection openPhysical() throws SQLException {
+        try {
+            return new PooledConnection(DriverManager.getConnection(url, user, password));
+        } catch (SQLException | RuntimeException e) {
+            releaseSlot();
+            throw e;
+        }
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        if (System.nanoTime() - pooled.lastReturnedAt < VALIDATION_BYPASS_NANOS) {
+            return true;
+        }
+        try {
+            return pooled.connection.isValid(config.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection lease(PooledConnection pooled, long borrowStart) {
+        long now = System.nanoTime();
+        pooled.borrowedAt = now;
+        pooled.leakReported = false;
+        pooled.borrowSite = config.getLeakThresholdMillis() > 0
+                ? new Throwable("Connection borrowed by " + Thread.currentThread().getName())
+                : null;
+        leased.add(pooled);
+
+        long elapsed = now - borrowStart;
+        borrowCount.incrementAndGet();
+        totalBorrowNanos.addAndGet(elapsed);
+        maxBorrowNanos.accumulateAndGet(elapsed, Math::max);
+
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new LeaseHandler(pooled));
+    }
+
+    private void giveBack(PooledConnection pooled) {
+        leased.remove(pooled);
+        pooled.borrowSite = null;
+        try {
+            Connection connection = pooled.connection;
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            if (connection.isReadOnly()) {
+                connection.setReadOnly(false);
+            }
+            connection.clearWarnings();
+        } catch (SQLException e) {
+            discard(pooled);
+            return;
+        }
+
+        pooled.lastReturnedAt = System.nanoTime();
+        boolean closeNow = false;
+        lock.lock();
+        try {
+            if (shutdown) {
+                total--;
+                closeNow = true;
+            } else {
+                idle.addFirst(pooled);
+            }
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (closeNow) {
+            closeQuietly(pooled);
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        closeQuietly(pooled);
+        releaseSlot();
+    }
+
+    private void releaseSlot() {
+        lock.lock();
+        try {
+            total--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Periodic maintenance: report leaks, evict idle connections and top up to the minimum size
+     */
+    private void housekeep() {
+        try {
+            reportLeaks();
+            evictIdle();
+            fillToMinimum();
+        } catch (RuntimeException e) {
+            System.err.println("Connection pool housekeeping failed: " + e.getMessage());
+        }
+    }
+
+    private void reportLeaks() {
+        long threshold = config.getLeakThresholdMillis();
+        if (threshold <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (PooledConnection pooled : leased) {
+            Throwable site = pooled.borrowSite;
+            long heldMillis = TimeUnit.NANOSECONDS.toMillis(now - pooled.borrowedAt);
+            if (!pooled.leakReported && site != null && heldMillis > threshold) {
+                pooled.leakReported = true;
+                leaksDetected.incrementAndGet();
+                System.err.println("Possible connection leak: connection held for " + heldMillis + " ms");
+                site.printStackTrace();
+            }
+        }
+    }
+
+    private void evictIdle() {
+        List<PooledConnection> evicted = new ArrayList<>();
+        long now = System.nanoTime();
+        long idleTimeout = TimeUnit.MILLISECONDS.toNanos(config.getIdleTimeoutMillis());
+        lock.lock();
+        try {
+            // Least recently used connections sit at the tail of the deque
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && total > config.getMinSize()) {
+                PooledConnection pooled = it.next();
+                if (now - pooled.lastReturnedAt < idleTimeout) {
+                    break;
+                }
+                it.remove();
+                total--;
+                evicted.add(pooled);
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (PooledConnection pooled : evicted) {
+            closeQuietly(pooled);
+        }
+    }
+
+    private void fillToMinimum() {
+        while (true) {
+            lock.lock();
+            try {
+                if (shutdown || total >= config.getMinSize()) {
+                    return;
+                }
+                total++;
+            } finally {
+                lock.unlock();
+            }
+
+            PooledConnection pooled;
+            try {
+                pooled = openPhysical();
+            } catch (SQLException e) {
+                System.err.println("Connection pool could not open a connection: " + e.getMessage());
+                return;
+            }
+            pooled.lastReturnedAt = System.nanoTime();
+            boolean closeNow = false;
+            lock.lock();
+            try {
+                if (shutdown) {
+                    total--;
+                    closeNow = true;
+                } else {
+                    idle.addLast(pooled);
+                    available.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (closeNow) {
+                closeQuietly(pooled);
+                return;
+            }
+        }
+    }
+
+    private static void closeQuietly(PooledConnection pooled) {
+        try {
+            pooled.connection.close();
+        } catch (SQLException e) {
+            System.err.println("Failed to close pooled connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Physical connection plus the bookkeeping of its current lease
+     */
+    private static class PooledConnection {
+        private final Connection connection;
+        private volatile long lastReturnedAt;
+        private volatile long borrowedAt;
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+
+        PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+    }
+
+    /**
+     * Forwards calls to the physical connection until the lease is closed
+     */
+    private class LeaseHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        LeaseHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (released.compareAndSet(false, true)) {
+                        giveBack(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return released.get() || pooled.connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.connection + (released.get() ? ", released]" : "]");
+                default:
+                    break;
+            }
+            if (released.get()) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            try {
+                return method.invoke(pooled.connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.resolveit.dao;
+
+import com.resolveit.metrics.DaoMetrics;
+import com.resolveit.metrics.OperationMetrics;
+import com.resolveit.util.PasswordHasher;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password hashing for UserDAO on a small dedicated thread pool so that a burst of
+ * logins cannot take every CPU from the rest of the application. Admission is bounded twice:
+ * a check is refused when the queue is full, and abandoned when it has not completed within
+ * the timeout; both surface as AuthenticationBusyException. Settings (system property
+ * "resolveit.auth.<key>" or environment variable RESOLVEIT_AUTH_<KEY>):
+ *  - threads: pool size, default half the available processors (at least 1)
+ *  - queue: checks allowed to wait for a thread, default 8 per thread
+ *  - timeoutMillis: longest a caller waits for its check, default 5000
+ */
+final class CredentialVerifier {
+    private static final OperationMetrics VERIFY_METRICS = DaoMetrics.operation("UserDAO", "verifyPassword");
+
+    private static final int THREADS = intSetting("threads", Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    private static final int QUEUE = intSetting("queue", THREADS * 8);
+    private static final long TIMEOUT_MILLIS = intSetting("timeoutMillis", 5000);
+
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(THREADS, THREADS,
+            0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(QUEUE), new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "password-verifier-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    // Verified against when the account does not exist, so unknown emails cost the same as wrong passwords
+    private static volatile String dummyHash;
+
+    private CredentialVerifier() {
+    }
+
+    /**
+     * Check a password against the stored hash (null if there is no such account).
+     * A match on a legacy or weaker hash also returns its replacement.
+     */
+    static Result verify(final String password, final String storedHash) {
+        long start = System.nanoTime();
+        Result result = run(new Callable<Result>() {
+            @Override
+            public Result call() {
+                if (storedHash == null) {
+                    PasswordHasher.verify(password, dummyHash());
+                    return new Result(false, null);
+                }
+                if (!PasswordHasher.verify(password, storedHash)) {
+                    return new Result(false, null);
+                }
+                String rehashed = PasswordHasher.needsRehash(storedHash) ? PasswordHasher.hash(password) : null;
+                return new Result(true, rehashed);
+            }
+        }, start);
+        VERIFY_METRICS.success(start, result.isMatch() ? 1 : 0);
+        return result;
+    }
+
+    /**
+     * Hash a new password
+     */
+    static String hash(final String password) {
+        long start = System.nanoTime();
+        String hash = run(new Callable<String>() {
+            @Override
+            public String call() {
+                return PasswordHasher.hash(password);
+            }
+        }, start);
+        VERIFY_METRICS.success(start, 0);
+        return hash;
+    }
+
+    private static <T> T run(Callable<T> task, long start) {
+        Future<T> future;
+        try {
+            future = EXECUTOR.submit(task);
+        } catch (RejectedExecutionException e) {
+            VERIFY_METRICS.failure(start);
+            throw new AuthenticationBusyException("Too many sign-in attempts in progress");
+        }
+        try {
+            return future.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            VERIFY_METRICS.failure(start);
+            throw new AuthenticationBusyException("Timed out waiting for password verification");
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            VERIFY_METRICS.failure(start);
+            throw new AuthenticationBusyException("Interrupted waiting for password verification");
+        } catch (ExecutionException e) {
+            VERIFY_METRICS.failure(start);
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+        }
+    }
+
+    private static String dummyHash() {
+        String hash = dummyHash;
+        if (hash == null) {
+            hash = PasswordHasher.hash(Long.toHexString(System.nanoTime()));
+            dummyHash = hash;
+        }
+        return hash;
+    }
+
+    private static int intSetting(String key, int defaultValue) {
+        String value = System.getProperty("resolveit.auth." + key,
+                System.getenv("RESOLVEIT_AUTH_" + key.toUpperCase(Locale.ROOT)));
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(1, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid resolveit.auth." + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    static class Result {
+        private final boolean match;
+        private final String rehashed;
+
+        Result(boolean match, String rehashed) {
+            this.match = match;
+            this.rehashed = rehashed;
+        }
+
+        boolean isMatch() {
+            return match;
+        }
+
+        /**
+         * Replacement for a matched legacy or weaker hash, or null if the stored hash is current
+         */
+        String getRehashed() {
+            return rehashed;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.resolveit.dao;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Database Configuration
+ * Connection and pool settings, read from (highest precedence first):
+ *  - system properties prefixed with "resolveit." (e.g. -Dresolveit.db.url=...)
+ *  - environment variables prefixed with RESOLVEIT_ (e.g. RESOLVEIT_DB_URL)
+ *  - a properties file: -Dresolveit.config / RESOLVEIT_CONFIG, else ./resolveit.properties,
+ *    else resolveit.properties on the classpath
+ *  - built-in defaults (MySQL on localhost)
+ *
+ * Setting db.mode=embedded runs an in-process H2 database in MySQL compatibility mode,
+ * stored at db.embedded.path ("mem" keeps it in memory) and created from db.schema on first use.
+ */
+public class DatabaseConfig {
+    public static final String MODE_MYSQL = "mysql";
+    public static final String MODE_EMBEDDED = "embedded";
+
+    private static final String CONFIG_FILE = "resolveit.properties";
+    private static final String MYSQL_DRIVER = "com.mysql.cj.jdbc.Driver";
+    private static final String H2_DRIVER = "org.h2.Driver";
+
+    private final Properties properties;
+
+    public DatabaseConfig(Properties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Configuration from the properties file, environment and system properties
+     */
+    public static DatabaseConfig load() {
+        Properties properties = new Properties();
+        loadFile(properties);
+        for (String key : new String[] {
+                "db.mode", "db.url", "db.user", "db.password", "db.driver", "db.embedded.path", "db.schema",
+                "db.pool.minSize", "db.pool.maxSize", "db.pool.idleTimeoutMillis", "db.pool.borrowTimeoutMillis",
+                "db.pool.leakThresholdMillis", "db.slowQuery.thresholdMillis", "db.slowQuery.file",
+                "db.slowQuery.maxFileBytes", "db.slowQuery.maxFiles", "db.slowQuery.explain"}) {
+            String env = System.getenv("RESOLVEIT_" + key.replace('.', '_').toUpperCase());
+            if (env != null) {
+                properties.setProperty(key, env);
+            }
+            String property = System.getProperty("resolveit." + key);
+            if (property != null) {
+                properties.setProperty(key, property);
+            }
+        }
+        return new DatabaseConfig(properties);
+    }
+
+    /**
+     * Embedded in-memory database with the given name, e.g. for benchmarks and offline tools
+     */
+    public static DatabaseConfig embeddedInMemory(String name) {
+        Properties properties = new Properties();
+        properties.setProperty("db.mode", MODE_EMBEDDED);
+        properties.setProperty("db.embedded.path", "mem:" + name);
+        return new DatabaseConfig(properties);
+    }
+
+    public String getMode() {
+        return properties.getProperty("db.mode", MODE_MYSQL).trim().toLowerCase();
+    }
+
+    public boolean isEmbedded() {
+        return MODE_EMBEDDED.equals(getMode());
+    }
+
+    public String getUrl() {
+        String url = properties.getProperty("db.url");
+        if (url != null) {
+            return url;
+        }
+        if (!isEmbedded()) {
+            return "jdbc:mysql://localhost:3306/resolveit_db";
+        }
+        String path = properties.getProperty("db.embedded.path", "./data/resolveit");
+        if (path.equals("mem") || path.startsWith("mem:")) {
+            String name = path.equals("mem") ? "resolveit" : path.substring(4);
+            return "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        }
+        // AUTO_SERVER lets the command-line tools open the database while the application has it open
+        return "jdbc:h2:file:" + path + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;AUTO_SERVER=TRUE";
+    }
+
+    public String getUser() {
+        return properties.getProperty("db.user", isEmbedded() ? "sa" : "root");
+    }
+
+    public String getPassword() {
+        return properties.getProperty("db.password", "");
+    }
+
+    public String getDriver() {
+        String driver = properties.getProperty("db.driver");
+        if (driver != null) {
+            return driver;
+        }
+        return getUrl().startsWith("jdbc:h2:") ? H2_DRIVER : MYSQL_DRIVER;
+    }
+
+    /**
+     * Script run to create the embedded database
+     */
+    public String getSchemaPath() {
+        return properties.getProperty("db.schema", "database/resolveit_schema.sql");
+    }
+
+    public PoolConfig getPoolConfig() {
+        PoolConfig config = new PoolConfig();
+        String value = properties.getProperty("db.pool.minSize");
+        if (value != null) {
+            config.setMinSize(Integer.parseInt(value.trim()));
+        }
+        value = properties.getProperty("db.pool.maxSize");
+        if (value != null) {
+            config.setMaxSize(Integer.parseInt(value.trim()));
+        }
+        value = properties.getProperty("db.pool.idleTimeoutMillis");
+        if (value != null) {
+            config.setIdleTimeoutMillis(Long.parseLong(value.trim()));
+        }
+        value = properties.getProperty("db.pool.borrowTimeoutMillis");
+        if (value != null) {
+            config.setBorrowTimeoutMillis(Long.parseLong(value.trim()));
+        }
+        value = properties.getProperty("db.pool.leakThresholdMillis");
+        if (value != null) {
+            config.setLeakThresholdMillis(Long.parseLong(value.trim()));
+        }
+        return config;
+    }
+
+    public SlowQueryConfig getSlowQueryConfig() {
+        SlowQueryConfig config = new SlowQueryConfig();
+        String value = properties.getProperty("db.slowQuery.thresholdMillis");
+        if (value != null) {
+            config.setThresholdMillis(Long.parseLong(value.trim()));
+        }
+        value = properties.getProperty("db.slowQuery.file");
+        if (value != null) {
+            config.setFile(value.trim());
+        }
+        value = properties.getProperty("db.slowQuery.maxFileBytes");
+        if (value != null) {
+            config.setMaxFileBytes(Long.parseLong(value.trim()));
+        }
+        value = properties.getProperty("db.slowQuery.maxFiles");
+        if (value != null) {
+            config.setMaxFiles(Integer.parseInt(value.trim()));
+        }
+        value = properties.getProperty("db.slowQuery.explain");
+        if (value != null) {
+            config.setExplain(Boolean.parseBoolean(value.trim()));
+        }
+        return config;
+    }
+
+    private static void loadFile(Properties properties) {
+        String location = System.getProperty("resolveit.config", System.getenv("RESOLVEIT_CONFIG"));
+        Path file = Paths.get(location != null ? location : CONFIG_FILE);
+        try {
+            if (Files.isRegularFile(file)) {
+                try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    properties.load(reader);
+                }
+            } else if (location != null) {
+                System.err.println("Configuration file not found: " + file);
+            } else {
+                try (InputStream in = DatabaseConfig.class.getResourceAsStream("/" + CONFIG_FILE)) {
+                    if (in != null) {
+                        properties.load(in);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading configuration " + file + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DatabaseConfig{" +
+                "mode='" + getMode() + '\'' +
+                ", url='" + getUrl() + '\'' +
+                ", user='" + getUser() + '\'' +
+                ", pool=" + getPoolConfig() +
+                ", slowQuery=" + getSlowQueryConfig() +
+                '}';
+    }
+}
@@ -1,9 +1,18 @@
 package com.resolveit.dao;
 
+import com.resolveit.metrics.DaoMetrics;
+import com.resolveit.metrics.OperationMetrics;
 import com.resolveit.model.Feedback;
+import com.resolveit.model.RatingSummary;
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Data Access Object for Feedback entity
@@ -12,22 +21,76 @@ import java.util.List;
 public class FeedbackDAO {
     
     /**
-     * Submit feedback for a complaint
+     * Upper bound on ids bound into a single IN (...) list; MySQL allows at most 65535 placeholders
+     */
+    private static final int MAX_IDS_PER_QUERY = 10000;
+    
+    private static final String SUMMARY_COLUMNS =
+            "rating_count, rating_sum, rating_min, rating_max, rating_1, rating_2, rating_3, rating_4, rating_5";
+    
+    /**
+     * Adds ratings to a complaint's summary; bound by bindSummary()
+     */
+    private static final String SUMMARY_UPSERT = "INSERT INTO complaint_rating_summary (complaint_id, " + SUMMARY_COLUMNS + ") "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE rating_count = rating_count + VALUES(rating_count), "
+            + "rating_sum = rating_sum + VALUES(rating_sum), "
+            + "rating_min = LEAST(rating_min, VALUES(rating_min)), "
+            + "rating_max = GREATEST(rating_max, VALUES(rating_max)), "
+            + "rating_1 = rating_1 + VALUES(rating_1), rating_2 = rating_2 + VALUES(rating_2), "
+            + "rating_3 = rating_3 + VALUES(rating_3), rating_4 = rating_4 + VALUES(rating_4), "
+            + "rating_5 = rating_5 + VALUES(rating_5)";
+    
+    private static final OperationMetrics SUBMIT_METRICS = DaoMetrics.operation("FeedbackDAO", "submitFeedback");
+    private static final OperationMetrics FEEDBACK_METRICS = DaoMetrics.operation("FeedbackDAO", "getComplaintFeedback");
+    private static final OperationMetrics SUMMARY_METRICS = DaoMetrics.operation("FeedbackDAO", "getRatingSummary");
+    private static final OperationMetrics SUMMARIES_METRICS = DaoMetrics.operation("FeedbackDAO", "getRatingSummaries");
+    private static final OperationMetrics DELETE_METRICS = DaoMetrics.operation("FeedbackDAO", "deleteFeedback");
+    private static final OperationMetrics REBUILD_METRICS = DaoMetrics.operation("FeedbackDAO", "rebuildRatingSummaries");
+    
+    /**
+     * Submit feedback for a complaint.
+     * The complaint's rating summary is updated in the same transaction.
+     * With write-behind enabled the feedback is queued instead (see WriteBehindQueue).
      */
     public static boolean submitFeedback(int complaintId, int userId, String comment, int rating) {
-        String query = "INSERT INTO feedback (complaint_id, user_id, comment, rating, created_at) VALUES (?, ?, ?, ?, NOW())";
+        if (rating < 1 || rating > 5) {
+            System.err.println("Error submitting feedback: rating must be between 1 and 5");
+            return false;
+        }
+        WriteBehindQueue queue = WriteBehindQueue.get();
+        if (queue != null) {
+            return queue.submitFeedback(complaintId, userId, comment, rating);
+        }
+        long start = System.nanoTime();
+        String query = "INSERT INTO feedback (complaint_id, user_id, comments, rating, created_at) VALUES (?, ?, ?, ?, NOW())";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
-            
-            pstmt.setInt(1, complaintId);
-            pstmt.setInt(2, userId);
-            pstmt.setString(3, comment);
-            pstmt.setInt(4, rating);
-            
-            int result = pstmt.executeUpdate();
-            return result > 0;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(query);
+                 PreparedStatement summaryStmt = conn.prepareStatement(SUMMARY_UPSERT)) {
+                
+                pstmt.setInt(1, complaintId);
+                pstmt.setInt(2, userId);
+                pstmt.setString(3, comment);
+                pstmt.setInt(4, rating);
+                
+                int result = pstmt.executeUpdate();
+                
+                int[] histogram = new int[5];
+                histogram[rating - 1] = 1;
+                bindSummary(summaryStmt, complaintId, histogram);
+                summaryStmt.executeUpdate();
+                
+                conn.commit();
+                SUBMIT_METRICS.success(start, result);
+                return result > 0;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
         } catch (SQLException e) {
+            SUBMIT_METRICS.failure(start);
             System.err.println("Error submitting feedback: " + e.getMessage());
         }
         return false;
@@ -37,6 +100,7 @@ public class FeedbackDAO {
      * Get all feedback for a specific complaint
      */
     public static List<Feedback> getComplaintFeedback(int complaintId) {
+        long start = System.nanoTime();
         List<Feedback> feedbackList = new ArrayList<>();
         String query = "SELECT * FROM feedback WHERE complaint_id = ? ORDER BY created_at DESC";
         
@@ -49,25 +113,36 @@ public class FeedbackDAO {
             
             while (rs.next()) {
                 Feedback feedback = new Feedback();
-                feedback.setId(rs.getInt("id"));
+                feedback.setFeedbackId(rs.getInt("feedback_id"));
                 feedback.setComplaintId(rs.getInt("complaint_id"));
                 feedback.setUserId(rs.getInt("user_id"));
-                feedback.setComment(rs.getString("comment"));
+                feedback.setComments(rs.getString("comments"));
                 feedback.setRating(rs.getInt("rating"));
-                feedback.setCreatedAt(rs.getTimestamp("created_at"));
+                feedback.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
                 feedbackList.add(feedback);
             }
+            FEEDBACK_METRICS.success(start, feedbackList.size());
         } catch (SQLException e) {
+            FEEDBACK_METRICS.failure(start);
             System.err.println("Error fetching feedback: " + e.getMessage());
         }
         return feedbackList;
     }
     
     /**
-     * Get average rating for a complaint
+     * Get average rating for a complaint, read from its rating summary
      */
     public static double getAverageRating(int complaintId) {
-        String query = "SELECT AVG(rating) as avg_rating FROM feedback WHERE complaint_id = ?";
+        RatingSummary summary = getRatingSummary(complaintId);
+        return summary == null ? 0.0 : summary.getAverageRating();
+    }
+    
+    /**
+     * Get the rating summary for a complaint, or null if it has no feedback
+     */
+    public static RatingSummary getRatingSummary(int complaintId) {
+        long start = System.nanoTime();
+        String query = "SELECT complaint_id, " + SUMMARY_COLUMNS + " FROM complaint_rating_summary WHERE complaint_id = ?";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
@@ -76,32 +151,256 @@ public class FeedbackDAO {
             
             ResultSet rs = pstmt.executeQuery();
             
-            if (rs.next()) {
-                double avgRating = rs.getDouble("avg_rating");
-                return Double.isNaN(avgRating) ? 0.0 : avgRating;
+            RatingSummary summary = rs.next() ? mapRatingSummary(rs) : null;
+            SUMMARY_METRICS.success(start, summary == null ? 0 : 1);
+            return summary;
+        } catch (SQLException e) {
+            SUMMARY_METRICS.failure(start);
+            System.err.println("Error fetching rating summary: " + e.getMessage());
+        }
+        return null;
+    }
+    
+    /**
+     * Get rating summaries for a set of complaints in one round trip.
+     * Complaints without feedback are absent from the returned map.
+     */
+    public static Map<Integer, RatingSummary> getRatingSummaries(Collection<Integer> complaintIds) {
+        Map<Integer, RatingSummary> summaries = new HashMap<>();
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(complaintIds));
+        if (ids.isEmpty()) {
+            return summaries;
+        }
+        long start = System.nanoTime();
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size()));
+                String query = "SELECT complaint_id, " + SUMMARY_COLUMNS + " FROM complaint_rating_summary "
+                        + "WHERE complaint_id IN (" + placeholders(chunk.size()) + ")";
+                
+                try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        pstmt.setInt(i + 1, chunk.get(i));
+                    }
+                    
+                    ResultSet rs = pstmt.executeQuery();
+                    
+                    while (rs.next()) {
+                        RatingSummary summary = mapRatingSummary(rs);
+                        summaries.put(summary.getComplaintId(), summary);
+                    }
+                }
             }
+            SUMMARIES_METRICS.success(start, summaries.size());
         } catch (SQLException e) {
-            System.err.println("Error calculating average rating: " + e.getMessage());
+            SUMMARIES_METRICS.failure(start);
+            System.err.println("Error fetching rating summaries: " + e.getMessage());
         }
-        return 0.0;
+        return summaries;
     }
     
     /**
-     * Delete feedback
+     * Delete feedback.
+     * The deleted rating is removed from the complaint's rating summary in the same transaction.
      */
     public static boolean deleteFeedback(int feedbackId) {
-        String query = "DELETE FROM feedback WHERE id = ?";
+        long start = System.nanoTime();
+        String lookupQuery = "SELECT complaint_id, rating FROM feedback WHERE feedback_id = ? FOR UPDATE";
+        String query = "DELETE FROM feedback WHERE feedback_id = ?";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
-            
-            pstmt.setInt(1, feedbackId);
-            
-            int result = pstmt.executeUpdate();
-            return result > 0;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement lookupStmt = conn.prepareStatement(lookupQuery);
+                 PreparedStatement pstmt = conn.prepareStatement(query)) {
+                
+                lookupStmt.setInt(1, feedbackId);
+                ResultSet rs = lookupStmt.executeQuery();
+                if (!rs.next()) {
+                    conn.rollback();
+                    DELETE_METRICS.success(start, 0);
+                    return false;
+                }
+                int complaintId = rs.getInt("complaint_id");
+                int rating = rs.getInt("rating");
+                
+                pstmt.setInt(1, feedbackId);
+                int result = pstmt.executeUpdate();
+                
+                if (result > 0 && rating >= 1 && rating <= 5) {
+                    removeFromSummary(conn, complaintId, rating);
+                }
+                
+                conn.commit();
+                DELETE_METRICS.success(start, result);
+                return result > 0;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
         } catch (SQLException e) {
+            DELETE_METRICS.failure(start);
             System.err.println("Error deleting feedback: " + e.getMessage());
         }
         return false;
     }
+    
+    /**
+     * Recompute rating summaries from the feedback table, replacing what is stored.
+     * Pass no ids to rebuild every complaint. Returns the number of summaries written, or -1 on error.
+     */
+    public static int rebuildRatingSummaries(Collection<Integer> complaintIds) {
+        long start = System.nanoTime();
+        boolean all = complaintIds == null || complaintIds.isEmpty();
+        List<Integer> ids = all ? new ArrayList<Integer>() : new ArrayList<>(new LinkedHashSet<>(complaintIds));
+        String filter = all ? "" : " WHERE complaint_id IN (" + placeholders(ids.size()) + ")";
+        String deleteQuery = "DELETE FROM complaint_rating_summary" + filter;
+        String insertQuery = "INSERT INTO complaint_rating_summary (complaint_id, " + SUMMARY_COLUMNS + ") "
+                + "SELECT complaint_id, COUNT(*), SUM(rating), MIN(rating), MAX(rating), "
+                + "SUM(CASE WHEN rating = 1 THEN 1 ELSE 0 END), SUM(CASE WHEN rating = 2 THEN 1 ELSE 0 END), "
+                + "SUM(CASE WHEN rating = 3 THEN 1 ELSE 0 END), SUM(CASE WHEN rating = 4 THEN 1 ELSE 0 END), "
+                + "SUM(CASE WHEN rating = 5 THEN 1 ELSE 0 END) "
+                + "FROM feedback" + filter + " GROUP BY complaint_id";
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement deleteStmt = conn.prepareStatement(deleteQuery);
+                 PreparedStatement insertStmt = conn.prepareStatement(insertQuery)) {
+                
+                for (int i = 0; i < ids.size(); i++) {
+                    deleteStmt.setInt(i + 1, ids.get(i));
+                    insertStmt.setInt(i + 1, ids.get(i));
+                }
+                deleteStmt.executeUpdate();
+                int rebuilt = insertStmt.executeUpdate();
+                
+                conn.commit();
+                REBUILD_METRICS.success(start, rebuilt);
+                return rebuilt;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            REBUILD_METRICS.failure(start);
+            System.err.println("Error rebuilding rating summaries: " + e.getMessage());
+        }
+        return -1;
+    }
+    
+    /**
+     * Insert feedback acknowledged by the WriteBehindQueue on the caller's connection and transaction.
+     * Ratings are added to each complaint's summary with one upsert per complaint.
+     */
+    static void insertQueuedFeedback(Connection conn, List<Feedback> feedbackList) throws SQLException {
+        if (feedbackList.isEmpty()) {
+            return;
+        }
+        String query = "INSERT INTO feedback (complaint_id, user_id, comments, rating, created_at) VALUES (?, ?, ?, ?, ?)";
+        // Sorted so concurrent writers lock summary rows in the same order
+        Map<Integer, int[]> histograms = new TreeMap<>();
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(query);
+             PreparedStatement summaryStmt = conn.prepareStatement(SUMMARY_UPSERT)) {
+            
+            for (Feedback feedback : feedbackList) {
+                pstmt.setInt(1, feedback.getComplaintId());
+                pstmt.setInt(2, feedback.getUserId());
+                pstmt.setString(3, feedback.getComments());
+                pstmt.setInt(4, feedback.getRating());
+                pstmt.setTimestamp(5, Timestamp.valueOf(feedback.getCreatedAt()));
+                pstmt.addBatch();
+                
+                int[] histogram = histograms.get(feedback.getComplaintId());
+                if (histogram == null) {
+                    histogram = new int[5];
+                    histograms.put(feedback.getComplaintId(), histogram);
+                }
+                histogram[feedback.getRating() - 1]++;
+            }
+            pstmt.executeBatch();
+            
+            for (Map.Entry<Integer, int[]> entry : histograms.entrySet()) {
+                bindSummary(summaryStmt, entry.getKey(), entry.getValue());
+                summaryStmt.addBatch();
+            }
+            summaryStmt.executeBatch();
+        }
+    }
+    
+    /**
+     * Bind SUMMARY_UPSERT for the ratings in a histogram (index 0 counts 1-star ratings)
+     */
+    private static void bindSummary(PreparedStatement summaryStmt, int complaintId, int[] histogram) throws SQLException {
+        int count = 0;
+        int sum = 0;
+        int min = 0;
+        int max = 0;
+        for (int rating = 1; rating <= 5; rating++) {
+            int n = histogram[rating - 1];
+            if (n > 0) {
+                count += n;
+                sum += n * rating;
+                min = min == 0 ? rating : min;
+                max = rating;
+            }
+            summaryStmt.setInt(5 + rating, n);
+        }
+        summaryStmt.setInt(1, complaintId);
+        summaryStmt.setInt(2, count);
+        summaryStmt.setInt(3, sum);
+        summaryStmt.setInt(4, min);
+        summaryStmt.setInt(5, max);
+    }
+    
+    /**
+     * Take one rating out of a summary, re-deriving min/max from the histogram
+     */
+    private static void removeFromSummary(Connection conn, int complaintId, int rating) throws SQLException {
+        String bucket = "rating_" + rating;
+        String decrementQuery = "UPDATE complaint_rating_summary SET rating_count = rating_count - 1, "
+                + "rating_sum = rating_sum - ?, " + bucket + " = " + bucket + " - 1 WHERE complaint_id = ?";
+        String boundsQuery = "UPDATE complaint_rating_summary SET "
+                + "rating_min = CASE WHEN rating_1 > 0 THEN 1 WHEN rating_2 > 0 THEN 2 WHEN rating_3 > 0 THEN 3 "
+                + "WHEN rating_4 > 0 THEN 4 WHEN rating_5 > 0 THEN 5 END, "
+                + "rating_max = CASE WHEN rating_5 > 0 THEN 5 WHEN rating_4 > 0 THEN 4 WHEN rating_3 > 0 THEN 3 "
+                + "WHEN rating_2 > 0 THEN 2 WHEN rating_1 > 0 THEN 1 END "
+                + "WHERE complaint_id = ?";
+        String emptyQuery = "DELETE FROM complaint_rating_summary WHERE complaint_id = ? AND rating_count <= 0";
+        
+        try (PreparedStatement decrementStmt = conn.prepareStatement(decrementQuery);
+             PreparedStatement boundsStmt = conn.prepareStatement(boundsQuery);
+             PreparedStatement emptyStmt = conn.prepareStatement(emptyQuery)) {
+            
+            decrementStmt.setInt(1, rating);
+            decrementStmt.setInt(2, complaintId);
+            decrementStmt.executeUpdate();
+            
+            boundsStmt.setInt(1, complaintId);
+            boundsStmt.executeUpdate();
+            
+            emptyStmt.setInt(1, complaintId);
+            emptyStmt.executeUpdate();
+        }
+    }
+    
+    private static RatingSummary mapRatingSummary(ResultSet rs) throws SQLException {
+        int[] histogram = new int[5];
+        for (int rating = 1; rating <= 5; rating++) {
+            histogram[rating - 1] = rs.getInt("rating_" + rating);
+        }
+        return new RatingSummary(rs.getInt("complaint_id"), histogram);
+    }
+    
+    private static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "?" : ", ?");
+        }
+        return sb.toString();
+    }
+    
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
 }
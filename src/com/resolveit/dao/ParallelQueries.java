@@ -0,0 +1,237 @@
+package com.resolveit.dao;
+
+import com.resolveit.util.VirtualThreads;
+import java.util.ArrayList;
+import java.util.List;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs independent DAO calls concurrently and waits for all of them, so a group of queries
+ * takes about as long as the slowest one. The group is structured: once join() fails or close()
+ * returns, no query of the group is still running (up to a short grace period, see below).
+ *
+ *   try (ParallelQueries queries = new ParallelQueries()) {
+ *       ParallelQueries.Task<Map<Integer, RatingSummary>> ratings = queries.fork(...);
+ *       ParallelQueries.Task<Map<Integer, User>> users = queries.fork(...);
+ *       queries.join();
+ *       ... ratings.get(), users.get()
+ *   }
+ *
+ * join() fails with ParallelQueryException as soon as one query throws, the group's deadline
+ * passes or the waiting thread is interrupted; close() does the same to unfinished queries.
+ * Either way the remaining queries are cancelled down to their JDBC statements (see QueryScope),
+ * which also carry a query timeout for the time left, and then waited for, so their connections
+ * are back in the pool. A query that returns after its group was cancelled or its deadline passed
+ * counts as failed: the DAOs turn an aborted statement into an empty result that looks like success.
+ * Queries run on virtual threads when the JVM has them (Java 21+), otherwise on a cached pool of
+ * daemon platform threads. Settings (system property "resolveit.parallel.<key>" or environment
+ * variable RESOLVEIT_PARALLEL_<KEY>):
+ *  - mode: "virtual" (default, falls back to platform threads) or "platform"
+ *  - timeoutMillis: default deadline of a group, default 10000
+ *  - graceMillis: longest close() and a failed join() wait for cancelled queries to stop, default
+ *    2000; queries still running after that are reported on stderr
+ */
+public final class ParallelQueries implements AutoCloseable {
+    private static final long DEFAULT_TIMEOUT_MILLIS = longSetting("timeoutMillis", 10000);
+    private static final long GRACE_MILLIS = longSetting("graceMillis", 2000);
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    private final long deadlineNanos;
+    private final List<Task<?>> tasks = new ArrayList<>();
+    private boolean joined;
+
+    public ParallelQueries() {
+        this(DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public ParallelQueries(long timeoutMillis) {
+        this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    /**
+     * True if queries run on virtual threads
+     */
+    public static boolean isUsingVirtualThreads() {
+        return !(EXECUTOR instanceof ThreadPoolExecutor);
+    }
+
+    /**
+     * Start a query; its result is available from the task after join()
+     */
+    public <T> Task<T> fork(final Callable<T> query) {
+        if (joined) {
+            throw new IllegalStateException("Queries cannot be added after join()");
+        }
+        final Task<T> task = new Task<>(new QueryScope(deadlineNanos));
+        task.future = EXECUTOR.submit(new Callable<T>() {
+            @Override
+            public T call() throws Exception {
+                if (!task.started.compareAndSet(false, true)) {
+                    return null;  // cancelled before it started
+                }
+                task.scope.bind();
+                try {
+                    T result = query.call();
+                    if (task.scope.isAborted()) {
+                        throw new SQLException("Query was cancelled or passed its deadline");
+                    }
+                    return result;
+                } finally {
+                    task.scope.unbind();
+                    task.finished.countDown();
+                }
+            }
+        });
+        tasks.add(task);
+        return task;
+    }
+
+    /**
+     * Wait for every query; on failure, timeout or interruption the others are cancelled
+     */
+    public void join() {
+        joined = true;
+        try {
+            for (Task<?> task : tasks) {
+                long remainingNanos = deadlineNanos - System.nanoTime();
+                try {
+                    task.future.get(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS);
+                } catch (ExecutionException e) {
+                    cancelAll();
+                    throw new ParallelQueryException("Query failed: " + e.getCause().getMessage(), e.getCause());
+                } catch (TimeoutException e) {
+                    cancelAll();
+                    throw new ParallelQueryException("Queries did not finish within their deadline");
+                }
+            }
+        } catch (InterruptedException e) {
+            cancelAll();
+            Thread.currentThread().interrupt();
+            throw new ParallelQueryException("Interrupted waiting for queries", e);
+        }
+    }
+
+    /**
+     * Cancel any query that is still running and wait for it to stop
+     */
+    @Override
+    public void close() {
+        joined = true;
+        cancelAll();
+    }
+
+    private void cancelAll() {
+        for (Task<?> task : tasks) {
+            if (!task.future.isDone()) {
+                task.scope.cancel();
+                task.future.cancel(true);
+            }
+            if (task.started.compareAndSet(false, true)) {
+                task.finished.countDown();
+            }
+        }
+        // A cancelled Future is done at once, but its thread may still be closing statements and
+        // returning connections; wait for that so nothing of the group outlives it
+        long graceEndNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(GRACE_MILLIS);
+        try {
+            for (Task<?> task : tasks) {
+                task.finished.await(Math.max(0, graceEndNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int running = 0;
+        for (Task<?> task : tasks) {
+            if (task.finished.getCount() > 0) {
+                running++;
+            }
+        }
+        if (running > 0) {
+            System.err.println(running + " cancelled parallel queries still running after " + GRACE_MILLIS + " ms");
+        }
+    }
+
+    private static ExecutorService createExecutor() {
+        if (!"platform".equals(setting("mode"))) {
+            ExecutorService virtual = VirtualThreads.newPerTaskExecutor();
+            if (virtual != null) {
+                return virtual;
+            }
+        }
+        // Unbounded so that nested groups cannot starve each other; the connection pool bounds the queries
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<Runnable>(), new ThreadFactory() {
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "parallel-query-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+    }
+
+    private static String setting(String key) {
+        return System.getProperty("resolveit.parallel." + key,
+                System.getenv("RESOLVEIT_PARALLEL_" + key.toUpperCase(Locale.ROOT)));
+    }
+
+    private static long longSetting(String key, long defaultValue) {
+        String value = setting(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(1, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid resolveit.parallel." + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * One query of a group
+     */
+    public static final class Task<T> {
+        private final QueryScope scope;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final CountDownLatch finished = new CountDownLatch(1);
+        private Future<T> future;
+
+        private Task(QueryScope scope) {
+            this.scope = scope;
+        }
+
+        /**
+         * The query's result; only valid after join() returned normally
+         */
+        public T get() {
+            if (!future.isDone()) {
+                throw new IllegalStateException("Query has not completed; call join() first");
+            }
+            try {
+                return future.get();
+            } catch (ExecutionException | CancellationException e) {
+                throw new IllegalStateException("Query did not complete normally", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted", e);
+            }
+        }
+    }
+}
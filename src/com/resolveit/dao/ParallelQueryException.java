@@ -0,0 +1,16 @@
+package com.resolveit.dao;
+
+/**
+ * Thrown by ParallelQueries.join() when a query failed, the deadline passed or the
+ * waiting thread was interrupted; the other queries of the group have been cancelled
+ */
+public class ParallelQueryException extends RuntimeException {
+
+    public ParallelQueryException(String message) {
+        super(message);
+    }
+
+    public ParallelQueryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
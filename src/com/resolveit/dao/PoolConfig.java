@@ -0,0 +1,96 @@
+package com.resolveit.dao;
+
+/**
+ * Connection Pool Configuration
+ * Sizing, timeout and leak detection settings for the ConnectionPool
+ */
+public class PoolConfig {
+    private int minSize = 2;
+    private int maxSize = 10;
+    private long idleTimeoutMillis = 5 * 60 * 1000L;
+    private long borrowTimeoutMillis = 10 * 1000L;
+    private int validationTimeoutSeconds = 2;
+    private long leakThresholdMillis = 30 * 1000L;
+    private long housekeepingIntervalMillis = 5 * 1000L;
+
+    // Constructor
+    public PoolConfig() {
+    }
+
+    // Getters and Setters
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public void setMinSize(int minSize) {
+        if (minSize < 0) {
+            throw new IllegalArgumentException("Minimum pool size must not be negative");
+        }
+        this.minSize = minSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Maximum pool size must be at least 1");
+        }
+        this.maxSize = maxSize;
+    }
+
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public long getBorrowTimeoutMillis() {
+        return borrowTimeoutMillis;
+    }
+
+    public void setBorrowTimeoutMillis(long borrowTimeoutMillis) {
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+    }
+
+    public int getValidationTimeoutSeconds() {
+        return validationTimeoutSeconds;
+    }
+
+    public void setValidationTimeoutSeconds(int validationTimeoutSeconds) {
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    /**
+     * Connections held longer than this are reported as possible leaks (0 disables detection)
+     */
+    public long getLeakThresholdMillis() {
+        return leakThresholdMillis;
+    }
+
+    public void setLeakThresholdMillis(long leakThresholdMillis) {
+        this.leakThresholdMillis = leakThresholdMillis;
+    }
+
+    public long getHousekeepingIntervalMillis() {
+        return housekeepingIntervalMillis;
+    }
+
+    public void setHousekeepingIntervalMillis(long housekeepingIntervalMillis) {
+        this.housekeepingIntervalMillis = housekeepingIntervalMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolConfig{" +
+                "minSize=" + minSize +
+                ", maxSize=" + maxSize +
+                ", idleTimeoutMillis=" + idleTimeoutMillis +
+                ", borrowTimeoutMillis=" + borrowTimeoutMillis +
+                ", leakThresholdMillis=" + leakThresholdMillis +
+                '}';
+    }
+}
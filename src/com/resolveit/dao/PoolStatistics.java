@@ -0,0 +1,83 @@
+package com.resolveit.dao;
+
+/**
+ * Connection Pool Statistics
+ * Point-in-time snapshot of ConnectionPool usage
+ */
+public class PoolStatistics {
+    private final int active;
+    private final int idle;
+    private final int waiters;
+    private final long borrowCount;
+    private final long borrowTimeouts;
+    private final long leaksDetected;
+    private final long totalBorrowNanos;
+    private final long maxBorrowNanos;
+
+    public PoolStatistics(int active, int idle, int waiters, long borrowCount, long borrowTimeouts,
+                          long leaksDetected, long totalBorrowNanos, long maxBorrowNanos) {
+        this.active = active;
+        this.idle = idle;
+        this.waiters = waiters;
+        this.borrowCount = borrowCount;
+        this.borrowTimeouts = borrowTimeouts;
+        this.leaksDetected = leaksDetected;
+        this.totalBorrowNanos = totalBorrowNanos;
+        this.maxBorrowNanos = maxBorrowNanos;
+    }
+
+    // Getters
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getTotal() {
+        return active + idle;
+    }
+
+    public int getWaiters() {
+        return waiters;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public long getBorrowTimeouts() {
+        return borrowTimeouts;
+    }
+
+    public long getLeaksDetected() {
+        return leaksDetected;
+    }
+
+    public long getTotalBorrowNanos() {
+        return totalBorrowNanos;
+    }
+
+    public double getAverageBorrowMillis() {
+        return borrowCount == 0 ? 0.0 : totalBorrowNanos / (double) borrowCount / 1_000_000.0;
+    }
+
+    public double getMaxBorrowMillis() {
+        return maxBorrowNanos / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStatistics{" +
+                "active=" + active +
+                ", idle=" + idle +
+                ", waiters=" + waiters +
+                ", borrowCount=" + borrowCount +
+                ", borrowTimeouts=" + borrowTimeouts +
+                ", leaksDetected=" + leaksDetected +
+                ", avgBorrowMillis=" + String.format("%.3f", getAverageBorrowMillis()) +
+                ", maxBorrowMillis=" + String.format("%.3f", getMaxBorrowMillis()) +
+                '}';
+    }
+}
@@ -0,0 +1,134 @@
+package com.resolveit.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadline and cancellation of one ParallelQueries task, bound to the thread running it.
+ * DatabaseConnection.getConnection() wraps connections handed out on that thread so that
+ * every statement they create gets a query timeout for the time left, and is remembered so
+ * that cancel() can abort it with Statement.cancel() while it runs in the database.
+ */
+final class QueryScope {
+    private static final ThreadLocal<QueryScope> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+    private final List<Statement> statements = new ArrayList<>();
+    private boolean cancelled;
+
+    QueryScope(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Bind the scope to the current thread until unbind()
+     */
+    void bind() {
+        CURRENT.set(this);
+    }
+
+    void unbind() {
+        CURRENT.remove();
+        synchronized (this) {
+            statements.clear();
+        }
+    }
+
+    /**
+     * Wrap the connection if the current thread runs in a scope, otherwise return it unchanged
+     */
+    static Connection wrapForCurrentThread(Connection connection) {
+        QueryScope scope = CURRENT.get();
+        if (scope == null || connection == null) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(QueryScope.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection, scope));
+    }
+
+    /**
+     * Abort the statements running in this scope and refuse new ones
+     */
+    void cancel() {
+        List<Statement> running;
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            running = new ArrayList<>(statements);
+            statements.clear();
+        }
+        for (Statement statement : running) {
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                // Already closed or finished; nothing left to cancel
+            }
+        }
+    }
+
+    /**
+     * True once the scope was cancelled or its deadline passed. A query that returns afterwards
+     * may have had a statement aborted, which DAOs report as an empty result, so it is not trusted.
+     */
+    synchronized boolean isAborted() {
+        return cancelled || deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    private synchronized void register(Statement statement) throws SQLException {
+        if (cancelled) {
+            statement.close();
+            throw new SQLException("Query cancelled");
+        }
+        long remainingNanos = deadlineNanos - System.nanoTime();
+        if (remainingNanos <= 0) {
+            statement.close();
+            throw new SQLException("Query deadline exceeded");
+        }
+        // Whole seconds, rounded up: 0 would mean no timeout at all
+        statement.setQueryTimeout((int) Math.min(Integer.MAX_VALUE,
+                Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remainingNanos + TimeUnit.SECONDS.toNanos(1) - 1))));
+        statements.add(statement);
+    }
+
+    private static class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+        private final QueryScope scope;
+
+        ConnectionHandler(Connection connection, QueryScope scope) {
+            this.connection = connection;
+            this.scope = scope;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            Object result;
+            try {
+                result = method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Statement) {
+                scope.register((Statement) result);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.resolveit.dao;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+
+/**
+ * Creates the ResolveIt tables in an empty database by running database/resolveit_schema.sql.
+ * MySQL-only statements of the script (CREATE DATABASE, USE) and its trailing
+ * verification queries (SHOW, SELECT) are skipped.
+ */
+public class SchemaInitializer {
+
+    /**
+     * Run the schema script unless the users table already exists. Returns true if the script was run.
+     */
+    public static boolean initializeIfEmpty(DataSource dataSource, String schemaPath) throws SQLException, IOException {
+        try (Connection conn = dataSource.getConnection()) {
+            // Scope the lookup: H2 also has an INFORMATION_SCHEMA.USERS table
+            try (ResultSet rs = conn.getMetaData().getTables(conn.getCatalog(), conn.getSchema(), "users",
+                    new String[] {"TABLE"})) {
+                if (rs.next()) {
+                    return false;
+                }
+            }
+
+            List<String> statements = parse(readScript(schemaPath));
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                for (String sql : statements) {
+                    stmt.execute(sql);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Split a script into statements, dropping comments and statements that do not apply
+     */
+    static List<String> parse(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : script.split("\r?\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+            current.append(line).append('\n');
+            if (trimmed.endsWith(";")) {
+                String sql = current.toString().trim();
+                sql = sql.substring(0, sql.length() - 1);
+                if (!isSkipped(sql)) {
+                    statements.add(sql);
+                }
+                current.setLength(0);
+            }
+        }
+        return statements;
+    }
+
+    private static boolean isSkipped(String sql) {
+        String upper = sql.toUpperCase();
+        return upper.startsWith("CREATE DATABASE") || upper.startsWith("USE ")
+                || upper.startsWith("SHOW ") || upper.startsWith("SELECT ");
+    }
+
+    private static String readScript(String schemaPath) throws IOException {
+        Path file = Paths.get(schemaPath);
+        if (Files.isRegularFile(file)) {
+            return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        }
+        // Packaged builds ship the script as a classpath resource
+        try (InputStream in = SchemaInitializer.class.getResourceAsStream("/" + file.getFileName())) {
+            if (in == null) {
+                throw new IOException("Schema script not found: " + schemaPath);
+            }
+            byte[] bytes = new byte[8192];
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            int read;
+            while ((read = in.read(bytes)) != -1) {
+                out.write(bytes, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
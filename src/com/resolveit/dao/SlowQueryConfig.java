@@ -0,0 +1,95 @@
+package com.resolveit.dao;
+
+/**
+ * Slow Query Log Configuration
+ * Threshold, log file rotation and EXPLAIN settings for the SlowQueryLog
+ */
+public class SlowQueryConfig {
+    private long thresholdMillis = 500;
+    private String file = "logs/slow-queries.log";
+    private long maxFileBytes = 10 * 1024 * 1024L;
+    private int maxFiles = 5;
+    private boolean explain = true;
+
+    // Constructor
+    public SlowQueryConfig() {
+    }
+
+    // Getters and Setters
+
+    /**
+     * Statements taking at least this long are logged; a negative value disables the log
+     */
+    public long getThresholdMillis() {
+        return thresholdMillis;
+    }
+
+    public void setThresholdMillis(long thresholdMillis) {
+        this.thresholdMillis = thresholdMillis;
+    }
+
+    public boolean isEnabled() {
+        return thresholdMillis >= 0;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        if (file == null || file.trim().isEmpty()) {
+            throw new IllegalArgumentException("Slow query log file must not be empty");
+        }
+        this.file = file;
+    }
+
+    /**
+     * Size at which the log file is rotated to file.1, file.2, ...
+     */
+    public long getMaxFileBytes() {
+        return maxFileBytes;
+    }
+
+    public void setMaxFileBytes(long maxFileBytes) {
+        if (maxFileBytes < 1024) {
+            throw new IllegalArgumentException("Slow query log files must be allowed at least 1 KB");
+        }
+        this.maxFileBytes = maxFileBytes;
+    }
+
+    /**
+     * Number of files kept, including the current one
+     */
+    public int getMaxFiles() {
+        return maxFiles;
+    }
+
+    public void setMaxFiles(int maxFiles) {
+        if (maxFiles < 1) {
+            throw new IllegalArgumentException("At least one slow query log file must be kept");
+        }
+        this.maxFiles = maxFiles;
+    }
+
+    /**
+     * Whether the execution plan is captured the first time each statement shape is slow
+     */
+    public boolean isExplain() {
+        return explain;
+    }
+
+    public void setExplain(boolean explain) {
+        this.explain = explain;
+    }
+
+    @Override
+    public String toString() {
+        return "SlowQueryConfig{" +
+                "thresholdMillis=" + thresholdMillis +
+                ", file='" + file + '\'' +
+                ", maxFileBytes=" + maxFileBytes +
+                ", maxFiles=" + maxFiles +
+                ", explain=" + explain +
+                '}';
+    }
+}
@@ -0,0 +1,327 @@
+package com.resolveit.dao;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Slow Query Log
+ * Statements at or over the configured threshold are queued and written by a background
+ * thread to a size-rotated log file, with their SQL, bound parameters (password columns
+ * redacted), row count and duration (time in the database; for queries read slowly by the caller
+ * the elapsed time until the last row is noted too). The first time each statement shape is slow its
+ * EXPLAIN output is written as well. Queuing never blocks: when the writer falls behind,
+ * entries are dropped and the number dropped is noted in the log.
+ */
+class SlowQueryLog {
+    private static final int QUEUE_CAPACITY = 1000;
+    private static final int MAX_PARAMETER_LENGTH = 200;
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+    private static final Entry STOP = new Entry(null, null, 0, 0, 0, 0, null);
+
+    private final SlowQueryConfig config;
+    private final long thresholdNanos;
+    private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writer;
+
+    // Writer thread state
+    private final Set<String> explainedShapes = new HashSet<>();
+    private final Path file;
+    private OutputStream out;
+    private long fileSize;
+
+    SlowQueryLog(SlowQueryConfig config) {
+        this.config = config;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(config.getThresholdMillis());
+        this.file = Paths.get(config.getFile());
+        this.writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writeEntries();
+            }
+        }, "slow-query-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Connection whose statements are timed and reported to this log
+     */
+    Connection wrap(Connection connection) {
+        return StatementTracer.wrap(connection, this);
+    }
+
+    boolean isSlow(long nanos) {
+        return nanos >= thresholdNanos;
+    }
+
+    /**
+     * Queue a slow statement; rows is -1 when unknown and error is null on success.
+     * nanos is the time spent in the database, elapsedNanos includes the caller's reading of the rows.
+     */
+    void record(String sql, Object[] parameters, int batchSize, long rows, long nanos, long elapsedNanos,
+                String error) {
+        if (!queue.offer(new Entry(sql, parameters, batchSize, rows, nanos, elapsedNanos, error))) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Write out the queued entries and stop the writer thread
+     */
+    void close() {
+        try {
+            if (queue.offer(STOP, 1, TimeUnit.SECONDS)) {
+                writer.join(TimeUnit.SECONDS.toMillis(5));
+            } else {
+                writer.interrupt();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeEntries() {
+        long reportedDrops = 0;
+        try {
+            while (true) {
+                Entry entry = queue.take();
+                if (entry == STOP) {
+                    break;
+                }
+                long drops = dropped.get();
+                StringBuilder text = new StringBuilder(512);
+                if (drops > reportedDrops) {
+                    text.append("# ").append(drops - reportedDrops)
+                            .append(" slow query entries dropped (log writer behind)\n");
+                    reportedDrops = drops;
+                }
+                format(entry, text);
+                write(text);
+                if (queue.isEmpty()) {
+                    flush();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeFile();
+        }
+    }
+
+    private void format(Entry entry, StringBuilder text) {
+        String shape = SqlShapes.shape(entry.sql);
+        text.append("# ").append(TIMESTAMP.format(Instant.ofEpochMilli(entry.timestamp)))
+                .append(" thread=").append(entry.thread)
+                .append(String.format(Locale.ROOT, " duration=%.3fms", entry.nanos / 1_000_000.0))
+                .append(" rows=").append(entry.rows < 0 ? "?" : String.valueOf(entry.rows));
+        if (entry.elapsedNanos - entry.nanos >= TimeUnit.MILLISECONDS.toNanos(1)) {
+            // The caller took noticeably longer reading the rows than the database took returning them
+            text.append(String.format(Locale.ROOT, " elapsed=%.3fms", entry.elapsedNanos / 1_000_000.0));
+        }
+        if (entry.batchSize > 0) {
+            text.append(" batch=").append(entry.batchSize);
+        }
+        if (entry.error != null) {
+            text.append(" error=").append(entry.error.replace('\n', ' '));
+        }
+        text.append('\n').append(shape).append(";\n");
+
+        if (entry.parameters.length > 0) {
+            BitSet sensitive = SqlShapes.sensitiveParameters(entry.sql);
+            text.append("# parameters").append(entry.batchSize > 0 ? " (last batch row)" : "").append(": ");
+            for (int i = 0; i < entry.parameters.length; i++) {
+                if (i > 0) {
+                    text.append(", ");
+                }
+                text.append(sensitive.get(i) ? "'***'" : formatParameter(entry.parameters[i]));
+            }
+            text.append('\n');
+        }
+
+        if (config.isExplain() && entry.error == null && explainedShapes.add(shape)) {
+            explain(entry, text);
+        }
+        text.append('\n');
+    }
+
+    private static String formatParameter(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof byte[]) {
+            return "<" + ((byte[]) value).length + " bytes>";
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        String text = String.valueOf(value);
+        if (text.length() > MAX_PARAMETER_LENGTH) {
+            text = text.substring(0, MAX_PARAMETER_LENGTH) + "...";
+        }
+        return "'" + text.replace("'", "''").replace("\n", "\\n") + "'";
+    }
+
+    /**
+     * Run EXPLAIN for the statement with its parameters on a separate, untraced connection
+     */
+    private void explain(Entry entry, StringBuilder text) {
+        String sql = entry.sql.trim();
+        String keyword = sql.length() >= 6 ? sql.substring(0, 6).toUpperCase(Locale.ROOT) : "";
+        if (!keyword.equals("SELECT") && !keyword.equals("UPDATE")
+                && !keyword.equals("DELETE") && !keyword.equals("INSERT")) {
+            return;
+        }
+        try (Connection connection = DatabaseConnection.getDataSource().getConnection();
+             PreparedStatement stmt = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < entry.parameters.length; i++) {
+                stmt.setObject(i + 1, entry.parameters[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                int columns = meta.getColumnCount();
+                text.append("# explain:");
+                if (columns > 1) {
+                    text.append("\n#   ");
+                    for (int c = 1; c <= columns; c++) {
+                        text.append(c > 1 ? " | " : "").append(meta.getColumnLabel(c));
+                    }
+                }
+                while (rs.next()) {
+                    text.append("\n#   ");
+                    for (int c = 1; c <= columns; c++) {
+                        String value = rs.getString(c);
+                        text.append(c > 1 ? " | " : "")
+                                .append(value == null ? "NULL" : value.replace("\n", "\n#   "));
+                    }
+                }
+                text.append('\n');
+            }
+        } catch (SQLException | RuntimeException e) {
+            text.append("# explain failed: ").append(e.getMessage()).append('\n');
+        }
+    }
+
+    private void write(StringBuilder text) {
+        byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            if (out != null && fileSize > 0 && fileSize + bytes.length > config.getMaxFileBytes()) {
+                rotate();
+            }
+            if (out == null) {
+                open();
+            }
+            out.write(bytes);
+            fileSize += bytes.length;
+        } catch (IOException e) {
+            System.err.println("Failed to write slow query log " + file + ": " + e.getMessage());
+            closeFile();
+        }
+    }
+
+    private void open() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        out = new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+        fileSize = Files.size(file);
+    }
+
+    /**
+     * Shift file.1 .. file.(n-2) up by one and move the current file to file.1
+     */
+    private void rotate() throws IOException {
+        closeFile();
+        int keep = config.getMaxFiles();
+        if (keep == 1) {
+            Files.deleteIfExists(file);
+            return;
+        }
+        Files.deleteIfExists(rotated(keep - 1));
+        for (int i = keep - 2; i >= 1; i--) {
+            Path source = rotated(i);
+            if (Files.exists(source)) {
+                Files.move(source, rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Path rotated(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private void flush() {
+        if (out != null) {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                System.err.println("Failed to write slow query log " + file + ": " + e.getMessage());
+                closeFile();
+            }
+        }
+    }
+
+    private void closeFile() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close slow query log " + file + ": " + e.getMessage());
+            }
+            out = null;
+            fileSize = 0;
+        }
+    }
+
+    private static class Entry {
+        private final String sql;
+        private final Object[] parameters;
+        private final int batchSize;
+        private final long rows;
+        private final long nanos;
+        private final long elapsedNanos;
+        private final String error;
+        private final long timestamp;
+        private final String thread;
+
+        Entry(String sql, Object[] parameters, int batchSize, long rows, long nanos, long elapsedNanos,
+              String error) {
+            this.sql = sql;
+            this.parameters = parameters;
+            this.batchSize = batchSize;
+            this.rows = rows;
+            this.nanos = nanos;
+            this.elapsedNanos = elapsedNanos;
+            this.error = error;
+            this.timestamp = System.currentTimeMillis();
+            this.thread = Thread.currentThread().getName();
+        }
+    }
+}
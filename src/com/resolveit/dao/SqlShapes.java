@@ -0,0 +1,171 @@
+package com.resolveit.dao;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * SQL text helpers for the slow query log: the shape of a statement (so that statements
+ * differing only in IN-list length or number of inserted rows are treated as one), and
+ * which bound parameters belong to password columns and must not be written out.
+ */
+final class SqlShapes {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    // A parenthesised tuple (one level of nesting) repeated after itself, as in multi-row VALUES lists
+    private static final Pattern REPEATED_TUPLE =
+            Pattern.compile("(\\((?:[^()]|\\([^()]*\\))*\\))(?:\\s*,\\s*\\1)+");
+    private static final Pattern INSERT =
+            Pattern.compile("^\\s*INSERT\\s+INTO\\s+[\\w`\".]+\\s*\\(([^)]*)\\)\\s*VALUES\\s*", Pattern.CASE_INSENSITIVE);
+
+    private SqlShapes() {
+    }
+
+    /**
+     * Statement with normalised whitespace, IN (?, ?, ...) lists collapsed to IN (?...)
+     * and repeated VALUES tuples collapsed to one
+     */
+    static String shape(String sql) {
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        shape = PLACEHOLDER_LIST.matcher(shape).replaceAll("(?...)");
+        return REPEATED_TUPLE.matcher(shape).replaceAll("$1, ...");
+    }
+
+    /**
+     * Indexes (0-based) of the parameters bound to a column whose name contains "password".
+     * If the statement mentions a password column but the parameters cannot be matched to
+     * columns, every parameter is reported as sensitive.
+     */
+    static BitSet sensitiveParameters(String sql) {
+        BitSet sensitive = new BitSet();
+        if (!sql.toLowerCase(Locale.ROOT).contains("password")) {
+            return sensitive;
+        }
+        List<Integer> placeholders = placeholderPositions(sql);
+
+        Matcher insert = INSERT.matcher(sql);
+        if (insert.find()) {
+            String[] columns = insert.group(1).split(",");
+            int[] tupleElements = tupleElements(sql, insert.end(), placeholders);
+            for (int i = 0; i < placeholders.size(); i++) {
+                int element = tupleElements[i];
+                if (element >= 0 && element < columns.length && isPasswordColumn(columns[element])) {
+                    sensitive.set(i);
+                }
+            }
+        } else {
+            for (int i = 0; i < placeholders.size(); i++) {
+                String column = comparedColumn(sql, placeholders.get(i));
+                if (column != null && isPasswordColumn(column)) {
+                    sensitive.set(i);
+                }
+            }
+        }
+        if (sensitive.isEmpty()) {
+            sensitive.set(0, placeholders.size());
+        }
+        return sensitive;
+    }
+
+    private static boolean isPasswordColumn(String column) {
+        return column.toLowerCase(Locale.ROOT).contains("password");
+    }
+
+    /**
+     * Positions of the ? placeholders outside string literals and quoted identifiers
+     */
+    private static List<Integer> placeholderPositions(String sql) {
+        List<Integer> positions = new ArrayList<>();
+        char quote = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            } else if (c == '?') {
+                positions.add(i);
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * For each placeholder, its element index within the enclosing VALUES tuple (-1 if before the VALUES list)
+     */
+    private static int[] tupleElements(String sql, int valuesStart, List<Integer> placeholders) {
+        int[] elements = new int[placeholders.size()];
+        int next = 0;
+        int depth = 0;
+        int element = 0;
+        char quote = 0;
+        for (int i = 0; i < sql.length() && next < placeholders.size(); i++) {
+            if (i == placeholders.get(next)) {
+                elements[next++] = i < valuesStart ? -1 : element;
+                continue;
+            }
+            char c = sql.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            } else if (i >= valuesStart) {
+                if (c == '(') {
+                    if (depth++ == 0) {
+                        element = 0;
+                    }
+                } else if (c == ')') {
+                    depth--;
+                } else if (c == ',' && depth == 1) {
+                    element++;
+                }
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * Column compared with or assigned the placeholder at the given position, as in
+     * "password_hash = ?" or "u.password_hash LIKE ?", or null if there is none
+     */
+    private static String comparedColumn(String sql, int placeholder) {
+        int i = skipSpaceBackwards(sql, placeholder - 1);
+        int operatorEnd = i;
+        while (i >= 0 && "=<>!".indexOf(sql.charAt(i)) >= 0) {
+            i--;
+        }
+        if (i == operatorEnd) {
+            // No symbolic operator; accept LIKE
+            if (i >= 3 && sql.substring(i - 3, i + 1).equalsIgnoreCase("like")) {
+                i -= 4;
+            } else {
+                return null;
+            }
+        }
+        i = skipSpaceBackwards(sql, i);
+        int end = i + 1;
+        while (i >= 0 && (Character.isLetterOrDigit(sql.charAt(i)) || "_.`\"".indexOf(sql.charAt(i)) >= 0)) {
+            i--;
+        }
+        if (i + 1 >= end) {
+            return null;
+        }
+        String identifier = sql.substring(i + 1, end).replace("`", "").replace("\"", "");
+        int dot = identifier.lastIndexOf('.');
+        return dot >= 0 ? identifier.substring(dot + 1) : identifier;
+    }
+
+    private static int skipSpaceBackwards(String sql, int i) {
+        while (i >= 0 && Character.isWhitespace(sql.charAt(i))) {
+            i--;
+        }
+        return i;
+    }
+}
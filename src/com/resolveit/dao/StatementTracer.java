@@ -0,0 +1,213 @@
+package com.resolveit.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Connection wrapper that times every statement for the SlowQueryLog.
+ * Statements created from the connection remember their SQL and bound parameters.
+ * A query's result set is wrapped in a TracedResultSet, and the query is reported once the
+ * result set is exhausted or closed (or its statement closed or re-executed). Its duration is
+ * the time spent in the database: the execute call plus the next() calls that fetch the rows.
+ * The caller's own work between rows, such as writing an export, is reported separately as the
+ * elapsed time and does not count towards the threshold. The row count is the number of rows
+ * read. Updates and batches are reported when they return.
+ * Only statements over the threshold are handed to the log, so fast statements cost a few
+ * field updates.
+ */
+final class StatementTracer {
+    private static final Object[] NO_PARAMETERS = new Object[0];
+
+    private StatementTracer() {
+    }
+
+    static Connection wrap(Connection connection, SlowQueryLog log) {
+        return (Connection) Proxy.newProxyInstance(StatementTracer.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection, log));
+    }
+
+    /**
+     * Told by a TracedResultSet when its rows have been read or it was closed
+     */
+    interface QueryListener {
+        void queryFinished(long rows, long databaseNanos, long elapsedNanos);
+    }
+
+    private static Object forward(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+        private final SlowQueryLog log;
+
+        ConnectionHandler(Connection connection, SlowQueryLog log) {
+            this.connection = connection;
+            this.log = log;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            Object result = forward(connection, method, args);
+            if (result instanceof Statement) {
+                String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                Class<?> type = result instanceof CallableStatement ? CallableStatement.class
+                        : result instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                return Proxy.newProxyInstance(StatementTracer.class.getClassLoader(), new Class<?>[]{type},
+                        new StatementHandler((Statement) result, sql, log));
+            }
+            return result;
+        }
+    }
+
+    private static class StatementHandler implements InvocationHandler, QueryListener {
+        private final Statement statement;
+        private final String sql;
+        private final SlowQueryLog log;
+
+        private Object[] parameters = NO_PARAMETERS;
+        private int parameterCount;
+        private int batchSize;
+        private String batchSql;
+        private TracedResultSet openQuery;
+        private String openQuerySql;
+
+        StatementHandler(Statement statement, String sql, SlowQueryLog log) {
+            this.statement = statement;
+            this.sql = sql;
+            this.log = log;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(proxy, method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer
+                    && method.getParameterTypes()[0] == int.class) {
+                bind((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            } else {
+                switch (name) {
+                    case "addBatch":
+                        batchSize++;
+                        if (args != null && args.length == 1) {
+                            batchSql = (String) args[0];
+                        }
+                        break;
+                    case "clearBatch":
+                        batchSize = 0;
+                        break;
+                    case "clearParameters":
+                        parameterCount = 0;
+                        break;
+                    case "close":
+                        finishQuery();
+                        break;
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        break;
+                }
+            }
+            return forward(statement, method, args);
+        }
+
+        private Object execute(Object proxy, Method method, Object[] args) throws Throwable {
+            finishQuery();
+            String executedSql = sql != null ? sql
+                    : args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : batchSql;
+            int batch = method.getName().startsWith("executeBatch")
+                    || method.getName().startsWith("executeLargeBatch") ? batchSize : 0;
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = forward(statement, method, args);
+            } catch (Throwable e) {
+                long elapsed = System.nanoTime() - start;
+                report(executedSql, batch, -1, elapsed, elapsed, e.getMessage());
+                batchSize = 0;
+                throw e;
+            }
+            if (result instanceof ResultSet) {
+                openQuerySql = executedSql;
+                openQuery = new TracedResultSet((ResultSet) result, (Statement) proxy, this, start,
+                        System.nanoTime() - start);
+                return openQuery;
+            }
+
+            long elapsed = System.nanoTime() - start;
+            long rows = -1;
+            if (result instanceof Integer || result instanceof Long) {
+                rows = ((Number) result).longValue();
+            } else if (result instanceof int[]) {
+                rows = 0;
+                for (int count : (int[]) result) {
+                    rows += Math.max(count, 0);
+                }
+            } else if (result instanceof long[]) {
+                rows = 0;
+                for (long count : (long[]) result) {
+                    rows += Math.max(count, 0);
+                }
+            }
+            if (batch > 0) {
+                batchSize = 0;
+            }
+            report(executedSql, batch, rows, elapsed, elapsed, null);
+            return result;
+        }
+
+        private void bind(int index, Object value) {
+            if (index < 1) {
+                return;
+            }
+            if (index > parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length * 2 + 4));
+            }
+            parameters[index - 1] = value;
+            parameterCount = Math.max(parameterCount, index);
+        }
+
+        private void finishQuery() {
+            if (openQuery != null) {
+                openQuery.finish();
+            }
+        }
+
+        @Override
+        public void queryFinished(long rows, long databaseNanos, long elapsedNanos) {
+            report(openQuerySql, 0, rows, databaseNanos, elapsedNanos, null);
+        }
+
+        private void report(String executedSql, int batch, long rows, long databaseNanos, long elapsedNanos,
+                            String error) {
+            if (executedSql != null && log.isSlow(databaseNanos)) {
+                log.record(executedSql, Arrays.copyOf(parameters, parameterCount), batch, rows,
+                        databaseNanos, elapsedNanos, error);
+            }
+        }
+    }
+}
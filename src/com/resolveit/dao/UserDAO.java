@@ -1,7 +1,17 @@
 package com.resolveit.dao;
 
+import com.resolveit.metrics.DaoMetrics;
+import com.resolveit.metrics.OperationMetrics;
 import com.resolveit.model.User;
 import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Data Access Object for User entity
@@ -9,51 +19,105 @@ import java.sql.*;
  */
 public class UserDAO {
     
+    private static final int DIRECTORY_MAX_USERS = 10000;
+    private static final long DIRECTORY_TTL_MILLIS = 5 * 60 * 1000L;
+    
     /**
-     * Authenticate user with email and password
+     * Ids per IN (...) list used by getUsersByIds()
+     */
+    private static final int BULK_CHUNK_SIZE = 1000;
+    
+    private static final UserDirectory DIRECTORY = new UserDirectory(DIRECTORY_MAX_USERS, DIRECTORY_TTL_MILLIS);
+    
+    private static final OperationMetrics AUTHENTICATE_METRICS = DaoMetrics.operation("UserDAO", "authenticateUser");
+    private static final OperationMetrics REGISTER_METRICS = DaoMetrics.operation("UserDAO", "registerUser");
+    private static final OperationMetrics BY_ID_METRICS = DaoMetrics.operation("UserDAO", "getUserById");
+    private static final OperationMetrics UPDATE_METRICS = DaoMetrics.operation("UserDAO", "updateUser");
+    private static final OperationMetrics REHASH_METRICS = DaoMetrics.operation("UserDAO", "upgradePasswordHash");
+    private static final OperationMetrics BY_IDS_METRICS = DaoMetrics.operation("UserDAO", "getUsersByIds");
+    
+    /**
+     * Authenticate user with email and password.
+     * The account is looked up by email and the password checked on the CredentialVerifier pool;
+     * a password stored in a legacy format is replaced with a current hash on success.
+     * Returns null for unknown email or wrong password, and throws AuthenticationBusyException
+     * when the check could not be admitted.
      */
     public static User authenticateUser(String email, String password) {
-        String query = "SELECT * FROM users WHERE email = ? AND password = ?";
+        long start = System.nanoTime();
+        String query = "SELECT user_id, name, email, role, password_hash FROM users WHERE email = ?";
         
+        User user = null;
+        String storedHash = null;
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
             
             pstmt.setString(1, email);
-            pstmt.setString(2, password);
             
             ResultSet rs = pstmt.executeQuery();
             
             if (rs.next()) {
-                User user = new User();
-                user.setId(rs.getInt("id"));
-                user.setUsername(rs.getString("username"));
+                user = new User();
+                user.setUserId(rs.getInt("user_id"));
+                user.setName(rs.getString("name"));
                 user.setEmail(rs.getString("email"));
                 user.setRole(rs.getString("role"));
-                return user;
+                storedHash = rs.getString("password_hash");
             }
         } catch (SQLException e) {
+            AUTHENTICATE_METRICS.failure(start);
             System.err.println("Error authenticating user: " + e.getMessage());
+            return null;
         }
-        return null;
+        
+        // The connection is back in the pool before the (slow) hash check runs
+        CredentialVerifier.Result result;
+        try {
+            result = CredentialVerifier.verify(password, storedHash);
+        } catch (RuntimeException e) {
+            AUTHENTICATE_METRICS.failure(start);
+            throw e;
+        }
+        if (!result.isMatch()) {
+            AUTHENTICATE_METRICS.success(start, 0);
+            return null;
+        }
+        if (result.getRehashed() != null) {
+            upgradePasswordHash(user.getUserId(), storedHash, result.getRehashed());
+        }
+        AUTHENTICATE_METRICS.success(start, 1);
+        return user;
     }
     
     /**
      * Register a new user
      */
     public static boolean registerUser(String username, String email, String password) {
-        String query = "INSERT INTO users (username, email, password, role) VALUES (?, ?, ?, ?)";
+        long start = System.nanoTime();
+        String query = "INSERT INTO users (name, email, password_hash, role) VALUES (?, ?, ?, ?)";
+        
+        String passwordHash;
+        try {
+            passwordHash = CredentialVerifier.hash(password);
+        } catch (RuntimeException e) {
+            REGISTER_METRICS.failure(start);
+            throw e;
+        }
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
             
             pstmt.setString(1, username);
             pstmt.setString(2, email);
-            pstmt.setString(3, password);
+            pstmt.setString(3, passwordHash);
             pstmt.setString(4, "USER");
             
             int result = pstmt.executeUpdate();
+            DIRECTORY.userAdded();
+            REGISTER_METRICS.success(start, result);
             return result > 0;
         } catch (SQLException e) {
+            REGISTER_METRICS.failure(start);
             System.err.println("Error registering user: " + e.getMessage());
         }
         return false;
@@ -63,7 +127,8 @@ public class UserDAO {
      * Get user by ID
      */
     public static User getUserById(int userId) {
-        String query = "SELECT * FROM users WHERE id = ?";
+        long start = System.nanoTime();
+        String query = "SELECT * FROM users WHERE user_id = ?";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
@@ -74,13 +139,16 @@ public class UserDAO {
             
             if (rs.next()) {
                 User user = new User();
-                user.setId(rs.getInt("id"));
-                user.setUsername(rs.getString("username"));
+                user.setUserId(rs.getInt("user_id"));
+                user.setName(rs.getString("name"));
                 user.setEmail(rs.getString("email"));
                 user.setRole(rs.getString("role"));
+                BY_ID_METRICS.success(start, 1);
                 return user;
             }
+            BY_ID_METRICS.success(start, 0);
         } catch (SQLException e) {
+            BY_ID_METRICS.failure(start);
             System.err.println("Error fetching user: " + e.getMessage());
         }
         return null;
@@ -90,7 +158,8 @@ public class UserDAO {
      * Update user profile
      */
     public static boolean updateUser(int userId, String username, String email) {
-        String query = "UPDATE users SET username = ?, email = ? WHERE id = ?";
+        long start = System.nanoTime();
+        String query = "UPDATE users SET name = ?, email = ? WHERE user_id = ?";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
@@ -100,10 +169,149 @@ public class UserDAO {
             pstmt.setInt(3, userId);
             
             int result = pstmt.executeUpdate();
+            DIRECTORY.userChanged(userId);
+            UPDATE_METRICS.success(start, result);
             return result > 0;
         } catch (SQLException e) {
+            DIRECTORY.userChanged(userId);
+            UPDATE_METRICS.failure(start);
             System.err.println("Error updating user: " + e.getMessage());
         }
         return false;
     }
+    
+    /**
+     * Get users by id in one round trip, for showing names next to complaints.
+     * Served from the user directory cache where possible; ids of missing users are absent
+     * from the returned map. The returned User objects are shared and must not be modified.
+     */
+    public static Map<Integer, User> getUsersByIds(Collection<Integer> userIds) {
+        Map<Integer, User> users = new HashMap<>();
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(userIds));
+        if (ids.isEmpty()) {
+            return users;
+        }
+        long start = System.nanoTime();
+        
+        Set<Integer> missing = new LinkedHashSet<>();
+        users.putAll(DIRECTORY.get(ids, missing));
+        if (missing.isEmpty()) {
+            BY_IDS_METRICS.success(start, users.size());
+            return users;
+        }
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (DIRECTORY.needsBulkLoad()) {
+                long loadGeneration = DIRECTORY.beginLoad();
+                List<User> directory = loadDirectory(conn);
+                DIRECTORY.put(directory, loadGeneration, true);
+                takeMissing(directory, missing, users);
+            }
+            if (!missing.isEmpty()) {
+                long loadGeneration = DIRECTORY.beginLoad();
+                List<User> loaded = findUsers(conn, new ArrayList<>(missing));
+                DIRECTORY.put(loaded, loadGeneration, false);
+                takeMissing(loaded, missing, users);
+            }
+            BY_IDS_METRICS.success(start, users.size());
+        } catch (SQLException e) {
+            BY_IDS_METRICS.failure(start);
+            System.err.println("Error fetching users: " + e.getMessage());
+        }
+        return users;
+    }
+    
+    /**
+     * Drop all cached users, e.g. after users were changed outside UserDAO
+     */
+    public static void invalidateDirectory() {
+        DIRECTORY.invalidateAll();
+    }
+    
+    /**
+     * Replace a legacy password hash, unless the password was changed concurrently
+     */
+    private static void upgradePasswordHash(int userId, String oldHash, String newHash) {
+        long start = System.nanoTime();
+        String query = "UPDATE users SET password_hash = ? WHERE user_id = ? AND password_hash = ?";
+        
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            
+            pstmt.setString(1, newHash);
+            pstmt.setInt(2, userId);
+            pstmt.setString(3, oldHash);
+            
+            REHASH_METRICS.success(start, pstmt.executeUpdate());
+        } catch (SQLException e) {
+            REHASH_METRICS.failure(start);
+            System.err.println("Error upgrading password hash: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * The most recently registered users, up to the directory size
+     */
+    private static List<User> loadDirectory(Connection conn) throws SQLException {
+        String query = "SELECT user_id, name, email, role, created_at FROM users ORDER BY user_id DESC LIMIT ?";
+        List<User> users = new ArrayList<>();
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setInt(1, DIRECTORY.getMaxUsers());
+            
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                users.add(mapUser(rs));
+            }
+        }
+        return users;
+    }
+    
+    private static void takeMissing(List<User> loaded, Set<Integer> missing, Map<Integer, User> users) {
+        for (User user : loaded) {
+            if (missing.remove(user.getUserId())) {
+                users.put(user.getUserId(), user);
+            }
+        }
+    }
+    
+    private static List<User> findUsers(Connection conn, List<Integer> ids) throws SQLException {
+        List<User> users = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size()));
+            StringBuilder query = new StringBuilder("SELECT user_id, name, email, role, created_at FROM users WHERE user_id IN (");
+            for (int i = 0; i < chunk.size(); i++) {
+                query.append(i == 0 ? "?" : ", ?");
+            }
+            query.append(")");
+            
+            try (PreparedStatement pstmt = conn.prepareStatement(query.toString())) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    pstmt.setInt(i + 1, chunk.get(i));
+                }
+                
+                ResultSet rs = pstmt.executeQuery();
+                
+                while (rs.next()) {
+                    users.add(mapUser(rs));
+                }
+            }
+        }
+        return users;
+    }
+    
+    private static User mapUser(ResultSet rs) throws SQLException {
+        User user = new User();
+        user.setUserId(rs.getInt("user_id"));
+        user.setName(rs.getString("name"));
+        user.setEmail(rs.getString("email"));
+        user.setRole(rs.getString("role"));
+        user.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        return user;
+    }
+    
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
 }
@@ -0,0 +1,116 @@
+package com.resolveit.dao;
+
+import com.resolveit.model.User;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of users by id in front of UserDAO.getUsersByIds(), used to show names in tables.
+ * It is filled by a bulk load of up to maxUsers users, refreshed once the bulk load is older
+ * than the TTL; ids missing from it are fetched in one batch and added (LRU-bounded).
+ * Each entry also expires after the TTL. UserDAO.updateUser drops the changed user and
+ * registerUser bumps the generation, so loads racing with a write are not cached.
+ * Cached User objects are shared with callers and must not be mutated.
+ */
+class UserDirectory {
+    private final int maxUsers;
+    private final long ttlNanos;
+
+    private final Map<Integer, CachedUser> users;
+    private boolean bulkLoaded;
+    private long bulkLoadedAt;
+
+    // Bumped by every write so that loads racing with a write are not cached
+    private long generation;
+
+    UserDirectory(int maxUsers, long ttlMillis) {
+        this.maxUsers = maxUsers;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.users = new LinkedHashMap<Integer, CachedUser>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, CachedUser> eldest) {
+                return size() > UserDirectory.this.maxUsers;
+            }
+        };
+    }
+
+    int getMaxUsers() {
+        return maxUsers;
+    }
+
+    /**
+     * True if the directory has not been bulk loaded yet, or the bulk load has expired
+     */
+    synchronized boolean needsBulkLoad() {
+        return !bulkLoaded || System.nanoTime() - bulkLoadedAt > ttlNanos;
+    }
+
+    /**
+     * Cached users among the given ids; ids not cached (or expired) are added to missing
+     */
+    synchronized Map<Integer, User> get(Collection<Integer> userIds, Collection<Integer> missing) {
+        Map<Integer, User> found = new HashMap<>();
+        long now = System.nanoTime();
+        for (Integer userId : userIds) {
+            CachedUser cached = users.get(userId);
+            if (cached != null && now - cached.loadedAt <= ttlNanos) {
+                found.put(userId, cached.user);
+            } else {
+                missing.add(userId);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Called before querying the database; pass the result to put()
+     */
+    synchronized long beginLoad() {
+        return generation;
+    }
+
+    /**
+     * Cache loaded users unless a write happened since the load began
+     */
+    synchronized void put(Collection<User> loaded, long loadGeneration, boolean bulk) {
+        if (loadGeneration != generation) {
+            return;
+        }
+        if (bulk) {
+            users.clear();
+            bulkLoaded = true;
+            bulkLoadedAt = System.nanoTime();
+        }
+        for (User user : loaded) {
+            users.put(user.getUserId(), new CachedUser(user));
+        }
+    }
+
+    synchronized void userChanged(int userId) {
+        generation++;
+        users.remove(userId);
+    }
+
+    synchronized void userAdded() {
+        generation++;
+    }
+
+    synchronized void invalidateAll() {
+        generation++;
+        users.clear();
+        bulkLoaded = false;
+    }
+
+    private static class CachedUser {
+        private final User user;
+        private final long loadedAt;
+
+        CachedUser(User user) {
+            this.user = user;
+            this.loadedAt = System.nanoTime();
+        }
+    }
+}
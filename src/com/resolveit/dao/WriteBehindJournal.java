@@ -0,0 +1,243 @@
+package com.resolveit.dao;
+
+import com.resolveit.model.Complaint;
+import com.resolveit.model.Feedback;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of the submissions acknowledged by the WriteBehindQueue.
+ * Each record is framed as [length][CRC32][payload], so a record torn by a crash is detected and
+ * cut off on recovery. After the queue commits a batch it appends a commit marker with the batch's
+ * last sequence number; recovery returns the submissions after the last marker. The file is
+ * truncated whenever everything in it has been committed.
+ *
+ * append(), commit() and truncate() must be serialized by the caller; sync() may be called
+ * concurrently and lets one fsync cover every record appended before it started.
+ */
+final class WriteBehindJournal {
+    private static final byte COMPLAINT = 1;
+    private static final byte FEEDBACK = 2;
+    private static final byte COMMIT = 3;
+    private static final int HEADER_BYTES = 8;
+
+    private final Path path;
+    private final FileChannel channel;
+    private volatile long appendedPosition;
+    private final Object syncLock = new Object();
+    private long syncedPosition;
+
+    WriteBehindJournal(Path path) throws IOException {
+        this.path = path;
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    /**
+     * Read the journal and return the submissions not covered by a commit marker, in order.
+     * A torn or corrupt tail is cut off. Must be called once, before the first append().
+     */
+    List<WriteBehindQueue.Submission> recover() throws IOException {
+        List<WriteBehindQueue.Submission> submissions = new ArrayList<>();
+        long committed = 0;
+        long position = 0;
+        channel.position(0);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        try {
+            while (true) {
+                int length = in.readInt();
+                long checksum = in.readInt() & 0xFFFFFFFFL;
+                if (length <= 0 || position + HEADER_BYTES + length > channel.size()) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload, 0, length);
+                if (crc.getValue() != checksum) {
+                    break;
+                }
+                DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+                byte type = record.readByte();
+                long sequence = record.readLong();
+                if (type == COMMIT) {
+                    committed = Math.max(committed, sequence);
+                } else {
+                    submissions.add(readSubmission(type, sequence, record));
+                }
+                position += HEADER_BYTES + length;
+            }
+        } catch (EOFException e) {
+            // Short header or payload: the tail of an interrupted append
+        }
+        if (position < channel.size()) {
+            System.err.println("Write-behind journal " + path + ": discarding " + (channel.size() - position)
+                    + " bytes of incomplete records");
+            channel.truncate(position);
+        }
+        channel.position(position);
+        appendedPosition = position;
+
+        List<WriteBehindQueue.Submission> pending = new ArrayList<>();
+        for (WriteBehindQueue.Submission submission : submissions) {
+            if (submission.sequence > committed) {
+                pending.add(submission);
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Append a submission and return the journal position after it, for sync()
+     */
+    long append(WriteBehindQueue.Submission submission) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        if (submission.complaint != null) {
+            Complaint complaint = submission.complaint;
+            out.writeByte(COMPLAINT);
+            out.writeLong(submission.sequence);
+            out.writeUTF(complaint.getCreatedAt().toString());
+            out.writeInt(complaint.getUserId());
+            writeString(out, complaint.getTitle());
+            writeString(out, complaint.getDescription());
+            writeString(out, complaint.getCategory());
+        } else {
+            Feedback feedback = submission.feedback;
+            out.writeByte(FEEDBACK);
+            out.writeLong(submission.sequence);
+            out.writeUTF(feedback.getCreatedAt().toString());
+            out.writeInt(feedback.getComplaintId());
+            out.writeInt(feedback.getUserId());
+            out.writeInt(feedback.getRating());
+            writeString(out, feedback.getComments());
+        }
+        return write(bytes.toByteArray());
+    }
+
+    /**
+     * Record that every submission up to the sequence number is in the database.
+     * Not forced to disk: losing a marker only means its batch is written again on recovery.
+     */
+    void commit(long sequence) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(COMMIT);
+        out.writeLong(sequence);
+        write(bytes.toByteArray());
+    }
+
+    /**
+     * Drop every record; only valid when all of them have been committed
+     */
+    void truncate() throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+        appendedPosition = 0;
+        synchronized (syncLock) {
+            syncedPosition = 0;
+        }
+    }
+
+    /**
+     * Force the journal to disk up to at least the given position
+     */
+    void sync(long position) throws IOException {
+        synchronized (syncLock) {
+            if (syncedPosition >= position) {
+                return;
+            }
+            // Everything appended so far is covered, so callers queued behind this one return at once.
+            // (After a truncate() the position may be stale; its record is then already committed.)
+            long target = appendedPosition;
+            channel.force(false);
+            syncedPosition = target;
+        }
+    }
+
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close write-behind journal: " + e.getMessage());
+        }
+    }
+
+    private long write(byte[] payload) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        long start = appendedPosition;
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            // Cut off the partial record so later appends stay readable
+            channel.truncate(start);
+            channel.position(start);
+            throw e;
+        }
+        appendedPosition = start + buffer.limit();
+        return appendedPosition;
+    }
+
+    private static WriteBehindQueue.Submission readSubmission(byte type, long sequence, DataInputStream in)
+            throws IOException {
+        LocalDateTime createdAt = LocalDateTime.parse(in.readUTF());
+        if (type == COMPLAINT) {
+            Complaint complaint = new Complaint();
+            complaint.setCreatedAt(createdAt);
+            complaint.setUserId(in.readInt());
+            complaint.setTitle(readString(in));
+            complaint.setDescription(readString(in));
+            complaint.setCategory(readString(in));
+            return new WriteBehindQueue.Submission(sequence, complaint, null);
+        }
+        if (type == FEEDBACK) {
+            Feedback feedback = new Feedback();
+            feedback.setCreatedAt(createdAt);
+            feedback.setComplaintId(in.readInt());
+            feedback.setUserId(in.readInt());
+            feedback.setRating(in.readInt());
+            feedback.setComments(readString(in));
+            return new WriteBehindQueue.Submission(sequence, null, feedback);
+        }
+        throw new IOException("Unknown journal record type " + type);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,458 @@
+package com.resolveit.dao;
+
+import com.resolveit.metrics.DaoMetrics;
+import com.resolveit.metrics.OperationMetrics;
+import com.resolveit.model.Complaint;
+import com.resolveit.model.Feedback;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional write-behind mode for ComplaintDAO.submitComplaint() and FeedbackDAO.submitFeedback().
+ * A submission is appended to a local journal, forced to disk and put on a bounded in-memory queue,
+ * and the call returns; a writer thread then inserts whatever has queued up in one transaction
+ * (group commit), so a burst of submissions costs a few transactions instead of one each.
+ *
+ *  - Back-pressure: when the queue is full, submitters wait up to offerTimeoutMillis for space
+ *    and are then refused (the DAO call returns false, as for a database error).
+ *  - Outages: while the database is unreachable the writer keeps its batch and retries with backoff;
+ *    submissions keep being accepted until the queue is full.
+ *  - Durability: acknowledged submissions not yet committed are replayed from the journal when the
+ *    queue next starts. Delivery is at-least-once: a crash between a commit and its journal marker
+ *    writes that batch again.
+ *  - Shutdown: DatabaseConnection.shutdownPool(), also run by its JVM shutdown hook, flushes the
+ *    queue for up to shutdownTimeoutMillis before the pool closes.
+ *
+ * Queued rows are stored with the time they were acknowledged, and appear in queries once
+ * committed; use flush() to wait for that. Rows the database rejects (e.g. an unknown complaint id)
+ * are logged and dropped. Settings (system property "resolveit.writeBehind.<key>" or environment
+ * variable RESOLVEIT_WRITEBEHIND_<KEY>):
+ *  - enabled: "true" to turn the mode on, default off
+ *  - journal: journal file, default data/write-behind.journal
+ *  - capacity: submissions queued or being written, default 10000
+ *  - batchSize: most submissions per transaction, default 500
+ *  - offerTimeoutMillis: wait for space in a full queue, default 1000
+ *  - shutdownTimeoutMillis: time allowed to flush at shutdown, default 10000
+ */
+public final class WriteBehindQueue {
+    private static final OperationMetrics ENQUEUE_METRICS = DaoMetrics.operation("WriteBehindQueue", "enqueue");
+    private static final OperationMetrics FLUSH_METRICS = DaoMetrics.operation("WriteBehindQueue", "flush");
+    private static final long MAX_RETRY_DELAY_MILLIS = 5000;
+
+    private static volatile WriteBehindQueue instance;
+    private static volatile boolean started;
+
+    private final WriteBehindJournal journal;
+    private final int batchSize;
+    private final long offerTimeoutMillis;
+    private final long shutdownTimeoutMillis;
+    private final Semaphore space;
+    private final BlockingQueue<Submission> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    // Guarded by this: appending to the journal and the queue together keeps both in sequence order
+    private long lastSequence;
+    private long committedSequence;
+
+    private WriteBehindQueue(WriteBehindJournal journal, List<Submission> recovered) {
+        this.journal = journal;
+        this.batchSize = Math.max(1, intSetting("batchSize", 500));
+        this.offerTimeoutMillis = intSetting("offerTimeoutMillis", 1000);
+        this.shutdownTimeoutMillis = intSetting("shutdownTimeoutMillis", 10000);
+        // Recovered submissions may exceed the capacity; new ones then wait until they are written
+        this.space = new Semaphore(Math.max(1, intSetting("capacity", 10000)) - recovered.size());
+        queue.addAll(recovered);
+        lastSequence = recovered.isEmpty() ? 0 : recovered.get(recovered.size() - 1).sequence;
+        committedSequence = recovered.isEmpty() ? 0 : recovered.get(0).sequence - 1;
+        writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writeLoop();
+            }
+        }, "resolveit-write-behind");
+        writer.setDaemon(true);
+    }
+
+    /**
+     * The running queue, started on first use, or null when write-behind is disabled
+     * or its journal cannot be opened (submissions are then written directly)
+     */
+    static WriteBehindQueue get() {
+        WriteBehindQueue current = instance;
+        if (current != null || started) {
+            return current;
+        }
+        synchronized (WriteBehindQueue.class) {
+            if (!started) {
+                started = true;
+                instance = "true".equalsIgnoreCase(setting("enabled")) ? open() : null;
+            }
+            return instance;
+        }
+    }
+
+    /**
+     * True if submissions go through the write-behind queue
+     */
+    public static boolean isEnabled() {
+        return get() != null;
+    }
+
+    /**
+     * Submissions acknowledged but not yet committed
+     */
+    public static int getPendingCount() {
+        WriteBehindQueue current = instance;
+        return current == null ? 0 : current.pendingCount();
+    }
+
+    /**
+     * Wait until every submission acknowledged before this call is committed.
+     * Returns false if that did not happen within the timeout.
+     */
+    public static boolean flush(long timeoutMillis) {
+        WriteBehindQueue current = instance;
+        return current == null || current.awaitCommitted(timeoutMillis);
+    }
+
+    /**
+     * Stop accepting submissions and flush the queue; whatever is left stays in the journal
+     * for the next start. Called by DatabaseConnection.shutdownPool().
+     */
+    static void shutdown() {
+        WriteBehindQueue current = instance;
+        if (current == null) {
+            return;
+        }
+        current.close();
+        synchronized (WriteBehindQueue.class) {
+            // A later submission starts a new queue, which replays anything left in the journal
+            if (instance == current) {
+                instance = null;
+                started = false;
+            }
+        }
+    }
+
+    boolean submitComplaint(int userId, String title, String description, String category) {
+        Complaint complaint = new Complaint();
+        complaint.setUserId(userId);
+        complaint.setTitle(title);
+        complaint.setDescription(description);
+        complaint.setCategory(category);
+        complaint.setCreatedAt(LocalDateTime.now());
+        return enqueue(complaint, null);
+    }
+
+    boolean submitFeedback(int complaintId, int userId, String comment, int rating) {
+        Feedback feedback = new Feedback();
+        feedback.setComplaintId(complaintId);
+        feedback.setUserId(userId);
+        feedback.setComments(comment);
+        feedback.setRating(rating);
+        feedback.setCreatedAt(LocalDateTime.now());
+        return enqueue(null, feedback);
+    }
+
+    private static WriteBehindQueue open() {
+        String path = setting("journal");
+        WriteBehindJournal journal = null;
+        try {
+            journal = new WriteBehindJournal(Paths.get(path == null ? "data/write-behind.journal" : path));
+            List<Submission> recovered = journal.recover();
+            if (recovered.isEmpty()) {
+                journal.truncate();
+            } else {
+                System.out.println("Write-behind: replaying " + recovered.size() + " submissions from "
+                        + journal.getPath());
+            }
+            WriteBehindQueue queue = new WriteBehindQueue(journal, recovered);
+            queue.writer.start();
+            return queue;
+        } catch (IOException | RuntimeException e) {
+            if (journal != null) {
+                journal.close();
+            }
+            System.err.println("Write-behind disabled, could not open its journal: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean enqueue(Complaint complaint, Feedback feedback) {
+        long start = System.nanoTime();
+        try {
+            if (closed || !space.tryAcquire(offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                ENQUEUE_METRICS.failure(start);
+                System.err.println(closed ? "Write-behind queue is shut down; submission refused"
+                        : "Write-behind queue is full; submission refused");
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ENQUEUE_METRICS.failure(start);
+            return false;
+        }
+
+        long position;
+        synchronized (this) {
+            Submission submission = new Submission(lastSequence + 1, complaint, feedback);
+            try {
+                if (closed) {
+                    throw new IOException("queue is shut down");
+                }
+                position = journal.append(submission);
+            } catch (IOException e) {
+                space.release();
+                ENQUEUE_METRICS.failure(start);
+                System.err.println("Write-behind submission refused: " + e.getMessage());
+                return false;
+            }
+            lastSequence = submission.sequence;
+            queue.add(submission);
+        }
+        try {
+            journal.sync(position);
+        } catch (IOException e) {
+            // Still queued and written shortly, but would not survive a crash before that
+            System.err.println("Write-behind journal could not be forced to disk: " + e.getMessage());
+        }
+        ENQUEUE_METRICS.success(start, 1);
+        return true;
+    }
+
+    private void writeLoop() {
+        List<Submission> batch = new ArrayList<>(batchSize);
+        long retryDelayMillis = 0;
+        while (true) {
+            try {
+                if (batch.isEmpty()) {
+                    Submission first = queue.poll(200, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        if (closed) {
+                            return;
+                        }
+                        continue;
+                    }
+                    batch.add(first);
+                    // Everything that queued up while the previous batch was written joins this one
+                    queue.drainTo(batch, batchSize - 1);
+                }
+                if (write(batch)) {
+                    batch.clear();
+                    retryDelayMillis = 0;
+                } else {
+                    retryDelayMillis = Math.min(MAX_RETRY_DELAY_MILLIS, Math.max(100, retryDelayMillis * 2));
+                    Thread.sleep(retryDelayMillis);
+                }
+            } catch (InterruptedException e) {
+                // Interrupted by close() once its flush has finished or timed out
+                return;
+            } catch (RuntimeException e) {
+                System.err.println("Write-behind writer error: " + e);
+                try {
+                    Thread.sleep(MAX_RETRY_DELAY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Write a batch in one transaction. If the batch is rejected on a healthy connection, the rows
+     * are retried one by one and those the database still rejects are dropped. Returns false if the
+     * database could not be reached, so the batch is retried later.
+     */
+    private boolean write(List<Submission> batch) {
+        long start = System.nanoTime();
+        List<Complaint> complaints = new ArrayList<>();
+        List<Feedback> feedback = new ArrayList<>();
+        for (Submission submission : batch) {
+            if (submission.complaint != null) {
+                complaints.add(submission.complaint);
+            } else {
+                feedback.add(submission.feedback);
+            }
+        }
+
+        List<Complaint> written = new ArrayList<>();
+        int inserted = complaints.size();
+        int rejected = 0;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn == null) {
+                FLUSH_METRICS.failure(start);
+                return false;
+            }
+            conn.setAutoCommit(false);
+            try {
+                written.addAll(ComplaintDAO.insertQueuedComplaints(conn, complaints));
+                FeedbackDAO.insertQueuedFeedback(conn, feedback);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                if (!conn.isValid(2)) {
+                    throw e;
+                }
+                written.clear();
+                List<Submission> accepted = writeIndividually(conn, batch, written);
+                rejected = batch.size() - accepted.size();
+                inserted = 0;
+                for (Submission submission : accepted) {
+                    if (submission.complaint != null) {
+                        inserted++;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            FLUSH_METRICS.failure(start);
+            System.err.println("Write-behind flush of " + batch.size() + " submissions failed, will retry: "
+                    + e.getMessage());
+            return false;
+        }
+
+        if (inserted > 0) {
+            ComplaintDAO.queuedComplaintsWritten(written, inserted);
+        }
+        committed(batch.get(batch.size() - 1).sequence);
+        space.release(batch.size());
+        FLUSH_METRICS.success(start, batch.size() - rejected);
+        return true;
+    }
+
+    /**
+     * Write the submissions one by one, dropping those the database rejects; returns the ones written
+     * and adds the complaints as stored to written
+     */
+    private List<Submission> writeIndividually(Connection conn, List<Submission> batch,
+                                               List<Complaint> written) throws SQLException {
+        List<Submission> accepted = new ArrayList<>();
+        List<Complaint> stored = new ArrayList<>();
+        for (Submission submission : batch) {
+            Savepoint savepoint = conn.setSavepoint();
+            try {
+                if (submission.complaint != null) {
+                    List<Complaint> rows = ComplaintDAO.insertQueuedComplaints(conn,
+                            Collections.singletonList(submission.complaint));
+                    conn.releaseSavepoint(savepoint);
+                    stored.addAll(rows);
+                } else {
+                    FeedbackDAO.insertQueuedFeedback(conn, Collections.singletonList(submission.feedback));
+                    conn.releaseSavepoint(savepoint);
+                }
+                accepted.add(submission);
+            } catch (SQLException e) {
+                conn.rollback(savepoint);
+                System.err.println("Write-behind dropped " + submission + ": " + e.getMessage());
+            }
+        }
+        conn.commit();
+        written.addAll(stored);
+        return accepted;
+    }
+
+    private synchronized void committed(long sequence) {
+        committedSequence = sequence;
+        try {
+            if (committedSequence == lastSequence) {
+                journal.truncate();
+            } else {
+                journal.commit(sequence);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to update write-behind journal: " + e.getMessage());
+        }
+        notifyAll();
+    }
+
+    private synchronized boolean awaitCommitted(long timeoutMillis) {
+        long target = lastSequence;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (committedSequence < target) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis <= 0) {
+                return false;
+            }
+            try {
+                wait(remainingMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void close() {
+        closed = true;
+        if (!awaitCommitted(shutdownTimeoutMillis)) {
+            System.err.println("Write-behind: " + pendingCount() + " submissions not yet written remain in "
+                    + journal.getPath() + " and will be written on the next start");
+        }
+        writer.interrupt();
+        try {
+            writer.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            journal.close();
+        }
+    }
+
+    private synchronized int pendingCount() {
+        return (int) (lastSequence - committedSequence);
+    }
+
+    private static String setting(String key) {
+        return System.getProperty("resolveit.writeBehind." + key,
+                System.getenv("RESOLVEIT_WRITEBEHIND_" + key.toUpperCase(Locale.ROOT)));
+    }
+
+    private static int intSetting(String key, int defaultValue) {
+        String value = setting(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid resolveit.writeBehind." + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * One acknowledged complaint or feedback, numbered in journal order
+     */
+    static final class Submission {
+        final long sequence;
+        final Complaint complaint;
+        final Feedback feedback;
+
+        Submission(long sequence, Complaint complaint, Feedback feedback) {
+            this.sequence = sequence;
+            this.complaint = complaint;
+            this.feedback = feedback;
+        }
+
+        @Override
+        public String toString() {
+            return complaint != null
+                    ? "complaint from user " + complaint.getUserId() + " (\"" + complaint.getTitle() + "\")"
+                    : "feedback from user " + feedback.getUserId() + " on complaint " + feedback.getComplaintId();
+        }
+    }
+}
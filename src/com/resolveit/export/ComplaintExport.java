@@ -0,0 +1,57 @@
+package com.resolveit.export;
+
+import com.resolveit.dao.ComplaintDAO;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports every complaint joined with its feedback to a file.
+ * Rows are streamed from the database straight to the file channel, so the export
+ * runs in a small, constant amount of heap regardless of the table size.
+ */
+public class ComplaintExport {
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Export to the given file, optionally gzip-compressed.
+     * Returns the number of rows written, or -1 on error, in which case the partial file is deleted.
+     */
+    public static long exportToFile(Path file, ExportFormat format, boolean gzip) {
+        long rows = -1;
+        boolean opened = false;
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            opened = true;
+            WritableByteChannel channel = fileChannel;
+            if (gzip) {
+                channel = Channels.newChannel(new GZIPOutputStream(Channels.newOutputStream(fileChannel), GZIP_BUFFER_SIZE));
+            }
+            long written;
+            try (RowWriter writer = format.newWriter(channel)) {
+                written = ComplaintDAO.exportComplaintsWithFeedback(writer);
+            }
+            rows = written;
+        } catch (IOException e) {
+            System.err.println("Error writing export file " + file + ": " + e.getMessage());
+        } finally {
+            if (rows < 0 && opened) {
+                deleteIncomplete(file);
+            }
+        }
+        return rows;
+    }
+
+    private static void deleteIncomplete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Failed to delete incomplete export file " + file + ": " + e.getMessage());
+        }
+    }
+}
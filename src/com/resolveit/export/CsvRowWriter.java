@@ -0,0 +1,60 @@
+package com.resolveit.export;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * RFC 4180 CSV with a header line; null values are written as empty fields
+ */
+public class CsvRowWriter extends RowWriter {
+
+    public CsvRowWriter(WritableByteChannel channel) {
+        super(channel);
+    }
+
+    @Override
+    public void writeHeader(String[] columns) throws IOException {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            appendField(columns[i]);
+        }
+        endLine();
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            if (values[i] != null) {
+                appendField(values[i].toString());
+            }
+        }
+        endLine();
+        rowWritten();
+    }
+
+    private void appendField(String value) {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+}
@@ -0,0 +1,36 @@
+package com.resolveit.export;
+
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Supported export file formats
+ */
+public enum ExportFormat {
+    CSV("csv"),
+    JSON_LINES("jsonl");
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public RowWriter newWriter(WritableByteChannel channel) {
+        return this == CSV ? new CsvRowWriter(channel) : new JsonLinesRowWriter(channel);
+    }
+
+    /**
+     * Format for a file name (ignoring a trailing .gz); CSV unless it ends in .jsonl or .json
+     */
+    public static ExportFormat forFileName(String fileName) {
+        String name = fileName.toLowerCase();
+        if (name.endsWith(".gz")) {
+            name = name.substring(0, name.length() - 3);
+        }
+        return name.endsWith(".jsonl") || name.endsWith(".json") ? JSON_LINES : CSV;
+    }
+}
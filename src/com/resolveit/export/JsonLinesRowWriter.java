@@ -0,0 +1,74 @@
+package com.resolveit.export;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * One JSON object per line, keyed by column name; numbers are written unquoted
+ */
+public class JsonLinesRowWriter extends RowWriter {
+    private String[] columns;
+
+    public JsonLinesRowWriter(WritableByteChannel channel) {
+        super(channel);
+    }
+
+    @Override
+    public void writeHeader(String[] columns) {
+        this.columns = columns.clone();
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        line.append('{');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            appendString(columns[i]);
+            line.append(':');
+            Object value = values[i];
+            if (value == null) {
+                line.append("null");
+            } else if (value instanceof Number) {
+                line.append(value);
+            } else {
+                appendString(value.toString());
+            }
+        }
+        line.append('}');
+        endLine();
+        rowWritten();
+    }
+
+    private void appendString(String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    line.append("\\\"");
+                    break;
+                case '\\':
+                    line.append("\\\\");
+                    break;
+                case '\n':
+                    line.append("\\n");
+                    break;
+                case '\r':
+                    line.append("\\r");
+                    break;
+                case '\t':
+                    line.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+            }
+        }
+        line.append('"');
+    }
+}
@@ -0,0 +1,87 @@
+package com.resolveit.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Base class for export formats.
+ * Each row is formatted into a reused line buffer, encoded as UTF-8 into a fixed-size
+ * direct buffer and written to the channel whenever that buffer fills up, so memory use
+ * does not grow with the number of rows exported.
+ */
+public abstract class RowWriter implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final WritableByteChannel channel;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long rowCount;
+
+    protected final StringBuilder line = new StringBuilder(1024);
+
+    protected RowWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Called once before the first row with the column names
+     */
+    public abstract void writeHeader(String[] columns) throws IOException;
+
+    /**
+     * Write one row; values are Integer, String, LocalDateTime or null, in header order.
+     * The array may be reused by the caller for the next row.
+     */
+    public abstract void writeRow(Object[] values) throws IOException;
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Encode the current line followed by a newline and start a new one
+     */
+    protected void endLine() throws IOException {
+        line.append('\n');
+        CharBuffer chars = CharBuffer.wrap(line);
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, false);
+            if (result.isOverflow()) {
+                drain();
+            } else {
+                break;
+            }
+        }
+        line.setLength(0);
+    }
+
+    protected void rowWritten() {
+        rowCount++;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,225 @@
+package com.resolveit.metrics;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registry of per-operation DAO metrics.
+ * Every operation is published as an MXBean named
+ * com.resolveit:type=DaoMetrics,component=&lt;class&gt;,operation=&lt;method&gt;, next to
+ * com.resolveit:type=DaoMetrics,name=all which renders everything in the Prometheus text format.
+ *
+ * Setting -Dresolveit.metrics.prometheusFile=path (or RESOLVEIT_METRICS_PROMETHEUSFILE) also
+ * rewrites that file every resolveit.metrics.prometheusIntervalSeconds (default 15), e.g. for
+ * the node_exporter textfile collector.
+ */
+public final class DaoMetrics {
+    private static final String DOMAIN = "com.resolveit";
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+    private static final int DEFAULT_DUMP_INTERVAL_SECONDS = 15;
+
+    private static final Map<String, OperationMetrics> OPERATIONS = new ConcurrentSkipListMap<>();
+    private static ScheduledExecutorService dumper;
+
+    static {
+        register(new Registry(), DOMAIN + ":type=DaoMetrics,name=all");
+        String file = setting("prometheusFile");
+        if (file != null) {
+            String interval = setting("prometheusIntervalSeconds");
+            try {
+                startPrometheusFileDump(Paths.get(file),
+                        interval == null ? DEFAULT_DUMP_INTERVAL_SECONDS : Integer.parseInt(interval.trim()));
+            } catch (IllegalArgumentException e) {
+                System.err.println("Invalid metrics dump setting: " + e.getMessage());
+            }
+        }
+    }
+
+    private DaoMetrics() {
+    }
+
+    /**
+     * Metrics of the given operation, created and published over JMX on first use.
+     * Callers keep the result in a static field.
+     */
+    public static OperationMetrics operation(String component, String operation) {
+        String key = component + "." + operation;
+        OperationMetrics metrics = OPERATIONS.get(key);
+        if (metrics == null) {
+            synchronized (OPERATIONS) {
+                metrics = OPERATIONS.get(key);
+                if (metrics == null) {
+                    metrics = new OperationMetrics(component, operation);
+                    OPERATIONS.put(key, metrics);
+                    register(metrics, DOMAIN + ":type=DaoMetrics,component=" + component + ",operation=" + operation);
+                }
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * All registered operations, ordered by component and operation name
+     */
+    public static List<OperationMetrics> getOperations() {
+        return new ArrayList<>(OPERATIONS.values());
+    }
+
+    public static void resetAll() {
+        for (OperationMetrics metrics : OPERATIONS.values()) {
+            metrics.reset();
+        }
+    }
+
+    /**
+     * Write all operations in the Prometheus text exposition format (version 0.0.4)
+     */
+    public static void writePrometheus(Writer out) throws IOException {
+        List<OperationMetrics> operations = getOperations();
+        String[] calls = new String[operations.size()];
+        String[] errors = new String[operations.size()];
+        String[] rows = new String[operations.size()];
+        String[] max = new String[operations.size()];
+        for (int i = 0; i < operations.size(); i++) {
+            OperationMetrics metrics = operations.get(i);
+            calls[i] = Long.toString(metrics.getCalls());
+            errors[i] = Long.toString(metrics.getErrors());
+            rows[i] = Long.toString(metrics.getRows());
+            max[i] = seconds(Math.round(metrics.getMaxMillis() * 1_000_000.0));
+        }
+        writeFamily(out, "resolveit_dao_calls_total", "counter", "Completed calls.", operations, calls);
+        writeFamily(out, "resolveit_dao_errors_total", "counter", "Calls that failed with a database error.", operations, errors);
+        writeFamily(out, "resolveit_dao_rows_total", "counter", "Rows returned by queries or written by updates.", operations, rows);
+        writeFamily(out, "resolveit_dao_latency_max_seconds", "gauge", "Slowest call since start or reset.", operations, max);
+
+        out.write("# HELP resolveit_dao_latency_seconds Call latency.\n");
+        out.write("# TYPE resolveit_dao_latency_seconds summary\n");
+        for (OperationMetrics metrics : operations) {
+            String labels = labels(metrics);
+            long[] values = metrics.percentilesNanos(100 * QUANTILES[0], 100 * QUANTILES[1], 100 * QUANTILES[2]);
+            for (int i = 0; i < QUANTILES.length; i++) {
+                out.write("resolveit_dao_latency_seconds{" + labels + ",quantile=\"" + QUANTILES[i] + "\"} "
+                        + seconds(values[i]) + "\n");
+            }
+            out.write("resolveit_dao_latency_seconds_sum{" + labels + "} " + seconds(metrics.getTotalNanos()) + "\n");
+            out.write("resolveit_dao_latency_seconds_count{" + labels + "} " + metrics.getCalls() + "\n");
+        }
+    }
+
+    public static String prometheusText() {
+        StringWriter out = new StringWriter();
+        try {
+            writePrometheus(out);
+        } catch (IOException e) {
+            // StringWriter does not throw
+        }
+        return out.toString();
+    }
+
+    /**
+     * Rewrite the file with the Prometheus text at a fixed interval (atomically, via a temporary file)
+     */
+    public static synchronized void startPrometheusFileDump(Path file, int intervalSeconds) {
+        if (intervalSeconds < 1) {
+            throw new IllegalArgumentException("Interval must be at least one second: " + intervalSeconds);
+        }
+        if (dumper != null) {
+            dumper.shutdownNow();
+        }
+        dumper = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable task) {
+                Thread thread = new Thread(task, "metrics-dump");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        dumper.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                dumpTo(file);
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    private static void dumpTo(Path file) {
+        Path absolute = file.toAbsolutePath();
+        Path temporary = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        try {
+            try (Writer out = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                writePrometheus(out);
+            }
+            Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Error writing metrics to " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static void writeFamily(Writer out, String name, String type, String help,
+                                    List<OperationMetrics> operations, String[] values) throws IOException {
+        out.write("# HELP " + name + " " + help + "\n");
+        out.write("# TYPE " + name + " " + type + "\n");
+        for (int i = 0; i < operations.size(); i++) {
+            out.write(name + "{" + labels(operations.get(i)) + "} " + values[i] + "\n");
+        }
+    }
+
+    private static String labels(OperationMetrics metrics) {
+        return "component=\"" + metrics.getComponent() + "\",operation=\"" + metrics.getOperation() + "\"";
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+
+    private static String setting(String key) {
+        String property = System.getProperty("resolveit.metrics." + key);
+        if (property != null) {
+            return property;
+        }
+        return System.getenv("RESOLVEIT_METRICS_" + key.toUpperCase(Locale.ROOT));
+    }
+
+    private static void register(Object bean, String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(bean, objectName);
+            }
+        } catch (JMException e) {
+            System.err.println("Failed to register MBean " + name + ": " + e.getMessage());
+        }
+    }
+
+    private static class Registry implements DaoMetricsMXBean {
+        @Override
+        public String getPrometheusText() {
+            return prometheusText();
+        }
+
+        @Override
+        public void resetAll() {
+            DaoMetrics.resetAll();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.resolveit.metrics;
+
+/**
+ * JMX entry point for all instrumented operations
+ */
+public interface DaoMetricsMXBean {
+
+    /**
+     * All operations in the Prometheus text exposition format
+     */
+    String getPrometheusText();
+
+    void resetAll();
+}
@@ -0,0 +1,149 @@
+package com.resolveit.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histogram of one instrumented operation.
+ * Callers take System.nanoTime() on entry and report success() or failure() on exit;
+ * recording is lock-free so it can stay on the hot path.
+ */
+public class OperationMetrics implements OperationMetricsMXBean {
+    private final String component;
+    private final String operation;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    OperationMetrics(String component, String operation) {
+        this.component = component;
+        this.operation = operation;
+    }
+
+    /**
+     * Record a completed call that returned or wrote the given number of rows
+     */
+    public void success(long startNanos, long rowCount) {
+        record(System.nanoTime() - startNanos);
+        rows.add(rowCount);
+    }
+
+    /**
+     * Record a call that failed
+     */
+    public void failure(long startNanos) {
+        record(System.nanoTime() - startNanos);
+        errors.increment();
+    }
+
+    private void record(long nanos) {
+        calls.increment();
+        totalNanos.add(nanos);
+        latencies.record(nanos);
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    @Override
+    public String getComponent() {
+        return component;
+    }
+
+    @Override
+    public String getOperation() {
+        return operation;
+    }
+
+    @Override
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getRows() {
+        return rows.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        long count = calls.sum();
+        return count == 0 ? 0.0 : totalNanos.sum() / (double) count / 1_000_000.0;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return percentileNanos(50.0) / 1_000_000.0;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return percentileNanos(99.0) / 1_000_000.0;
+    }
+
+    @Override
+    public double getP999Millis() {
+        return percentileNanos(99.9) / 1_000_000.0;
+    }
+
+    /**
+     * Latency at the given percentile (0-100), accurate to 12.5%; 0 before the first call
+     */
+    public long percentileNanos(double percentile) {
+        return LatencyHistogram.percentile(latencies.snapshot(), percentile);
+    }
+
+    /**
+     * Latencies at several percentiles taken from one snapshot of the histogram
+     */
+    public long[] percentilesNanos(double... percentiles) {
+        long[] snapshot = latencies.snapshot();
+        long[] values = new long[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            values[i] = LatencyHistogram.percentile(snapshot, percentiles[i]);
+        }
+        return values;
+    }
+
+    @Override
+    public void reset() {
+        calls.reset();
+        errors.reset();
+        rows.reset();
+        totalNanos.reset();
+        maxNanos.set(0);
+        latencies.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "OperationMetrics{" +
+                "operation='" + component + "." + operation + '\'' +
+                ", calls=" + getCalls() +
+                ", errors=" + getErrors() +
+                ", rows=" + getRows() +
+                ", meanMillis=" + String.format("%.3f", getMeanMillis()) +
+                ", p99Millis=" + String.format("%.3f", getP99Millis()) +
+                ", maxMillis=" + String.format("%.3f", getMaxMillis()) +
+                '}';
+    }
+}
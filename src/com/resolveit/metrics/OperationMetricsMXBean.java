@@ -0,0 +1,32 @@
+package com.resolveit.metrics;
+
+/**
+ * JMX view of one instrumented operation; latencies are in milliseconds
+ */
+public interface OperationMetricsMXBean {
+
+    String getComponent();
+
+    String getOperation();
+
+    long getCalls();
+
+    long getErrors();
+
+    /**
+     * Rows returned by queries, or rows written by updates
+     */
+    long getRows();
+
+    double getMeanMillis();
+
+    double getMaxMillis();
+
+    double getP50Millis();
+
+    double getP99Millis();
+
+    double getP999Millis();
+
+    void reset();
+}
@@ -0,0 +1,59 @@
+package com.resolveit.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Canonical instances of complaint category names.
+ * Complaint.setCategory() interns every category through here, so all complaints of one
+ * category share a single String and categories can be compared by identity. The dictionary
+ * stops growing at MAX_CATEGORIES; further names are then kept as given.
+ */
+public final class CategoryDictionary {
+    /**
+     * Categories offered when submitting a complaint
+     */
+    public static final List<String> STANDARD = Collections.unmodifiableList(
+            Arrays.asList("General", "Technical", "Payment", "Service"));
+
+    private static final int MAX_CATEGORIES = 10000;
+
+    private static final ConcurrentMap<String, String> CATEGORIES = new ConcurrentHashMap<>();
+
+    static {
+        for (String category : STANDARD) {
+            CATEGORIES.put(category, category);
+        }
+    }
+
+    private CategoryDictionary() {
+    }
+
+    /**
+     * The canonical instance of the category name (null stays null)
+     */
+    public static String intern(String category) {
+        if (category == null) {
+            return null;
+        }
+        String canonical = CATEGORIES.get(category);
+        if (canonical != null) {
+            return canonical;
+        }
+        if (CATEGORIES.size() >= MAX_CATEGORIES) {
+            return category;
+        }
+        canonical = CATEGORIES.putIfAbsent(category, category);
+        return canonical != null ? canonical : category;
+    }
+
+    /**
+     * Number of distinct categories interned so far
+     */
+    public static int size() {
+        return CATEGORIES.size();
+    }
+}
@@ -13,10 +13,11 @@ public class Complaint implements Serializable {
     private String category;
     private String title;
     private String description;
-    private String priority;  // LOW, MEDIUM, HIGH, URGENT
-    private String status;    // OPEN, IN_PROGRESS, RESOLVED, CLOSED
+    private ComplaintPriority priority;
+    private ComplaintStatus status;
     private Integer assignedTo;
     private String resolutionNote;
+    private int version;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -24,13 +25,13 @@ public class Complaint implements Serializable {
     public Complaint() {
     }
 
-    public Complaint(int userId, String category, String title, String description, String priority) {
+    public Complaint(int userId, String category, String title, String description, ComplaintPriority priority) {
         this.userId = userId;
-        this.category = category;
+        this.category = CategoryDictionary.intern(category);
         this.title = title;
         this.description = description;
         this.priority = priority;
-        this.status = "OPEN";
+        this.status = ComplaintStatus.OPEN;
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
     }
@@ -57,7 +58,7 @@ public class Complaint implements Serializable {
     }
 
     public void setCategory(String category) {
-        this.category = category;
+        this.category = CategoryDictionary.intern(category);
     }
 
     public String getTitle() {
@@ -76,19 +77,19 @@ public class Complaint implements Serializable {
         this.description = description;
     }
 
-    public String getPriority() {
+    public ComplaintPriority getPriority() {
         return priority;
     }
 
-    public void setPriority(String priority) {
+    public void setPriority(ComplaintPriority priority) {
         this.priority = priority;
     }
 
-    public String getStatus() {
+    public ComplaintStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(ComplaintStatus status) {
         this.status = status;
     }
 
@@ -108,6 +109,17 @@ public class Complaint implements Serializable {
         this.resolutionNote = resolutionNote;
     }
 
+    /**
+     * Row version, incremented by every update; pass it back to detect concurrent changes
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -131,8 +143,9 @@ public class Complaint implements Serializable {
                 ", userId=" + userId +
                 ", category='" + category + '\'' +
                 ", title='" + title + '\'' +
-                ", priority='" + priority + '\'' +
-                ", status='" + status + '\'' +
+                ", priority=" + priority +
+                ", status=" + status +
+                ", version=" + version +
                 ", createdAt=" + createdAt +
                 '}';
     }
@@ -0,0 +1,92 @@
+package com.resolveit.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Complaint Group Model Class
+ * Complaints sharing one status, category and priority: how many there are, the oldest
+ * creation time and the sum of their creation times (seconds since 1970-01-01T00:00, local time)
+ */
+public class ComplaintGroup implements Serializable {
+    private String status;
+    private String category;
+    private String priority;
+    private long count;
+    private LocalDateTime oldestCreatedAt;
+    private long createdSecondsSum;
+
+    // Constructor
+    public ComplaintGroup() {
+    }
+
+    public ComplaintGroup(String status, String category, String priority, long count,
+                          LocalDateTime oldestCreatedAt, long createdSecondsSum) {
+        this.status = status;
+        this.category = category;
+        this.priority = priority;
+        this.count = count;
+        this.oldestCreatedAt = oldestCreatedAt;
+        this.createdSecondsSum = createdSecondsSum;
+    }
+
+    // Getters and Setters
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public void setPriority(String priority) {
+        this.priority = priority;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public LocalDateTime getOldestCreatedAt() {
+        return oldestCreatedAt;
+    }
+
+    public void setOldestCreatedAt(LocalDateTime oldestCreatedAt) {
+        this.oldestCreatedAt = oldestCreatedAt;
+    }
+
+    public long getCreatedSecondsSum() {
+        return createdSecondsSum;
+    }
+
+    public void setCreatedSecondsSum(long createdSecondsSum) {
+        this.createdSecondsSum = createdSecondsSum;
+    }
+
+    @Override
+    public String toString() {
+        return "ComplaintGroup{" +
+                "status='" + status + '\'' +
+                ", category='" + category + '\'' +
+                ", priority='" + priority + '\'' +
+                ", count=" + count +
+                ", oldestCreatedAt=" + oldestCreatedAt +
+                '}';
+    }
+}
@@ -0,0 +1,26 @@
+package com.resolveit.model;
+
+/**
+ * Priority of a complaint, matching the priority ENUM of the complaints table.
+ * Declared from lowest to highest.
+ */
+public enum ComplaintPriority {
+    LOW,
+    MEDIUM,
+    HIGH,
+    URGENT;
+
+    /**
+     * The priority with the given name, or null if the name is null or not a priority
+     */
+    public static ComplaintPriority fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.resolveit.model;
+
+/**
+ * Workflow status of a complaint, matching the status ENUM of the complaints table.
+ * Declared in workflow order.
+ */
+public enum ComplaintStatus {
+    OPEN,
+    IN_PROGRESS,
+    RESOLVED,
+    CLOSED;
+
+    /**
+     * True for complaints that still need work (OPEN or IN_PROGRESS)
+     */
+    public boolean isOpen() {
+        return this == OPEN || this == IN_PROGRESS;
+    }
+
+    /**
+     * The status with the given name, or null if the name is null or not a status
+     */
+    public static ComplaintStatus fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -10,6 +10,7 @@ import java.time.LocalDateTime;
 public class Feedback implements Serializable {
     private int feedbackId;
     private int complaintId;
+    private int userId;
     private int rating;  // 1-5 scale
     private String comments;
     private LocalDateTime createdAt;
@@ -42,6 +43,14 @@ public class Feedback implements Serializable {
         this.complaintId = complaintId;
     }
 
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
     public int getRating() {
         return rating;
     }
@@ -80,6 +89,7 @@ public class Feedback implements Serializable {
         return "Feedback{" +
                 "feedbackId=" + feedbackId +
                 ", complaintId=" + complaintId +
+                ", userId=" + userId +
                 ", rating=" + rating +
                 ", comments='" + comments + '\'' +
                 ", createdAt=" + createdAt +
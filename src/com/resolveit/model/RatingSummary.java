@@ -0,0 +1,118 @@
+package com.resolveit.model;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Rating Summary Model Class
+ * Aggregated feedback ratings for a single complaint: count, sum, min, max and a 1-5 histogram
+ */
+public class RatingSummary implements Serializable {
+    private int complaintId;
+    private int ratingCount;
+    private int ratingSum;
+    private int minRating;
+    private int maxRating;
+    private int[] histogram = new int[5];  // histogram[0] counts 1-star ratings
+
+    // Constructor
+    public RatingSummary() {
+    }
+
+    public RatingSummary(int complaintId, int[] histogram) {
+        this.complaintId = complaintId;
+        setHistogram(histogram);
+    }
+
+    // Getters and Setters
+    public int getComplaintId() {
+        return complaintId;
+    }
+
+    public void setComplaintId(int complaintId) {
+        this.complaintId = complaintId;
+    }
+
+    public int getRatingCount() {
+        return ratingCount;
+    }
+
+    public void setRatingCount(int ratingCount) {
+        this.ratingCount = ratingCount;
+    }
+
+    public int getRatingSum() {
+        return ratingSum;
+    }
+
+    public void setRatingSum(int ratingSum) {
+        this.ratingSum = ratingSum;
+    }
+
+    public int getMinRating() {
+        return minRating;
+    }
+
+    public void setMinRating(int minRating) {
+        this.minRating = minRating;
+    }
+
+    public int getMaxRating() {
+        return maxRating;
+    }
+
+    public void setMaxRating(int maxRating) {
+        this.maxRating = maxRating;
+    }
+
+    public int[] getHistogram() {
+        return histogram.clone();
+    }
+
+    /**
+     * Replace the histogram and derive count, sum, min and max from it
+     */
+    public void setHistogram(int[] histogram) {
+        if (histogram.length != 5) {
+            throw new IllegalArgumentException("Histogram must have one bucket per rating 1-5");
+        }
+        this.histogram = histogram.clone();
+        ratingCount = 0;
+        ratingSum = 0;
+        minRating = 0;
+        maxRating = 0;
+        for (int rating = 1; rating <= 5; rating++) {
+            int count = histogram[rating - 1];
+            if (count > 0) {
+                ratingCount += count;
+                ratingSum += count * rating;
+                minRating = minRating == 0 ? rating : minRating;
+                maxRating = rating;
+            }
+        }
+    }
+
+    // Helper Methods
+    public int getCountForRating(int rating) {
+        if (rating < 1 || rating > 5) {
+            throw new IllegalArgumentException("Rating must be between 1 and 5");
+        }
+        return histogram[rating - 1];
+    }
+
+    public double getAverageRating() {
+        return ratingCount == 0 ? 0.0 : (double) ratingSum / ratingCount;
+    }
+
+    @Override
+    public String toString() {
+        return "RatingSummary{" +
+                "complaintId=" + complaintId +
+                ", ratingCount=" + ratingCount +
+                ", averageRating=" + getAverageRating() +
+                ", minRating=" + minRating +
+                ", maxRating=" + maxRating +
+                ", histogram=" + Arrays.toString(histogram) +
+                '}';
+    }
+}
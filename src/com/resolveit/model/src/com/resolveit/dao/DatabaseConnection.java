@@ -1,33 +1,99 @@
 package com.resolveit.dao;
 
+import com.resolveit.metrics.DaoMetrics;
+import com.resolveit.metrics.OperationMetrics;
+import java.io.IOException;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import javax.sql.DataSource;
 
 /**
  * Database Connection Manager
- * Manages MySQL JDBC connections for the ResolveIt application
+ * Hands out JDBC connections for the ResolveIt DAOs from a DataSource.
+ * By default the DataSource is a ConnectionPool built from DatabaseConfig.load() on first use
+ * (MySQL, or an embedded H2 database created from the schema script); closing a connection
+ * returns it to the pool. Another DataSource can be supplied with setDataSource().
+ * When the configuration enables the slow query log, connections are wrapped so that
+ * statements over the threshold are logged. Connections taken by a ParallelQueries task are
+ * wrapped so that its deadline and cancellation reach their statements.
  */
 public class DatabaseConnection {
-    private static final String DB_DRIVER = "com.mysql.cj.jdbc.Driver";
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/resolveit_db";
-    private static final String DB_USER = "root";
-    private static final String DB_PASSWORD = "";
+    private static final OperationMetrics ACQUIRE_METRICS = DaoMetrics.operation("DatabaseConnection", "getConnection");
     
-    static {
+    private static volatile DataSource dataSource;
+    // The pool created by configure(), or null when the DataSource was supplied externally
+    private static ConnectionPool pool;
+    private static volatile SlowQueryLog slowQueryLog;
+    private static boolean shutdownHookInstalled;
+    
+    /**
+     * Connect using the given configuration, replacing the current DataSource
+     */
+    public static synchronized void configure(DatabaseConfig config) {
         try {
-            Class.forName(DB_DRIVER);
+            Class.forName(config.getDriver());
         } catch (ClassNotFoundException e) {
-            System.err.println("MySQL JDBC Driver not found!");
+            System.err.println("JDBC Driver not found: " + config.getDriver());
             e.printStackTrace();
         }
+        
+        ConnectionPool newPool = new ConnectionPool(config.getUrl(), config.getUser(), config.getPassword(),
+                config.getPoolConfig());
+        if (config.isEmbedded()) {
+            try {
+                if (SchemaInitializer.initializeIfEmpty(newPool, config.getSchemaPath())) {
+                    System.out.println("Created embedded database from " + config.getSchemaPath());
+                }
+            } catch (SQLException | IOException e) {
+                System.err.println("Failed to initialise embedded database: " + e.getMessage());
+            }
+        }
+        replace(newPool, newPool);
+        
+        if (slowQueryLog != null) {
+            slowQueryLog.close();
+        }
+        SlowQueryConfig slowQueryConfig = config.getSlowQueryConfig();
+        slowQueryLog = slowQueryConfig.isEnabled() ? new SlowQueryLog(slowQueryConfig) : null;
+    }
+    
+    /**
+     * Use an externally managed DataSource (its lifecycle stays with the caller)
+     */
+    public static synchronized void setDataSource(DataSource newDataSource) {
+        replace(newDataSource, null);
+    }
+    
+    /**
+     * The DataSource in use, configured from DatabaseConfig.load() if none was set yet
+     */
+    public static DataSource getDataSource() {
+        DataSource current = dataSource;
+        if (current == null) {
+            synchronized (DatabaseConnection.class) {
+                if (dataSource == null) {
+                    configure(DatabaseConfig.load());
+                }
+                current = dataSource;
+            }
+        }
+        return current;
     }
     
     public static Connection getConnection() {
         Connection connection = null;
+        long start = System.nanoTime();
         try {
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            connection = getDataSource().getConnection();
+            ACQUIRE_METRICS.success(start, 0);
+            // Statements of a ParallelQueries task get its deadline and can be cancelled with it
+            connection = QueryScope.wrapForCurrentThread(connection);
+            SlowQueryLog log = slowQueryLog;
+            if (log != null) {
+                connection = log.wrap(connection);
+            }
         } catch (SQLException e) {
+            ACQUIRE_METRICS.failure(start);
             System.err.println("Failed to establish database connection!");
             e.printStackTrace();
         }
@@ -44,4 +110,47 @@ public class DatabaseConnection {
             }
         }
     }
+    
+    /**
+     * Current pool usage: active, idle, waiters and borrow latency.
+     * Returns null when an external DataSource is in use.
+     */
+    public static synchronized PoolStatistics getPoolStatistics() {
+        return pool == null ? null : pool.getStatistics();
+    }
+    
+    /**
+     * Flush the write-behind queue, then close all pooled connections and the slow query log
+     * (also run automatically on JVM exit)
+     */
+    public static void shutdownPool() {
+        // Outside the lock: the queue's writer still takes connections while it drains
+        WriteBehindQueue.shutdown();
+        synchronized (DatabaseConnection.class) {
+            if (slowQueryLog != null) {
+                slowQueryLog.close();
+                slowQueryLog = null;
+            }
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+    
+    private static void replace(DataSource newDataSource, ConnectionPool newPool) {
+        if (pool != null) {
+            pool.shutdown();
+        }
+        pool = newPool;
+        dataSource = newDataSource;
+        if (!shutdownHookInstalled) {
+            shutdownHookInstalled = true;
+            Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    shutdownPool();
+                }
+            }, "resolveit-pool-shutdown"));
+        }
+    }
 }
@@ -0,0 +1,445 @@
+package com.resolveit.search;
+
+import com.resolveit.model.Complaint;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over complaint title, description and category.
+ * Terms are kept sorted so a prefix maps to a contiguous range of the dictionary,
+ * which is what makes search-as-you-type cheap. Each posting stores the complaint id
+ * and a field-weighted term frequency; hits are ranked by a saturated tf times idf.
+ * Every query term must match (AND); the last term also matches as a prefix.
+ *
+ * Postings refer to dense internal document numbers rather than complaint ids, so a
+ * query accumulates scores in plain arrays (reused per thread) instead of hash maps.
+ */
+public class ComplaintIndex {
+    private static final int TITLE_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    // Saturation constant: repeating a term has diminishing effect on the score
+    private static final float TF_SATURATION = 2.0f;
+
+    /**
+     * Most frequent dictionary terms a prefix expands to. Each is a pass over its postings;
+     * 32 keeps a two-letter prefix under 50 ms at a million complaints (see SearchBenchmark).
+     */
+    private static final int MAX_PREFIX_TERMS = 32;
+
+    private static final ThreadLocal<ScoreBuffers> BUFFERS = new ThreadLocal<ScoreBuffers>() {
+        @Override
+        protected ScoreBuffers initialValue() {
+            return new ScoreBuffers();
+        }
+    };
+
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Integer, Document> documents = new HashMap<>();
+    // Complaint id of each document number, -1 for free slots
+    private int[] complaintIds = new int[1024];
+    private int documentSlots;
+    private int[] freeSlots = new int[16];
+    private int freeSlotCount;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Index a complaint, replacing any previously indexed version of it
+     */
+    public void add(Complaint complaint) {
+        Map<String, Integer> weights = new TreeMap<>();
+        addTerms(weights, complaint.getTitle(), TITLE_WEIGHT);
+        addTerms(weights, complaint.getCategory(), CATEGORY_WEIGHT);
+        addTerms(weights, complaint.getDescription(), DESCRIPTION_WEIGHT);
+        // Sorted by term, so an unchanged text gives equal arrays
+        String[] documentTerms = weights.keySet().toArray(new String[0]);
+        int[] documentWeights = new int[documentTerms.length];
+        for (int i = 0; i < documentTerms.length; i++) {
+            documentWeights[i] = weights.get(documentTerms[i]);
+        }
+
+        lock.writeLock().lock();
+        try {
+            Document document = documents.get(complaint.getComplaintId());
+            if (document != null) {
+                if (Arrays.equals(document.terms, documentTerms) && Arrays.equals(document.weights, documentWeights)) {
+                    return;  // e.g. only the status changed
+                }
+                removePostings(document);
+            } else {
+                document = new Document(allocateSlot(complaint.getComplaintId()));
+                documents.put(complaint.getComplaintId(), document);
+            }
+            for (int i = 0; i < documentTerms.length; i++) {
+                Postings postings = terms.get(documentTerms[i]);
+                if (postings == null) {
+                    postings = new Postings(documentTerms[i]);
+                    terms.put(postings.term, postings);
+                }
+                postings.add(document.slot, documentWeights[i]);
+                // The dictionary's copy, so documents share one String per term
+                documentTerms[i] = postings.term;
+            }
+            document.terms = documentTerms;
+            document.weights = documentWeights;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addAll(Collection<Complaint> complaints) {
+        for (Complaint complaint : complaints) {
+            add(complaint);
+        }
+    }
+
+    public void remove(int complaintId) {
+        lock.writeLock().lock();
+        try {
+            Document document = documents.remove(complaintId);
+            if (document != null) {
+                removePostings(document);
+                complaintIds[document.slot] = -1;
+                if (freeSlotCount == freeSlots.length) {
+                    freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+                }
+                freeSlots[freeSlotCount++] = document.slot;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Number of indexed complaints
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of distinct terms in the dictionary
+     */
+    public int getTermCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Best matching complaints for the query, highest score first (newest first on ties)
+     */
+    public List<SearchHit> search(String query, int limit) {
+        List<String> tokens = queryTerms(query);
+        if (tokens.isEmpty() || limit < 1) {
+            return Collections.emptyList();
+        }
+        boolean prefixLast = Character.isLetterOrDigit(query.charAt(query.length() - 1));
+
+        lock.readLock().lock();
+        try {
+            List<List<Postings>> groups = new ArrayList<>(tokens.size());
+            for (int i = 0; i < tokens.size(); i++) {
+                boolean prefix = prefixLast && i == tokens.size() - 1;
+                List<Postings> group = prefix ? expandPrefix(tokens.get(i)) : exactTerm(tokens.get(i));
+                if (group.isEmpty()) {
+                    return Collections.emptyList();
+                }
+                groups.add(group);
+            }
+            // Start from the rarest term so the candidate set is small from the outset
+            groups.sort(Comparator.comparingLong(ComplaintIndex::postingCount));
+
+            ScoreBuffers buffers = BUFFERS.get();
+            buffers.prepare(documentSlots, groups.size());
+            int matches = 0;
+            for (int g = 0; g < groups.size(); g++) {
+                matches = scoreGroup(groups.get(g), g, buffers);
+                if (matches == 0) {
+                    return Collections.emptyList();
+                }
+            }
+            return topHits(buffers, matches, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Score one query term (a single term, or the expansions of a prefix) for the documents that
+     * matched every earlier term; a document matching several expansions counts its best one.
+     * Returns the number of documents still matching, listed in buffers.matched.
+     */
+    private int scoreGroup(List<Postings> group, int groupIndex, ScoreBuffers buffers) {
+        int previousStamp = buffers.stamp(groupIndex - 1);
+        int stamp = buffers.stamp(groupIndex);
+        int[] stamps = buffers.stamps;
+        // The first term's scores go straight into scores; later ones are summed in once the term is done
+        float[] groupScores = groupIndex == 0 ? buffers.scores : buffers.groupScores;
+        float[] weightScores = buffers.weightScores;
+        int matches = 0;
+        int liveDocuments = documents.size();
+
+        for (Postings postings : group) {
+            float idf = (float) Math.log(1.0 + (double) liveDocuments / postings.size);
+            for (int w = 0; w < weightScores.length; w++) {
+                weightScores[w] = termScore(idf, w);
+            }
+            for (int i = 0; i < postings.size; i++) {
+                int doc = postings.docs[i];
+                int weight = postings.weights[i];
+                float score = weight < weightScores.length ? weightScores[weight] : termScore(idf, weight);
+                if (stamps[doc] == stamp) {
+                    if (score > groupScores[doc]) {
+                        groupScores[doc] = score;
+                    }
+                } else if (groupIndex == 0 || stamps[doc] == previousStamp) {
+                    stamps[doc] = stamp;
+                    groupScores[doc] = score;
+                    buffers.matched = append(buffers.matched, matches++, doc);
+                }
+            }
+        }
+        if (groupIndex > 0) {
+            float[] scores = buffers.scores;
+            for (int i = 0; i < matches; i++) {
+                int doc = buffers.matched[i];
+                scores[doc] += groupScores[doc];
+            }
+        }
+        return matches;
+    }
+
+    private static float termScore(float idf, int weight) {
+        return idf * weight * (TF_SATURATION + 1) / (weight + TF_SATURATION);
+    }
+
+    private List<SearchHit> topHits(ScoreBuffers buffers, int matches, int limit) {
+        Comparator<SearchHit> ranking = new Comparator<SearchHit>() {
+            @Override
+            public int compare(SearchHit a, SearchHit b) {
+                int byScore = Float.compare(a.getScore(), b.getScore());
+                return byScore != 0 ? byScore : Integer.compare(a.getComplaintId(), b.getComplaintId());
+            }
+        };
+        // Min-heap of the best hits seen so far. Matches are listed in document number order, which mostly
+        // follows complaint ids; walking them newest first means that among the many equal scores of a
+        // common term, few displace a hit already held, and the heap is rarely touched.
+        PriorityQueue<SearchHit> best = new PriorityQueue<>(limit + 1, ranking);
+        float lowest = Float.NEGATIVE_INFINITY;
+        for (int i = matches - 1; i >= 0; i--) {
+            int doc = buffers.matched[i];
+            float score = buffers.scores[doc];
+            if (score < lowest) {
+                continue;
+            }
+            if (best.size() < limit || score > lowest
+                    || complaintIds[doc] > best.peek().getComplaintId()) {
+                best.add(new SearchHit(complaintIds[doc], score));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+                if (best.size() == limit) {
+                    lowest = best.peek().getScore();
+                }
+            }
+        }
+        List<SearchHit> hits = new ArrayList<>(best);
+        hits.sort(Collections.reverseOrder(ranking));
+        return hits;
+    }
+
+    private List<Postings> exactTerm(String term) {
+        Postings postings = terms.get(term);
+        return postings == null ? Collections.<Postings>emptyList() : Collections.singletonList(postings);
+    }
+
+    private List<Postings> expandPrefix(String prefix) {
+        List<Postings> expansions = new ArrayList<>(
+                terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values());
+        if (expansions.size() > MAX_PREFIX_TERMS) {
+            expansions.sort(new Comparator<Postings>() {
+                @Override
+                public int compare(Postings a, Postings b) {
+                    return Integer.compare(b.size, a.size);
+                }
+            });
+            expansions = new ArrayList<>(expansions.subList(0, MAX_PREFIX_TERMS));
+            // Always keep the exact word if it was typed in full
+            Postings exact = terms.get(prefix);
+            if (exact != null && !expansions.contains(exact)) {
+                expansions.set(MAX_PREFIX_TERMS - 1, exact);
+            }
+        }
+        return expansions;
+    }
+
+    private static long postingCount(List<Postings> group) {
+        long count = 0;
+        for (Postings postings : group) {
+            count += postings.size;
+        }
+        return count;
+    }
+
+    /**
+     * Distinct query terms; stop words are skipped except for a last term still being typed
+     */
+    private static List<String> queryTerms(String query) {
+        List<String> tokens = Tokenizer.tokenize(query);
+        boolean prefixLast = query != null && !query.isEmpty()
+                && Character.isLetterOrDigit(query.charAt(query.length() - 1));
+        LinkedHashSet<String> distinct = new LinkedHashSet<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            if (!Tokenizer.isStopWord(token) || (prefixLast && i == tokens.size() - 1)) {
+                distinct.remove(token);
+                distinct.add(token);
+            }
+        }
+        return new ArrayList<>(distinct);
+    }
+
+    private static void addTerms(Map<String, Integer> weights, String text, int fieldWeight) {
+        for (String token : Tokenizer.tokenize(text)) {
+            if (!Tokenizer.isStopWord(token)) {
+                weights.merge(token, fieldWeight, Integer::sum);
+            }
+        }
+    }
+
+    private int allocateSlot(int complaintId) {
+        int slot;
+        if (freeSlotCount > 0) {
+            slot = freeSlots[--freeSlotCount];
+        } else {
+            if (documentSlots == complaintIds.length) {
+                complaintIds = Arrays.copyOf(complaintIds, documentSlots * 2);
+            }
+            slot = documentSlots++;
+        }
+        complaintIds[slot] = complaintId;
+        return slot;
+    }
+
+    private void removePostings(Document document) {
+        for (String term : document.terms) {
+            Postings postings = terms.get(term);
+            if (postings != null && postings.remove(document.slot) && postings.size == 0) {
+                terms.remove(term);
+            }
+        }
+    }
+
+    private static int[] append(int[] array, int index, int value) {
+        if (index == array.length) {
+            array = Arrays.copyOf(array, Math.max(16, index * 2));
+        }
+        array[index] = value;
+        return array;
+    }
+
+    /**
+     * Indexed state of one complaint: its terms, sorted, and their weights
+     */
+    private static class Document {
+        private final int slot;
+        private String[] terms;
+        private int[] weights;
+
+        Document(int slot) {
+            this.slot = slot;
+        }
+    }
+
+    /**
+     * Postings list of one term: parallel arrays of document numbers and weights
+     */
+    private static class Postings {
+        private final String term;
+        private int[] docs = new int[4];
+        private int[] weights = new int[4];
+        private int size;
+
+        Postings(String term) {
+            this.term = term;
+        }
+
+        void add(int doc, int weight) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docs[size] = doc;
+            weights[size] = weight;
+            size++;
+        }
+
+        boolean remove(int doc) {
+            for (int i = size - 1; i >= 0; i--) {
+                if (docs[i] == doc) {
+                    System.arraycopy(docs, i + 1, docs, i, size - i - 1);
+                    System.arraycopy(weights, i + 1, weights, i, size - i - 1);
+                    size--;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Per-thread scratch arrays indexed by document number.
+     * A document matched query term g when stamps[doc] == stamp(g); stamps keep increasing
+     * from query to query, so the arrays never need clearing.
+     */
+    private static class ScoreBuffers {
+        private int[] stamps = new int[0];
+        private float[] scores = new float[0];
+        private float[] groupScores = new float[0];
+        private int[] matched = new int[16];
+        // Score of each small weight for the postings list being scanned
+        private final float[] weightScores = new float[16];
+        private int base;
+
+        void prepare(int documentSlots, int groups) {
+            if (stamps.length < documentSlots) {
+                int capacity = Math.max(documentSlots, stamps.length * 3 / 2);
+                stamps = Arrays.copyOf(stamps, capacity);
+                scores = new float[capacity];
+                groupScores = new float[capacity];
+            }
+            if (base > Integer.MAX_VALUE - groups - 2) {
+                Arrays.fill(stamps, 0);
+                base = 0;
+            }
+            // Leave a gap so no stamp of this query equals one left over from the last
+            base += groups + 1;
+        }
+
+        int stamp(int groupIndex) {
+            return base + groupIndex;
+        }
+    }
+}
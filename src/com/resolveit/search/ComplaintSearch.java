@@ -0,0 +1,141 @@
+package com.resolveit.search;
+
+import com.resolveit.dao.ComplaintCursor;
+import com.resolveit.dao.ComplaintDAO;
+import com.resolveit.model.Complaint;
+import java.util.List;
+
+/**
+ * Process-wide complaint search index.
+ * The index is rebuilt from the database in the background and kept current by
+ * ComplaintDAO, which reports every complaint it writes or reads as changed.
+ * While a rebuild is running, searches are answered from the previous index and
+ * changes are applied to both, so nothing is lost when the new index is swapped in.
+ */
+public class ComplaintSearch {
+    private static final int REBUILD_PAGE_SIZE = 5000;
+
+    private static volatile ComplaintIndex index = new ComplaintIndex();
+    private static volatile boolean ready;
+    private static ComplaintIndex building;
+    private static Thread rebuildThread;
+    private static boolean rebuildRequested;
+
+    /**
+     * Rebuild the index on a background thread unless a rebuild is already running
+     */
+    public static synchronized void startRebuild() {
+        if (rebuildThread != null) {
+            return;
+        }
+        rebuildThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                boolean again = true;
+                try {
+                    while (again) {
+                        rebuild();
+                        synchronized (ComplaintSearch.class) {
+                            again = rebuildRequested;
+                            rebuildRequested = false;
+                            if (!again) {
+                                rebuildThread = null;
+                            }
+                        }
+                    }
+                } finally {
+                    if (again) {
+                        synchronized (ComplaintSearch.class) {
+                            rebuildThread = null;
+                            rebuildRequested = false;
+                        }
+                    }
+                }
+            }
+        }, "resolveit-search-index");
+        rebuildThread.setDaemon(true);
+        rebuildThread.start();
+    }
+
+    /**
+     * Rebuild the index from the complaints table and swap it in; returns the number of complaints indexed
+     */
+    public static int rebuild() {
+        ComplaintIndex fresh = new ComplaintIndex();
+        synchronized (ComplaintSearch.class) {
+            building = fresh;
+        }
+        long start = System.nanoTime();
+        try {
+            ComplaintCursor cursor = null;
+            List<Complaint> page;
+            do {
+                page = ComplaintDAO.getComplaintsPage(cursor, REBUILD_PAGE_SIZE);
+                fresh.addAll(page);
+                if (!page.isEmpty()) {
+                    cursor = ComplaintCursor.after(page.get(page.size() - 1));
+                }
+            } while (page.size() == REBUILD_PAGE_SIZE);
+
+            synchronized (ComplaintSearch.class) {
+                index = fresh;
+                ready = true;
+            }
+        } finally {
+            synchronized (ComplaintSearch.class) {
+                if (building == fresh) {
+                    building = null;
+                }
+            }
+        }
+        System.out.println("Search index built: " + fresh.size() + " complaints, " + fresh.getTermCount()
+                + " terms in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return fresh.size();
+    }
+
+    /**
+     * Complaints were written or changed without being reported to complaintsChanged (a bulk import,
+     * a truncated change delta). Rebuilds the index if this process has one built or building; a
+     * running rebuild is followed by another, as it may already have paged past those rows.
+     */
+    public static synchronized void complaintsChangedUnreported() {
+        if (!ready && building == null) {
+            return;
+        }
+        if (rebuildThread != null) {
+            rebuildRequested = true;
+        } else {
+            startRebuild();
+        }
+    }
+
+    /**
+     * True once the first rebuild has completed
+     */
+    public static boolean isReady() {
+        return ready;
+    }
+
+    public static List<SearchHit> search(String query, int limit) {
+        return index.search(query, limit);
+    }
+
+    /**
+     * Index new or changed complaints
+     */
+    public static void complaintsChanged(List<Complaint> complaints) {
+        if (complaints.isEmpty()) {
+            return;
+        }
+        ComplaintIndex current;
+        ComplaintIndex pending;
+        synchronized (ComplaintSearch.class) {
+            current = index;
+            pending = building;
+        }
+        current.addAll(complaints);
+        if (pending != null) {
+            pending.addAll(complaints);
+        }
+    }
+}
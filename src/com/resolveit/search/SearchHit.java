@@ -0,0 +1,30 @@
+package com.resolveit.search;
+
+/**
+ * A complaint matching a search and its relevance score (higher is better)
+ */
+public class SearchHit {
+    private final int complaintId;
+    private final float score;
+
+    public SearchHit(int complaintId, float score) {
+        this.complaintId = complaintId;
+        this.score = score;
+    }
+
+    public int getComplaintId() {
+        return complaintId;
+    }
+
+    public float getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchHit{" +
+                "complaintId=" + complaintId +
+                ", score=" + score +
+                '}';
+    }
+}
@@ -0,0 +1,17 @@
+package com.resolveit.server;
+
+/**
+ * Ends an API request with the given HTTP status and error message
+ */
+class ApiException extends Exception {
+    private final int status;
+
+    ApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    int getStatus() {
+        return status;
+    }
+}
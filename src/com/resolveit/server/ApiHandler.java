@@ -0,0 +1,293 @@
+package com.resolveit.server;
+
+import com.resolveit.dao.AuthenticationBusyException;
+import com.resolveit.model.Complaint;
+import com.resolveit.model.Feedback;
+import com.resolveit.model.User;
+import com.resolveit.tools.JsonRecordReader;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Base of the API endpoints. Subclasses return a Response or throw ApiException; this class
+ * turns both into JSON with a fixed Content-Length, so connections stay open for the next request.
+ * Successful GET responses carry a weak ETag and are answered with 304 when the client already has
+ * them, and bodies of 1 KB or more are gzip-compressed for clients that accept it.
+ */
+abstract class ApiHandler implements HttpHandler {
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int GZIP_MIN_BYTES = 1024;
+    private static final String BEARER = "Bearer ";
+
+    protected final SessionStore sessions;
+
+    ApiHandler(SessionStore sessions) {
+        this.sessions = sessions;
+    }
+
+    /**
+     * Handle one request whose path starts with this handler's context
+     */
+    protected abstract Response serve(HttpExchange exchange) throws ApiException, IOException;
+
+    @Override
+    public final void handle(HttpExchange exchange) throws IOException {
+        try {
+            Response response;
+            try {
+                response = serve(exchange);
+            } catch (ApiException e) {
+                response = Response.error(e.getStatus(), e.getMessage());
+            } catch (AuthenticationBusyException e) {
+                response = Response.error(503, e.getMessage());
+            } catch (RuntimeException e) {
+                System.err.println("API request failed: " + exchange.getRequestMethod() + " "
+                        + exchange.getRequestURI().getPath() + ": " + e);
+                response = Response.error(500, "Internal server error");
+            }
+            send(exchange, response);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * The signed-in user of the request's bearer token
+     */
+    protected User requireUser(HttpExchange exchange) throws ApiException {
+        String token = bearerToken(exchange);
+        User user = token == null ? null : sessions.get(token);
+        if (user == null) {
+            throw new ApiException(401, "Sign in required");
+        }
+        return user;
+    }
+
+    protected static String bearerToken(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            return null;
+        }
+        String token = header.substring(BEARER.length()).trim();
+        return token.isEmpty() ? null : token;
+    }
+
+    protected static void requireMethod(HttpExchange exchange, String method) throws ApiException {
+        if (!method.equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Allow", method);
+            throw new ApiException(405, "Method not allowed");
+        }
+    }
+
+    /**
+     * The request body as a flat JSON object with lowercased keys
+     */
+    protected static Map<String, String> readJson(HttpExchange exchange) throws ApiException, IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        InputStream in = exchange.getRequestBody();
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            if (body.size() + n > MAX_BODY_BYTES) {
+                throw new ApiException(413, "Request body exceeds " + MAX_BODY_BYTES + " bytes");
+            }
+            body.write(buffer, 0, n);
+        }
+        Map<String, String> fields;
+        try {
+            fields = new JsonRecordReader(new StringReader(body.toString("UTF-8"))).next();
+        } catch (IOException e) {
+            throw new ApiException(400, "Malformed JSON: " + e.getMessage());
+        }
+        if (fields == null) {
+            throw new ApiException(400, "Request body must be a JSON object");
+        }
+        return fields;
+    }
+
+    protected static Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            parameters.put(decode(name), decode(value));
+        }
+        return parameters;
+    }
+
+    protected static void writeUser(JsonWriter json, User user) {
+        json.beginObject()
+                .name("userId").value(user.getUserId())
+                .name("name").value(user.getName())
+                .name("email").value(user.getEmail())
+                .name("role").value(user.getRole())
+                .endObject();
+    }
+
+    protected static void writeComplaint(JsonWriter json, Complaint complaint) {
+        json.beginObject()
+                .name("complaintId").value(complaint.getComplaintId())
+                .name("userId").value(complaint.getUserId())
+                .name("title").value(complaint.getTitle())
+                .name("description").value(complaint.getDescription())
+                .name("category").value(complaint.getCategory())
+                .name("priority").value(complaint.getPriority())
+                .name("status").value(complaint.getStatus())
+                .name("assignedTo").value(complaint.getAssignedTo())
+                .name("resolutionNote").value(complaint.getResolutionNote())
+                .name("version").value(complaint.getVersion())
+                .name("createdAt").value(complaint.getCreatedAt())
+                .name("updatedAt").value(complaint.getUpdatedAt())
+                .endObject();
+    }
+
+    protected static void writeFeedback(JsonWriter json, Feedback feedback) {
+        json.beginObject()
+                .name("feedbackId").value(feedback.getFeedbackId())
+                .name("complaintId").value(feedback.getComplaintId())
+                .name("userId").value(feedback.getUserId())
+                .name("rating").value(feedback.getRating())
+                .name("comments").value(feedback.getComments())
+                .name("createdAt").value(feedback.getCreatedAt())
+                .endObject();
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        Headers headers = exchange.getResponseHeaders();
+        if (response.body == null) {
+            exchange.sendResponseHeaders(response.status, -1);
+            return;
+        }
+        byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+        headers.set("Content-Type", "application/json; charset=utf-8");
+        // Responses depend on the caller's token, so shared caches must not keep them
+        headers.set("Cache-Control", "private, no-cache");
+        headers.set("Vary", "Authorization, Accept-Encoding");
+
+        if (response.status == 200 && "GET".equals(exchange.getRequestMethod())) {
+            String etag = etag(body);
+            headers.set("ETag", etag);
+            if (matchesETag(exchange.getRequestHeaders().getFirst("If-None-Match"), etag)) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+        }
+        if (body.length >= GZIP_MIN_BYTES && acceptsGzip(exchange.getRequestHeaders().getFirst("Accept-Encoding"))) {
+            body = gzip(body);
+            headers.set("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(response.status, body.length);
+        OutputStream out = exchange.getResponseBody();
+        out.write(body);
+        out.close();
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            StringBuilder tag = new StringBuilder("W/\"");
+            for (int i = 0; i < 12; i++) {
+                tag.append(String.format("%02x", digest[i]));
+            }
+            return tag.append('"').toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static boolean matchesETag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        // Weak comparison: W/ prefixes are ignored on both sides
+        String opaque = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+        GZIPOutputStream out = new GZIPOutputStream(compressed);
+        out.write(body);
+        out.close();
+        return compressed.toByteArray();
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, "UTF-8");
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            return value;
+        }
+    }
+
+    /**
+     * Status and JSON body of a response; a null body sends no content
+     */
+    static final class Response {
+        private final int status;
+        private final String body;
+
+        private Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        static Response json(int status, JsonWriter json) {
+            return new Response(status, json.toString());
+        }
+
+        static Response noContent() {
+            return new Response(204, null);
+        }
+
+        static Response error(int status, String message) {
+            return new Response(status, new JsonWriter().beginObject()
+                    .name("error").value(message)
+                    .endObject().toString());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.resolveit.server;
+
+import com.resolveit.dao.DatabaseConnection;
+import com.resolveit.util.VirtualThreads;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless HTTP/JSON API over the DAO layer, for clients other than the Swing dashboards.
+ * Clients sign in with POST /api/login and send the returned token as "Authorization: Bearer <token>";
+ * see AuthHandler and ComplaintsHandler for the endpoints.
+ *
+ * Requests run on virtual threads when the JVM has them (Java 21+), otherwise on a fixed pool.
+ * Settings (system property "resolveit.server.<key>" or environment variable RESOLVEIT_SERVER_<KEY>):
+ *  - port: listening port, default 8080
+ *  - threads: size of the platform thread pool when virtual threads are unavailable, default 64
+ *  - sessionTtlMinutes: idle time after which a token expires, default 480
+ *
+ * Usage: java com.resolveit.server.ApiServer [--port N]
+ */
+public class ApiServer {
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+
+    public ApiServer(int port) throws IOException {
+        SessionStore sessions = new SessionStore(TimeUnit.MINUTES.toMillis(Math.max(1, intSetting("sessionTtlMinutes", 480))));
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        ExecutorService virtual = VirtualThreads.newPerTaskExecutor();
+        virtualThreads = virtual != null;
+        executor = virtualThreads ? virtual : createPlatformExecutor(Math.max(1, intSetting("threads", 64)));
+        server.setExecutor(executor);
+        AuthHandler auth = new AuthHandler(sessions);
+        server.createContext("/api/login", auth);
+        server.createContext("/api/logout", auth);
+        server.createContext("/api/me", auth);
+        server.createContext("/api/complaints", new ComplaintsHandler(sessions));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stop accepting connections, give running requests up to the delay to finish, then stop
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    /**
+     * The port actually bound, useful when constructed with port 0
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * True if requests run on virtual threads
+     */
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public static void main(String[] args) {
+        int port = intSetting("port", 8080);
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if ("--port".equals(args[i]) && i + 1 < args.length) {
+                    port = Integer.parseInt(args[++i]);
+                } else {
+                    throw new IllegalArgumentException("Unknown argument: " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Usage: ApiServer [--port N]");
+            System.exit(2);
+        }
+
+        final ApiServer apiServer;
+        try {
+            apiServer = new ApiServer(port);
+        } catch (IOException e) {
+            System.err.println("Could not listen on port " + port + ": " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+            @Override
+            public void run() {
+                apiServer.stop(2);
+                DatabaseConnection.shutdownPool();
+            }
+        }, "api-server-shutdown"));
+        apiServer.start();
+        System.out.println("ResolveIt API listening on http://localhost:" + apiServer.getPort() + "/api"
+                + (apiServer.isUsingVirtualThreads() ? " (virtual threads)" : ""));
+    }
+
+    private static ExecutorService createPlatformExecutor(int threads) {
+        return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                return new Thread(runnable, "api-request-" + count.incrementAndGet());
+            }
+        });
+    }
+
+    private static String setting(String key) {
+        return System.getProperty("resolveit.server." + key,
+                System.getenv("RESOLVEIT_SERVER_" + key.toUpperCase(Locale.ROOT)));
+    }
+
+    private static int intSetting(String key, int defaultValue) {
+        String value = setting(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid resolveit.server." + key + ": " + value);
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.resolveit.server;
+
+import com.resolveit.dao.UserDAO;
+import com.resolveit.model.User;
+import com.resolveit.util.ValidationUtil;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * POST /api/login, POST /api/logout and GET /api/me
+ */
+class AuthHandler extends ApiHandler {
+
+    AuthHandler(SessionStore sessions) {
+        super(sessions);
+    }
+
+    @Override
+    protected Response serve(HttpExchange exchange) throws ApiException, IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (path.equals("/api/login")) {
+            return login(exchange);
+        }
+        if (path.equals("/api/logout")) {
+            requireMethod(exchange, "POST");
+            String token = bearerToken(exchange);
+            if (token != null) {
+                sessions.remove(token);
+            }
+            return Response.noContent();
+        }
+        if (path.equals("/api/me")) {
+            requireMethod(exchange, "GET");
+            JsonWriter json = new JsonWriter();
+            writeUser(json, requireUser(exchange));
+            return Response.json(200, json);
+        }
+        throw new ApiException(404, "Not found");
+    }
+
+    private Response login(HttpExchange exchange) throws ApiException, IOException {
+        requireMethod(exchange, "POST");
+        Map<String, String> body = readJson(exchange);
+        String email = ValidationUtil.sanitizeInput(body.get("email"));
+        String password = body.get("password");
+        if (!ValidationUtil.isValidEmail(email) || password == null || password.isEmpty()) {
+            throw new ApiException(400, "Email and password are required");
+        }
+        User user = UserDAO.authenticateUser(email, password);
+        if (user == null) {
+            throw new ApiException(401, "Invalid email or password");
+        }
+        JsonWriter json = new JsonWriter().beginObject()
+                .name("token").value(sessions.create(user))
+                .name("expiresInSeconds").value(sessions.getTtlSeconds())
+                .name("user");
+        writeUser(json, user);
+        return Response.json(200, json.endObject());
+    }
+}
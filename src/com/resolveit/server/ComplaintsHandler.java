@@ -0,0 +1,269 @@
+package com.resolveit.server;
+
+import com.resolveit.dao.ComplaintCursor;
+import com.resolveit.dao.ComplaintDAO;
+import com.resolveit.dao.ComplaintUpdateResult;
+import com.resolveit.dao.FeedbackDAO;
+import com.resolveit.model.Complaint;
+import com.resolveit.model.ComplaintStatus;
+import com.resolveit.model.Feedback;
+import com.resolveit.model.User;
+import com.resolveit.util.ValidationUtil;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Complaint endpoints. Users see their own complaints, administrators see all of them.
+ *   GET  /api/complaints?limit=N&cursor=C   one page, newest first, with the cursor of the next page
+ *   POST /api/complaints                    submit {title, description, category}
+ *   GET  /api/complaints/{id}
+ *   PUT  /api/complaints/{id}/status        set {status, version}; administrators only. The version is the
+ *                                           one the complaint was read at and is required (428 without it);
+ *                                           a change made since is answered with 409 and the complaint as it
+ *                                           is now instead of being overwritten
+ *   GET  /api/complaints/{id}/feedback
+ *   POST /api/complaints/{id}/feedback      add {rating, comments}
+ */
+class ComplaintsHandler extends ApiHandler {
+    private static final String PREFIX = "/api/complaints";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    ComplaintsHandler(SessionStore sessions) {
+        super(sessions);
+    }
+
+    @Override
+    protected Response serve(HttpExchange exchange) throws ApiException, IOException {
+        User user = requireUser(exchange);
+        String path = exchange.getRequestURI().getPath();
+        if (path.length() > PREFIX.length() && path.charAt(PREFIX.length()) != '/') {
+            throw new ApiException(404, "Not found");
+        }
+        String rest = path.length() > PREFIX.length() ? path.substring(PREFIX.length() + 1) : "";
+        if (rest.endsWith("/")) {
+            rest = rest.substring(0, rest.length() - 1);
+        }
+        if (rest.isEmpty()) {
+            if ("POST".equals(exchange.getRequestMethod())) {
+                return submit(exchange, user);
+            }
+            requireMethod(exchange, "GET");
+            return list(exchange, user);
+        }
+
+        String[] segments = rest.split("/");
+        if (segments.length > 2) {
+            throw new ApiException(404, "Not found");
+        }
+        int complaintId = parseId(segments[0]);
+        if (segments.length == 1) {
+            requireMethod(exchange, "GET");
+            JsonWriter json = new JsonWriter();
+            writeComplaint(json, visibleComplaint(complaintId, user));
+            return Response.json(200, json);
+        }
+        if (segments[1].equals("status")) {
+            requireMethod(exchange, "PUT");
+            return updateStatus(exchange, user, complaintId);
+        }
+        if (segments[1].equals("feedback")) {
+            if ("POST".equals(exchange.getRequestMethod())) {
+                return addFeedback(exchange, user, complaintId);
+            }
+            requireMethod(exchange, "GET");
+            visibleComplaint(complaintId, user);
+            JsonWriter json = new JsonWriter().beginObject().name("feedback").beginArray();
+            for (Feedback feedback : FeedbackDAO.getComplaintFeedback(complaintId)) {
+                writeFeedback(json, feedback);
+            }
+            return Response.json(200, json.endArray().endObject());
+        }
+        throw new ApiException(404, "Not found");
+    }
+
+    private Response list(HttpExchange exchange, User user) throws ApiException {
+        Map<String, String> query = queryParameters(exchange);
+        int limit = DEFAULT_PAGE_SIZE;
+        if (query.containsKey("limit")) {
+            try {
+                limit = Integer.parseInt(query.get("limit"));
+            } catch (NumberFormatException e) {
+                throw new ApiException(400, "limit must be a number");
+            }
+            if (limit < 1 || limit > MAX_PAGE_SIZE) {
+                throw new ApiException(400, "limit must be between 1 and " + MAX_PAGE_SIZE);
+            }
+        }
+        ComplaintCursor cursor = decodeCursor(query.get("cursor"));
+
+        List<Complaint> page;
+        if (user.isAdmin()) {
+            page = ComplaintDAO.getComplaintsPage(cursor, limit);
+        } else {
+            // A user's complaints are few and cached, so their pages are cut from that list
+            page = new ArrayList<>(Math.min(limit, 16));
+            for (Complaint complaint : ComplaintDAO.getUserComplaints(user.getUserId())) {
+                if (page.size() == limit) {
+                    break;
+                }
+                if (cursor == null || isAfter(complaint, cursor)) {
+                    page.add(complaint);
+                }
+            }
+        }
+
+        JsonWriter json = new JsonWriter().beginObject().name("complaints").beginArray();
+        for (Complaint complaint : page) {
+            writeComplaint(json, complaint);
+        }
+        json.endArray().name("nextCursor");
+        if (page.size() == limit) {
+            json.value(encodeCursor(ComplaintCursor.after(page.get(page.size() - 1))));
+        } else {
+            json.value((Object) null);
+        }
+        return Response.json(200, json.endObject());
+    }
+
+    private Response submit(HttpExchange exchange, User user) throws ApiException, IOException {
+        Map<String, String> body = readJson(exchange);
+        String title = ValidationUtil.sanitizeInput(body.get("title"));
+        String description = ValidationUtil.sanitizeInput(body.get("description"));
+        String category = ValidationUtil.sanitizeInput(body.get("category"));
+        if (!ValidationUtil.isValidText(title, 3, 100)) {
+            throw new ApiException(400, "title must be 3 to 100 characters");
+        }
+        if (!ValidationUtil.isValidText(description, 10, 1000)) {
+            throw new ApiException(400, "description must be 10 to 1000 characters");
+        }
+        if (!ValidationUtil.isValidText(category, 1, 50)) {
+            throw new ApiException(400, "category must be 1 to 50 characters");
+        }
+        Complaint complaint = ComplaintDAO.createComplaint(user.getUserId(), title, description, category);
+        if (complaint == null) {
+            throw new ApiException(500, "Complaint could not be saved");
+        }
+        exchange.getResponseHeaders().set("Location", PREFIX + "/" + complaint.getComplaintId());
+        JsonWriter json = new JsonWriter();
+        writeComplaint(json, complaint);
+        return Response.json(201, json);
+    }
+
+    private Response updateStatus(HttpExchange exchange, User user, int complaintId) throws ApiException, IOException {
+        if (!user.isAdmin()) {
+            throw new ApiException(403, "Only administrators can change a complaint's status");
+        }
+        Map<String, String> body = readJson(exchange);
+        String name = body.get("status");
+        ComplaintStatus status = name == null ? null : ComplaintStatus.fromName(name.trim().toUpperCase(Locale.ROOT));
+        if (status == null) {
+            throw new ApiException(400, "status must be one of OPEN, IN_PROGRESS, RESOLVED, CLOSED");
+        }
+        String version = body.get("version");
+        if (version == null) {
+            throw new ApiException(428, "version is required: send the version the complaint was read at");
+        }
+        int expectedVersion;
+        try {
+            expectedVersion = Integer.parseInt(version.trim());
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "version must be a number");
+        }
+        ComplaintUpdateResult result = ComplaintDAO.updateComplaintStatus(complaintId, expectedVersion, status);
+        switch (result.getOutcome()) {
+            case UPDATED:
+                JsonWriter json = new JsonWriter();
+                writeComplaint(json, result.getComplaint());
+                return Response.json(200, json);
+            case CONFLICT:
+                JsonWriter conflict = new JsonWriter().beginObject()
+                        .name("error").value("Complaint was changed by another user; review it and try again")
+                        .name("complaint");
+                writeComplaint(conflict, result.getComplaint());
+                return Response.json(409, conflict.endObject());
+            case NOT_FOUND:
+                throw new ApiException(404, "Complaint not found");
+            default:
+                throw new ApiException(500, "Status could not be updated");
+        }
+    }
+
+    private Response addFeedback(HttpExchange exchange, User user, int complaintId) throws ApiException, IOException {
+        visibleComplaint(complaintId, user);
+        Map<String, String> body = readJson(exchange);
+        int rating;
+        try {
+            rating = Integer.parseInt(ValidationUtil.sanitizeInput(body.get("rating")));
+        } catch (NumberFormatException e) {
+            rating = 0;
+        }
+        if (rating < 1 || rating > 5) {
+            throw new ApiException(400, "rating must be a number from 1 to 5");
+        }
+        String comments = ValidationUtil.sanitizeInput(body.get("comments"));
+        if (!ValidationUtil.isValidText(comments, 1, 1000)) {
+            throw new ApiException(400, "comments must be 1 to 1000 characters");
+        }
+        if (!FeedbackDAO.submitFeedback(complaintId, user.getUserId(), comments, rating)) {
+            throw new ApiException(500, "Feedback could not be saved");
+        }
+        return Response.json(201, new JsonWriter().beginObject()
+                .name("submitted").value(true)
+                .endObject());
+    }
+
+    /**
+     * The complaint if it exists and the user may see it; others' complaints are reported as missing
+     */
+    private static Complaint visibleComplaint(int complaintId, User user) throws ApiException {
+        Complaint complaint = ComplaintDAO.getComplaintById(complaintId);
+        if (complaint == null || (!user.isAdmin() && complaint.getUserId() != user.getUserId())) {
+            throw new ApiException(404, "Complaint not found");
+        }
+        return complaint;
+    }
+
+    private static int parseId(String segment) throws ApiException {
+        try {
+            return Integer.parseInt(segment);
+        } catch (NumberFormatException e) {
+            throw new ApiException(404, "Not found");
+        }
+    }
+
+    private static boolean isAfter(Complaint complaint, ComplaintCursor cursor) {
+        int order = complaint.getCreatedAt().compareTo(cursor.getCreatedAt());
+        return order < 0 || (order == 0 && complaint.getComplaintId() < cursor.getComplaintId());
+    }
+
+    /**
+     * Cursors are opaque to clients: base64url of "createdAt|complaintId"
+     */
+    private static String encodeCursor(ComplaintCursor cursor) {
+        String position = cursor.getCreatedAt() + "|" + cursor.getComplaintId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ComplaintCursor decodeCursor(String value) throws ApiException {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = position.lastIndexOf('|');
+            return new ComplaintCursor(LocalDateTime.parse(position.substring(0, separator)),
+                    Integer.parseInt(position.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+            throw new ApiException(400, "Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.resolveit.server;
+
+/**
+ * Minimal JSON builder for API responses; commas between members and elements are inserted automatically
+ */
+final class JsonWriter {
+    private final StringBuilder out = new StringBuilder(256);
+    private boolean needsComma;
+
+    JsonWriter beginObject() {
+        separate();
+        out.append('{');
+        needsComma = false;
+        return this;
+    }
+
+    JsonWriter endObject() {
+        out.append('}');
+        needsComma = true;
+        return this;
+    }
+
+    JsonWriter beginArray() {
+        separate();
+        out.append('[');
+        needsComma = false;
+        return this;
+    }
+
+    JsonWriter endArray() {
+        out.append(']');
+        needsComma = true;
+        return this;
+    }
+
+    JsonWriter name(String name) {
+        separate();
+        appendString(name);
+        out.append(':');
+        needsComma = false;
+        return this;
+    }
+
+    /**
+     * The value's toString() as a JSON string; null is written as null
+     */
+    JsonWriter value(Object value) {
+        separate();
+        if (value == null) {
+            out.append("null");
+        } else {
+            appendString(value.toString());
+        }
+        needsComma = true;
+        return this;
+    }
+
+    /**
+     * A numeric value that may be absent; null is written as null
+     */
+    JsonWriter value(Number value) {
+        separate();
+        out.append(value == null ? "null" : value.toString());
+        needsComma = true;
+        return this;
+    }
+
+    JsonWriter value(long value) {
+        separate();
+        out.append(value);
+        needsComma = true;
+        return this;
+    }
+
+    JsonWriter value(double value) {
+        separate();
+        out.append(Double.isNaN(value) || Double.isInfinite(value) ? "null" : Double.toString(value));
+        needsComma = true;
+        return this;
+    }
+
+    JsonWriter value(boolean value) {
+        separate();
+        out.append(value);
+        needsComma = true;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+
+    private void separate() {
+        if (needsComma) {
+            out.append(',');
+        }
+    }
+
+    private void appendString(String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
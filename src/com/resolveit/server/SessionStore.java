@@ -0,0 +1,90 @@
+package com.resolveit.server;
+
+import com.resolveit.model.User;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory bearer tokens of signed-in API clients.
+ * A session expires after the TTL without use; each request extends it.
+ * Expired sessions are swept when new ones are created.
+ */
+class SessionStore {
+    private static final int TOKEN_BYTES = 32;
+    private static final int SWEEP_INTERVAL = 1000;
+
+    private final long ttlNanos;
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private int createdSinceSweep;
+
+    SessionStore(long ttlMillis) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    long getTtlSeconds() {
+        return TimeUnit.NANOSECONDS.toSeconds(ttlNanos);
+    }
+
+    /**
+     * Start a session for the user and return its token
+     */
+    String create(User user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, new Session(user, System.nanoTime() + ttlNanos));
+        sweepOccasionally();
+        return token;
+    }
+
+    /**
+     * The user of a live session, or null if the token is unknown or expired
+     */
+    User get(String token) {
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (now - session.expiresAt > 0) {
+            sessions.remove(token, session);
+            return null;
+        }
+        session.expiresAt = now + ttlNanos;
+        return session.user;
+    }
+
+    void remove(String token) {
+        sessions.remove(token);
+    }
+
+    private void sweepOccasionally() {
+        synchronized (this) {
+            if (++createdSinceSweep < SWEEP_INTERVAL) {
+                return;
+            }
+            createdSinceSweep = 0;
+        }
+        long now = System.nanoTime();
+        for (Iterator<Session> it = sessions.values().iterator(); it.hasNext(); ) {
+            if (now - it.next().expiresAt > 0) {
+                it.remove();
+            }
+        }
+    }
+
+    private static class Session {
+        private final User user;
+        private volatile long expiresAt;
+
+        Session(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
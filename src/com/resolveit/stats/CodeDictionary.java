@@ -0,0 +1,70 @@
+package com.resolveit.stats;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dictionary encoding for one string column of ComplaintColumns: each distinct value
+ * (including null) gets a small integer code, assigned in order of first appearance.
+ */
+class CodeDictionary {
+    private final int maxCodes;
+    private final Map<String, Integer> codes = new HashMap<>();
+    private String[] values = new String[8];
+    private int size;
+
+    CodeDictionary(int maxCodes, String... knownValues) {
+        this.maxCodes = maxCodes;
+        for (String value : knownValues) {
+            encode(value);
+        }
+    }
+
+    /**
+     * Code of the value, adding it if it is new
+     */
+    int encode(String value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        if (size == maxCodes) {
+            throw new IllegalStateException("More than " + maxCodes + " distinct values");
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size] = value;
+        codes.put(value, size);
+        return size++;
+    }
+
+    /**
+     * Code of the value, or -1 if it does not occur
+     */
+    int find(String value) {
+        Integer code = codes.get(value);
+        return code == null ? -1 : code;
+    }
+
+    String decode(int code) {
+        return values[code];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Estimated heap bytes of the dictionary: the value strings, the map entries and the arrays
+     */
+    long estimateBytes() {
+        long bytes = ColumnSizes.array(values.length, 4) + ColumnSizes.array(codes.size() * 4 / 3 + 1, 4);
+        for (int i = 0; i < size; i++) {
+            // Map entry, boxed code and a compact (Latin-1) string
+            bytes += 32 + 16 + (values[i] == null ? 0 : 24 + ColumnSizes.array(values[i].length(), 1));
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,22 @@
+package com.resolveit.stats;
+
+/**
+ * Heap size estimates for a 64-bit JVM with compressed references
+ */
+final class ColumnSizes {
+    private static final int ARRAY_HEADER = 16;
+
+    private ColumnSizes() {
+    }
+
+    /**
+     * Bytes taken by an array of the given length and element width, including header and padding
+     */
+    static long array(int length, int elementBytes) {
+        return align(ARRAY_HEADER + (long) length * elementBytes);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
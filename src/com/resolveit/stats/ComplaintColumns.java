@@ -0,0 +1,344 @@
+package com.resolveit.stats;
+
+import com.resolveit.dao.ComplaintDAO;
+import com.resolveit.dao.ComplaintRowHandler;
+import com.resolveit.model.ComplaintPriority;
+import com.resolveit.model.ComplaintStatus;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only, column-oriented copy of the complaints for analytics over large numbers of rows.
+ * Each attribute is held in its own primitive array indexed by row: ids as ints, timestamps as
+ * seconds since 1970-01-01T00:00 (local time), status and priority as byte codes and categories
+ * as dictionary codes, which takes a few dozen bytes per complaint instead of the hundreds a
+ * Complaint object graph needs. Titles and descriptions are not kept.
+ * Scans (select, count, countBy, averageResolutionBy) run over the arrays without allocating per row.
+ * A store is a snapshot: call load() again to pick up later changes.
+ */
+public final class ComplaintColumns {
+    public static final int NO_USER = ComplaintRowHandler.NO_USER;
+    public static final long NO_TIME = ComplaintRowHandler.NO_TIME;
+
+    private static final String[] STATUSES = ComplaintQuery.names(ComplaintStatus.values());
+    private static final String[] PRIORITIES = ComplaintQuery.names(ComplaintPriority.values());
+    private static final String[] RESOLVED_STATUSES = ComplaintQuery.names(ComplaintStatus.RESOLVED, ComplaintStatus.CLOSED);
+
+    private final int size;
+    private final int[] complaintIds;
+    private final int[] userIds;
+    private final int[] assignedTo;
+    private final long[] createdAt;
+    private final long[] updatedAt;
+    private final byte[] statuses;
+    private final byte[] priorities;
+    private final int[] categories;
+    private final CodeDictionary statusCodes;
+    private final CodeDictionary priorityCodes;
+    private final CodeDictionary categoryCodes;
+
+    private ComplaintColumns(Builder builder) {
+        this.size = builder.size;
+        this.complaintIds = Arrays.copyOf(builder.complaintIds, size);
+        this.userIds = Arrays.copyOf(builder.userIds, size);
+        this.assignedTo = Arrays.copyOf(builder.assignedTo, size);
+        this.createdAt = Arrays.copyOf(builder.createdAt, size);
+        this.updatedAt = Arrays.copyOf(builder.updatedAt, size);
+        this.statuses = Arrays.copyOf(builder.statuses, size);
+        this.priorities = Arrays.copyOf(builder.priorities, size);
+        this.categories = Arrays.copyOf(builder.categories, size);
+        this.statusCodes = builder.statusCodes;
+        this.priorityCodes = builder.priorityCodes;
+        this.categoryCodes = builder.categoryCodes;
+    }
+
+    /**
+     * Stream all complaints from ComplaintDAO into a new store; returns null if the scan failed
+     */
+    public static ComplaintColumns load() {
+        Builder builder = new Builder();
+        if (ComplaintDAO.scanComplaints(builder) < 0) {
+            return null;
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getComplaintId(int row) {
+        return complaintIds[row];
+    }
+
+    public int getUserId(int row) {
+        return userIds[row];
+    }
+
+    /**
+     * Assignee of the complaint, or NO_USER
+     */
+    public int getAssignedTo(int row) {
+        return assignedTo[row];
+    }
+
+    public String getStatus(int row) {
+        return statusCodes.decode(statuses[row]);
+    }
+
+    public String getCategory(int row) {
+        return categoryCodes.decode(categories[row]);
+    }
+
+    public String getPriority(int row) {
+        return priorityCodes.decode(priorities[row]);
+    }
+
+    /**
+     * Creation time in seconds since 1970-01-01T00:00 local time, or NO_TIME
+     */
+    public long getCreatedSeconds(int row) {
+        return createdAt[row];
+    }
+
+    public LocalDateTime getCreatedAt(int row) {
+        return toLocalDateTime(createdAt[row]);
+    }
+
+    public LocalDateTime getUpdatedAt(int row) {
+        return toLocalDateTime(updatedAt[row]);
+    }
+
+    /**
+     * Rows matching the query, in complaint id order
+     */
+    public int[] select(ComplaintQuery query) {
+        Scan scan = new Scan(query);
+        int[] rows = new int[16];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (scan.matches(row)) {
+                if (count == rows.length) {
+                    rows = Arrays.copyOf(rows, count * 2);
+                }
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    public int count(ComplaintQuery query) {
+        Scan scan = new Scan(query);
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (scan.matches(row)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Number of matching complaints per value of the dimension, in order of first appearance
+     * (status and priority in workflow order); values with no matches are left out
+     */
+    public Map<String, Long> countBy(ComplaintDimension dimension, ComplaintQuery query) {
+        Scan scan = new Scan(query);
+        CodeDictionary dictionary = dictionary(dimension);
+        long[] counts = new long[dictionary.size()];
+        for (int row = 0; row < size; row++) {
+            if (scan.matches(row)) {
+                counts[code(dimension, row)]++;
+            }
+        }
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                result.put(dictionary.decode(code), counts[code]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Mean time from creation to last update of the matching RESOLVED and CLOSED complaints,
+     * per value of the dimension
+     */
+    public Map<String, Duration> averageResolutionBy(ComplaintDimension dimension, ComplaintQuery query) {
+        Scan scan = new Scan(query);
+        boolean[] resolved = mask(statusCodes, RESOLVED_STATUSES);
+        CodeDictionary dictionary = dictionary(dimension);
+        long[] counts = new long[dictionary.size()];
+        long[] seconds = new long[dictionary.size()];
+        for (int row = 0; row < size; row++) {
+            if (resolved[statuses[row]] && createdAt[row] != NO_TIME && updatedAt[row] != NO_TIME
+                    && scan.matches(row)) {
+                int code = code(dimension, row);
+                counts[code]++;
+                seconds[code] += updatedAt[row] - createdAt[row];
+            }
+        }
+        Map<String, Duration> result = new LinkedHashMap<>();
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                result.put(dictionary.decode(code), Duration.ofSeconds(seconds[code] / counts[code]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Estimated heap used by the arrays and dictionaries of this store
+     */
+    public MemoryFootprint getMemoryFootprint() {
+        Map<String, Long> bytes = new LinkedHashMap<>();
+        bytes.put("complaint_id", ColumnSizes.array(complaintIds.length, 4));
+        bytes.put("user_id", ColumnSizes.array(userIds.length, 4));
+        bytes.put("assigned_to", ColumnSizes.array(assignedTo.length, 4));
+        bytes.put("created_at", ColumnSizes.array(createdAt.length, 8));
+        bytes.put("updated_at", ColumnSizes.array(updatedAt.length, 8));
+        bytes.put("status", ColumnSizes.array(statuses.length, 1));
+        bytes.put("priority", ColumnSizes.array(priorities.length, 1));
+        bytes.put("category", ColumnSizes.array(categories.length, 4));
+        bytes.put("status dictionary", statusCodes.estimateBytes());
+        bytes.put("priority dictionary", priorityCodes.estimateBytes());
+        bytes.put("category dictionary", categoryCodes.estimateBytes());
+        return new MemoryFootprint(size, bytes);
+    }
+
+    private CodeDictionary dictionary(ComplaintDimension dimension) {
+        switch (dimension) {
+            case STATUS:
+                return statusCodes;
+            case PRIORITY:
+                return priorityCodes;
+            default:
+                return categoryCodes;
+        }
+    }
+
+    private int code(ComplaintDimension dimension, int row) {
+        switch (dimension) {
+            case STATUS:
+                return statuses[row];
+            case PRIORITY:
+                return priorities[row];
+            default:
+                return categories[row];
+        }
+    }
+
+    private static boolean[] mask(CodeDictionary dictionary, String[] values) {
+        boolean[] mask = new boolean[dictionary.size()];
+        for (String value : values) {
+            int code = dictionary.find(value);
+            if (code >= 0) {
+                mask[code] = true;
+            }
+        }
+        return mask;
+    }
+
+    private static LocalDateTime toLocalDateTime(long seconds) {
+        return seconds == NO_TIME ? null : LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * A query translated to codes once, so that matching a row only compares primitives
+     */
+    private final class Scan {
+        private final boolean[] statusMask;
+        private final boolean[] categoryMask;
+        private final boolean[] priorityMask;
+        private final boolean byUser;
+        private final int userId;
+        private final boolean byAssignee;
+        private final int assignee;
+        private final long createdFrom;
+        private final long createdTo;
+
+        Scan(ComplaintQuery query) {
+            statusMask = mask(statusCodes, query.getStatuses());
+            categoryMask = mask(categoryCodes, query.getCategories());
+            priorityMask = mask(priorityCodes, query.getPriorities());
+            byUser = query.getUserId() != null;
+            userId = byUser ? query.getUserId() : 0;
+            byAssignee = query.getAssignedTo() != null;
+            assignee = byAssignee ? query.getAssignedTo() : 0;
+            createdFrom = query.getCreatedFromSeconds();
+            createdTo = query.getCreatedToSeconds();
+        }
+
+        boolean matches(int row) {
+            return (statusMask == null || statusMask[statuses[row]])
+                    && (priorityMask == null || priorityMask[priorities[row]])
+                    && (categoryMask == null || categoryMask[categories[row]])
+                    && (!byUser || userIds[row] == userId)
+                    && (!byAssignee || assignedTo[row] == assignee)
+                    && createdAt[row] >= createdFrom && createdAt[row] < createdTo;
+        }
+
+        private boolean[] mask(CodeDictionary dictionary, Set<String> values) {
+            return values == null ? null : ComplaintColumns.mask(dictionary, values.toArray(new String[0]));
+        }
+    }
+
+    /**
+     * Appends streamed rows to growing arrays; build() trims them into a store.
+     * The store shares the builder's dictionaries, so a builder must not be used after build().
+     */
+    public static class Builder implements ComplaintRowHandler {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private int size;
+        private int[] complaintIds = new int[INITIAL_CAPACITY];
+        private int[] userIds = new int[INITIAL_CAPACITY];
+        private int[] assignedTo = new int[INITIAL_CAPACITY];
+        private long[] createdAt = new long[INITIAL_CAPACITY];
+        private long[] updatedAt = new long[INITIAL_CAPACITY];
+        private byte[] statuses = new byte[INITIAL_CAPACITY];
+        private byte[] priorities = new byte[INITIAL_CAPACITY];
+        private int[] categories = new int[INITIAL_CAPACITY];
+        private final CodeDictionary statusCodes = new CodeDictionary(Byte.MAX_VALUE, STATUSES);
+        private final CodeDictionary priorityCodes = new CodeDictionary(Byte.MAX_VALUE, PRIORITIES);
+        private final CodeDictionary categoryCodes = new CodeDictionary(Integer.MAX_VALUE);
+
+        @Override
+        public void complaint(int complaintId, int userId, int assignee, String status, String category,
+                              String priority, long createdSeconds, long updatedSeconds) {
+            if (size == complaintIds.length) {
+                grow();
+            }
+            complaintIds[size] = complaintId;
+            userIds[size] = userId;
+            assignedTo[size] = assignee;
+            createdAt[size] = createdSeconds;
+            updatedAt[size] = updatedSeconds;
+            statuses[size] = (byte) statusCodes.encode(status);
+            priorities[size] = (byte) priorityCodes.encode(priority);
+            categories[size] = categoryCodes.encode(category);
+            size++;
+        }
+
+        public ComplaintColumns build() {
+            return new ComplaintColumns(this);
+        }
+
+        private void grow() {
+            int capacity = complaintIds.length * 2;
+            complaintIds = Arrays.copyOf(complaintIds, capacity);
+            userIds = Arrays.copyOf(userIds, capacity);
+            assignedTo = Arrays.copyOf(assignedTo, capacity);
+            createdAt = Arrays.copyOf(createdAt, capacity);
+            updatedAt = Arrays.copyOf(updatedAt, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+            priorities = Arrays.copyOf(priorities, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.resolveit.stats;
+
+/**
+ * Dictionary-encoded complaint columns that ComplaintColumns can group by
+ */
+public enum ComplaintDimension {
+    STATUS,
+    CATEGORY,
+    PRIORITY
+}
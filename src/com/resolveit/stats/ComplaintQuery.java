@@ -0,0 +1,121 @@
+package com.resolveit.stats;
+
+import com.resolveit.model.ComplaintPriority;
+import com.resolveit.model.ComplaintStatus;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Filter for ComplaintColumns scans. Every condition that is set must hold; a condition
+ * listing several values matches any of them. An empty query matches every complaint.
+ *
+ * e.g. new ComplaintQuery().status(ComplaintStatus.OPEN).priority(ComplaintPriority.URGENT).createdBetween(from, to)
+ */
+public class ComplaintQuery {
+    private Set<String> statuses;
+    private Set<String> categories;
+    private Set<String> priorities;
+    private Integer userId;
+    private Integer assignedTo;
+    private long createdFromSeconds = Long.MIN_VALUE;
+    private long createdToSeconds = Long.MAX_VALUE;
+
+    public ComplaintQuery status(String... statuses) {
+        this.statuses = values(statuses);
+        return this;
+    }
+
+    public ComplaintQuery status(ComplaintStatus... statuses) {
+        return status(names(statuses));
+    }
+
+    public ComplaintQuery category(String... categories) {
+        this.categories = values(categories);
+        return this;
+    }
+
+    public ComplaintQuery priority(String... priorities) {
+        this.priorities = values(priorities);
+        return this;
+    }
+
+    public ComplaintQuery priority(ComplaintPriority... priorities) {
+        return priority(names(priorities));
+    }
+
+    public ComplaintQuery userId(int userId) {
+        this.userId = userId;
+        return this;
+    }
+
+    public ComplaintQuery assignedTo(int userId) {
+        this.assignedTo = userId;
+        return this;
+    }
+
+    /**
+     * Created at or after from and before to; either bound may be null
+     */
+    public ComplaintQuery createdBetween(LocalDateTime from, LocalDateTime to) {
+        this.createdFromSeconds = from == null ? Long.MIN_VALUE : from.toEpochSecond(ZoneOffset.UTC);
+        this.createdToSeconds = to == null ? Long.MAX_VALUE : to.toEpochSecond(ZoneOffset.UTC);
+        return this;
+    }
+
+    Set<String> getStatuses() {
+        return statuses;
+    }
+
+    Set<String> getCategories() {
+        return categories;
+    }
+
+    Set<String> getPriorities() {
+        return priorities;
+    }
+
+    Integer getUserId() {
+        return userId;
+    }
+
+    Integer getAssignedTo() {
+        return assignedTo;
+    }
+
+    long getCreatedFromSeconds() {
+        return createdFromSeconds;
+    }
+
+    long getCreatedToSeconds() {
+        return createdToSeconds;
+    }
+
+    static String[] names(Enum<?>... values) {
+        String[] names = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            names[i] = values[i].name();
+        }
+        return names;
+    }
+
+    private static Set<String> values(String[] values) {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(values)));
+    }
+
+    @Override
+    public String toString() {
+        return "ComplaintQuery{" +
+                "statuses=" + statuses +
+                ", categories=" + categories +
+                ", priorities=" + priorities +
+                ", userId=" + userId +
+                ", assignedTo=" + assignedTo +
+                ", createdFromSeconds=" + createdFromSeconds +
+                ", createdToSeconds=" + createdToSeconds +
+                '}';
+    }
+}
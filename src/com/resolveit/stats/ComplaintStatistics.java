@@ -0,0 +1,320 @@
+package com.resolveit.stats;
+
+import com.resolveit.dao.ComplaintDAO;
+import com.resolveit.model.Complaint;
+import com.resolveit.model.ComplaintGroup;
+import com.resolveit.model.ComplaintPriority;
+import com.resolveit.model.ComplaintStatus;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Process-wide complaint statistics for the admin dashboard.
+ * They are loaded with one grouped query (ComplaintDAO.getComplaintGroups()) and then kept
+ * current by ComplaintDAO, which reports submitted complaints and status changes; every
+ * change publishes a new StatisticsSnapshot, so readers never touch the database.
+ * Writes the statistics cannot apply exactly (bulk imports, or the oldest open complaint
+ * being closed) trigger a reload in the background.
+ */
+public class ComplaintStatistics {
+    private static final List<String> STATUS_ORDER = names(ComplaintStatus.values());
+    private static final List<String> PRIORITY_ORDER = names(ComplaintPriority.values());
+
+    /**
+     * A reload that raced with writes is retried this many times before it is accepted anyway
+     */
+    private static final int MAX_RELOAD_ATTEMPTS = 3;
+
+    private static volatile StatisticsSnapshot snapshot;
+
+    // Guarded by the class lock
+    private static final Map<GroupKey, Group> groups = new HashMap<>();
+    private static boolean loaded;
+    private static long generation;
+    private static long version;
+    private static Thread reloadThread;
+    private static boolean reloadRequested;
+
+    /**
+     * The current statistics, or null until the first load has completed
+     */
+    public static StatisticsSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Reload on a background thread; a request made while a reload runs starts another one after it
+     */
+    public static synchronized void startReload() {
+        if (reloadThread != null) {
+            reloadRequested = true;
+            return;
+        }
+        reloadThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (true) {
+                    reload();
+                    synchronized (ComplaintStatistics.class) {
+                        if (!reloadRequested) {
+                            reloadThread = null;
+                            return;
+                        }
+                        reloadRequested = false;
+                    }
+                }
+            }
+        }, "resolveit-statistics");
+        reloadThread.setDaemon(true);
+        reloadThread.start();
+    }
+
+    /**
+     * Recompute the statistics with one grouped query; returns false if the query failed
+     */
+    public static boolean reload() {
+        for (int attempt = 1; ; attempt++) {
+            long loadGeneration;
+            synchronized (ComplaintStatistics.class) {
+                loadGeneration = generation;
+            }
+            List<ComplaintGroup> rows = ComplaintDAO.getComplaintGroups();
+            if (rows == null) {
+                return false;
+            }
+            synchronized (ComplaintStatistics.class) {
+                // Writes reported during the query may or may not be in its result
+                if (loadGeneration == generation || attempt == MAX_RELOAD_ATTEMPTS) {
+                    groups.clear();
+                    for (ComplaintGroup row : rows) {
+                        Group group = new Group();
+                        group.count = row.getCount();
+                        group.createdSecondsSum = row.getCreatedSecondsSum();
+                        group.oldestCreatedAt = row.getOldestCreatedAt();
+                        groups.put(new GroupKey(row.getStatus(), row.getCategory(), row.getPriority()), group);
+                    }
+                    loaded = true;
+                    publish();
+                    return true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Count a newly submitted complaint
+     */
+    public static synchronized void complaintAdded(Complaint complaint) {
+        generation++;
+        if (loaded) {
+            add(complaint, 1);
+            publish();
+        }
+    }
+
+    /**
+     * Move updated complaints between groups; before holds the rows as they were prior to the update
+     */
+    public static synchronized void complaintsUpdated(List<Complaint> before, List<Complaint> after) {
+        generation++;
+        if (!loaded) {
+            return;
+        }
+        Map<Integer, Complaint> previous = new HashMap<>();
+        for (Complaint complaint : before) {
+            previous.put(complaint.getComplaintId(), complaint);
+        }
+        boolean complete = true;
+        for (Complaint complaint : after) {
+            Complaint old = previous.get(complaint.getComplaintId());
+            if (old == null) {
+                complete = false;
+            } else {
+                add(old, -1);
+                add(complaint, 1);
+            }
+        }
+        publish();
+        if (!complete) {
+            startReload();
+        }
+    }
+
+    /**
+     * Complaints were written in a way that cannot be applied incrementally, e.g. a bulk import
+     */
+    public static synchronized void invalidate() {
+        generation++;
+        if (loaded) {
+            startReload();
+        }
+    }
+
+    private static void add(Complaint complaint, int sign) {
+        GroupKey key = new GroupKey(name(complaint.getStatus()), complaint.getCategory(), name(complaint.getPriority()));
+        Group group = groups.get(key);
+        if (group == null) {
+            group = new Group();
+            groups.put(key, group);
+        }
+        group.count += sign;
+        LocalDateTime createdAt = complaint.getCreatedAt();
+        if (createdAt != null) {
+            group.createdSecondsSum += sign * createdAt.toEpochSecond(ZoneOffset.UTC);
+            if (sign > 0 && (group.oldestCreatedAt == null || createdAt.isBefore(group.oldestCreatedAt))) {
+                group.oldestCreatedAt = createdAt;
+            } else if (sign < 0 && group.oldestCreatedAt != null && !createdAt.isAfter(group.oldestCreatedAt)) {
+                // The oldest complaint of the group may have left it; only a reload can tell the new oldest
+                group.oldestStale = true;
+            }
+        }
+        if (group.count <= 0) {
+            groups.remove(key);
+        }
+    }
+
+    /**
+     * Roll the groups up into a new snapshot; the work depends on the number of groups, not complaints
+     */
+    private static void publish() {
+        long total = 0;
+        Map<String, Long> byStatus = new HashMap<>();
+        Map<String, Long> byCategory = new HashMap<>();
+        Map<String, Long> byPriority = new HashMap<>();
+        long openCount = 0;
+        long openCreatedSecondsSum = 0;
+        LocalDateTime oldestOpen = null;
+        boolean oldestStale = false;
+
+        for (Map.Entry<GroupKey, Group> entry : groups.entrySet()) {
+            GroupKey key = entry.getKey();
+            Group group = entry.getValue();
+            total += group.count;
+            increment(byStatus, key.status, group.count);
+            increment(byCategory, key.category, group.count);
+            increment(byPriority, key.priority, group.count);
+            ComplaintStatus status = ComplaintStatus.fromName(key.status);
+            if (status != null && status.isOpen()) {
+                openCount += group.count;
+                openCreatedSecondsSum += group.createdSecondsSum;
+                if (group.oldestCreatedAt != null
+                        && (oldestOpen == null || group.oldestCreatedAt.isBefore(oldestOpen))) {
+                    oldestOpen = group.oldestCreatedAt;
+                }
+                oldestStale |= group.oldestStale;
+            }
+        }
+        snapshot = new StatisticsSnapshot(++version, total, ordered(byStatus, STATUS_ORDER),
+                largestFirst(byCategory), ordered(byPriority, PRIORITY_ORDER), openCount,
+                openCreatedSecondsSum, oldestOpen);
+        if (oldestStale) {
+            startReload();
+        }
+    }
+
+    private static String name(Enum<?> value) {
+        return value == null ? null : value.name();
+    }
+
+    private static List<String> names(Enum<?>[] values) {
+        List<String> names = new ArrayList<>(values.length);
+        for (Enum<?> value : values) {
+            names.add(value.name());
+        }
+        return names;
+    }
+
+    private static void increment(Map<String, Long> counts, String key, long count) {
+        Long current = counts.get(key);
+        counts.put(key, current == null ? count : current + count);
+    }
+
+    /**
+     * Known keys in the given order, followed by any others alphabetically
+     */
+    private static Map<String, Long> ordered(Map<String, Long> counts, List<String> order) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (String key : order) {
+            if (counts.containsKey(key)) {
+                result.put(key, counts.get(key));
+            }
+        }
+        List<String> others = new ArrayList<>();
+        for (String key : counts.keySet()) {
+            if (!result.containsKey(key)) {
+                others.add(key);
+            }
+        }
+        Collections.sort(others, new Comparator<String>() {
+            @Override
+            public int compare(String a, String b) {
+                return String.valueOf(a).compareTo(String.valueOf(b));
+            }
+        });
+        for (String key : others) {
+            result.put(key, counts.get(key));
+        }
+        return result;
+    }
+
+    private static Map<String, Long> largestFirst(final Map<String, Long> counts) {
+        List<String> keys = new ArrayList<>(counts.keySet());
+        Collections.sort(keys, new Comparator<String>() {
+            @Override
+            public int compare(String a, String b) {
+                int byCount = Long.compare(counts.get(b), counts.get(a));
+                return byCount != 0 ? byCount : String.valueOf(a).compareTo(String.valueOf(b));
+            }
+        });
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (String key : keys) {
+            result.put(key, counts.get(key));
+        }
+        return result;
+    }
+
+    private static class GroupKey {
+        private final String status;
+        private final String category;
+        private final String priority;
+
+        GroupKey(String status, String category, String priority) {
+            this.status = status;
+            this.category = category;
+            this.priority = priority;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof GroupKey)) {
+                return false;
+            }
+            GroupKey other = (GroupKey) o;
+            return Objects.equals(status, other.status) && Objects.equals(category, other.category)
+                    && Objects.equals(priority, other.priority);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(status, category, priority);
+        }
+    }
+
+    private static class Group {
+        private long count;
+        private long createdSecondsSum;
+        private LocalDateTime oldestCreatedAt;
+        private boolean oldestStale;
+    }
+}
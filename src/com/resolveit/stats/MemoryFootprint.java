@@ -0,0 +1,55 @@
+package com.resolveit.stats;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Estimated heap bytes of a ComplaintColumns store, per column and in total
+ */
+public class MemoryFootprint {
+    private final long rows;
+    private final Map<String, Long> columnBytes;
+    private final long totalBytes;
+
+    MemoryFootprint(long rows, Map<String, Long> columnBytes) {
+        this.rows = rows;
+        this.columnBytes = Collections.unmodifiableMap(new LinkedHashMap<>(columnBytes));
+        long total = 0;
+        for (long bytes : columnBytes.values()) {
+            total += bytes;
+        }
+        this.totalBytes = total;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Bytes per column (dictionaries listed separately), in storage order
+     */
+    public Map<String, Long> getColumnBytes() {
+        return columnBytes;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public double getBytesPerRow() {
+        return rows == 0 ? 0 : (double) totalBytes / rows;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        for (Map.Entry<String, Long> entry : columnBytes.entrySet()) {
+            report.append(String.format(Locale.ROOT, "%-22s %,14d bytes%n", entry.getKey(), entry.getValue()));
+        }
+        report.append(String.format(Locale.ROOT, "%-22s %,14d bytes (%,d rows, %.1f bytes/row)",
+                "total", totalBytes, rows, getBytesPerRow()));
+        return report.toString();
+    }
+}
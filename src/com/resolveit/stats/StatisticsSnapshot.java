@@ -0,0 +1,108 @@
+package com.resolveit.stats;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable complaint statistics at one point in time: counts by status, category and
+ * priority, and the number and age of open (OPEN or IN_PROGRESS) complaints.
+ * Each change produces a new snapshot with a higher version.
+ */
+public class StatisticsSnapshot {
+    private final long version;
+    private final long total;
+    private final Map<String, Long> byStatus;
+    private final Map<String, Long> byCategory;
+    private final Map<String, Long> byPriority;
+    private final long openCount;
+    private final long openCreatedSecondsSum;
+    private final LocalDateTime oldestOpenCreatedAt;
+
+    StatisticsSnapshot(long version, long total, Map<String, Long> byStatus, Map<String, Long> byCategory,
+                       Map<String, Long> byPriority, long openCount, long openCreatedSecondsSum,
+                       LocalDateTime oldestOpenCreatedAt) {
+        this.version = version;
+        this.total = total;
+        this.byStatus = Collections.unmodifiableMap(byStatus);
+        this.byCategory = Collections.unmodifiableMap(byCategory);
+        this.byPriority = Collections.unmodifiableMap(byPriority);
+        this.openCount = openCount;
+        this.openCreatedSecondsSum = openCreatedSecondsSum;
+        this.oldestOpenCreatedAt = oldestOpenCreatedAt;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Counts by status, in workflow order
+     */
+    public Map<String, Long> getByStatus() {
+        return byStatus;
+    }
+
+    /**
+     * Counts by category, largest first
+     */
+    public Map<String, Long> getByCategory() {
+        return byCategory;
+    }
+
+    /**
+     * Counts by priority, lowest first
+     */
+    public Map<String, Long> getByPriority() {
+        return byPriority;
+    }
+
+    public long getOpenCount() {
+        return openCount;
+    }
+
+    /**
+     * Mean age of the open complaints at the given time, or null if none are open
+     */
+    public Duration getAverageOpenAge(LocalDateTime now) {
+        if (openCount == 0) {
+            return null;
+        }
+        long meanCreated = openCreatedSecondsSum / openCount;
+        return Duration.ofSeconds(Math.max(0, now.toEpochSecond(ZoneOffset.UTC) - meanCreated));
+    }
+
+    /**
+     * Age of the oldest open complaint at the given time, or null if none are open
+     */
+    public Duration getOldestOpenAge(LocalDateTime now) {
+        if (oldestOpenCreatedAt == null) {
+            return null;
+        }
+        Duration age = Duration.between(oldestOpenCreatedAt, now);
+        return age.isNegative() ? Duration.ZERO : age;
+    }
+
+    public LocalDateTime getOldestOpenCreatedAt() {
+        return oldestOpenCreatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "StatisticsSnapshot{" +
+                "version=" + version +
+                ", total=" + total +
+                ", byStatus=" + byStatus +
+                ", byCategory=" + byCategory +
+                ", byPriority=" + byPriority +
+                ", openCount=" + openCount +
+                ", oldestOpenCreatedAt=" + oldestOpenCreatedAt +
+                '}';
+    }
+}
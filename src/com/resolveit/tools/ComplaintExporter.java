@@ -0,0 +1,57 @@
+package com.resolveit.tools;
+
+import com.resolveit.dao.DatabaseConnection;
+import com.resolveit.export.ComplaintExport;
+import com.resolveit.export.ExportFormat;
+import java.nio.file.Paths;
+
+/**
+ * Command-line tool that exports all complaints joined with their feedback
+ *
+ * Usage: java com.resolveit.tools.ComplaintExporter <file> [--format csv|jsonl] [--gzip]
+ * The format defaults from the file extension; a .gz extension also turns on gzip.
+ */
+public class ComplaintExporter {
+
+    public static void main(String[] args) {
+        String file = null;
+        ExportFormat format = null;
+        boolean gzip = false;
+
+        for (int i = 0; i < args.length; i++) {
+            if ("--gzip".equals(args[i])) {
+                gzip = true;
+            } else if ("--format".equals(args[i]) && i + 1 < args.length) {
+                String name = args[++i].toLowerCase();
+                format = "csv".equals(name) ? ExportFormat.CSV
+                        : "jsonl".equals(name) || "json".equals(name) ? ExportFormat.JSON_LINES : null;
+                if (format == null) {
+                    file = null;
+                    break;
+                }
+            } else {
+                file = args[i];
+            }
+        }
+        if (file == null) {
+            System.err.println("Usage: ComplaintExporter <file> [--format csv|jsonl] [--gzip]");
+            System.exit(2);
+        }
+        if (format == null) {
+            format = ExportFormat.forFileName(file);
+        }
+        gzip = gzip || file.toLowerCase().endsWith(".gz");
+
+        long start = System.nanoTime();
+        long rows = ComplaintExport.exportToFile(Paths.get(file), format, gzip);
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        DatabaseConnection.shutdownPool();
+
+        if (rows < 0) {
+            System.err.println("Export failed");
+            System.exit(1);
+        }
+        System.out.println("Exported " + rows + " rows to " + file + " in " + elapsedMillis + " ms ("
+                + (rows * 1000 / elapsedMillis) + " rows/sec)");
+    }
+}
@@ -0,0 +1,229 @@
+package com.resolveit.tools;
+
+import com.resolveit.dao.BatchResult;
+import com.resolveit.dao.ComplaintDAO;
+import com.resolveit.dao.DatabaseConnection;
+import com.resolveit.model.Complaint;
+import com.resolveit.model.ComplaintPriority;
+import com.resolveit.model.ComplaintStatus;
+import com.resolveit.util.ValidationUtil;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line tool that bulk-imports complaints from a CSV or JSON file
+ *
+ * Usage: java com.resolveit.tools.ComplaintImporter <file> [--format csv|json] [--chunk-size N] [--rejects file]
+ * Columns: user_id, title, description, category, and optionally priority, status, created_at.
+ * The file is streamed; rows are validated, then written in chunks of --chunk-size rows
+ * (default 1000), each chunk in its own transaction. Rejected rows, including malformed ones such
+ * as CSV rows with more fields than the header, are listed with their line number on stderr or
+ * in the --rejects file. Only input that cannot be read any further (e.g. an unterminated quote)
+ * stops the import, after writing the rows read before it.
+ */
+public class ComplaintImporter {
+    private static final int DEFAULT_CHUNK_SIZE = 1000;
+    private static final DateTimeFormatter SQL_DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private long imported;
+    private long rejected;
+    private PrintWriter rejects;
+
+    public static void main(String[] args) {
+        String file = null;
+        String format = null;
+        int chunkSize = DEFAULT_CHUNK_SIZE;
+        String rejectsFile = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--format":
+                        format = args[++i].toLowerCase();
+                        break;
+                    case "--chunk-size":
+                        chunkSize = Integer.parseInt(args[++i]);
+                        break;
+                    case "--rejects":
+                        rejectsFile = args[++i];
+                        break;
+                    default:
+                        file = args[i];
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            file = null;
+        }
+        if (file == null || chunkSize < 1) {
+            System.err.println("Usage: ComplaintImporter <file> [--format csv|json] [--chunk-size N] [--rejects file]");
+            System.exit(2);
+        }
+        if (format == null) {
+            String lower = file.toLowerCase();
+            format = lower.endsWith(".json") || lower.endsWith(".jsonl") ? "json" : "csv";
+        }
+
+        ComplaintImporter importer = new ComplaintImporter();
+        long start = System.nanoTime();
+        boolean ok = importer.run(file, format, chunkSize, rejectsFile);
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        DatabaseConnection.shutdownPool();
+
+        System.out.println("Imported " + importer.imported + " complaints, rejected " + importer.rejected
+                + " in " + elapsedMillis + " ms (" + (importer.imported * 1000 / elapsedMillis) + " rows/sec)");
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    private boolean run(String file, String format, int chunkSize, String rejectsFile) {
+        try (Reader input = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8);
+             RecordReader records = "json".equals(format) ? new JsonRecordReader(input) : new CsvRecordReader(input);
+             PrintWriter rejectOut = rejectsFile == null
+                     ? new PrintWriter(System.err, true)
+                     : new PrintWriter(Files.newBufferedWriter(Paths.get(rejectsFile), StandardCharsets.UTF_8))) {
+            rejects = rejectOut;
+
+            List<Complaint> chunk = new ArrayList<>(chunkSize);
+            List<Long> chunkLines = new ArrayList<>(chunkSize);
+            try {
+                Map<String, String> record;
+                while ((record = nextRecord(records)) != null) {
+                    Complaint complaint;
+                    try {
+                        complaint = toComplaint(record);
+                    } catch (IllegalArgumentException e) {
+                        reject(records.getRecordLine(), e.getMessage());
+                        continue;
+                    }
+                    chunk.add(complaint);
+                    chunkLines.add(records.getRecordLine());
+                    if (chunk.size() == chunkSize) {
+                        flush(chunk, chunkLines);
+                    }
+                }
+            } catch (IOException e) {
+                // Reported here: closing the rejects writer may close System.err
+                System.err.println("Error reading " + file + ": " + e.getMessage());
+                return false;
+            } finally {
+                // Earlier chunks are committed either way, so the rows read so far are written too
+                flush(chunk, chunkLines);
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error reading " + file + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Next well-formed record; malformed ones are rejected and skipped
+     */
+    private Map<String, String> nextRecord(RecordReader records) throws IOException {
+        while (true) {
+            try {
+                return records.next();
+            } catch (MalformedRecordException e) {
+                reject(records.getRecordLine(), e.getMessage());
+            }
+        }
+    }
+
+    private void flush(List<Complaint> chunk, List<Long> chunkLines) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        BatchResult<Integer> result = ComplaintDAO.importComplaints(chunk);
+        imported += result.getSuccessCount();
+        for (Map.Entry<Integer, String> failure : result.getFailed().entrySet()) {
+            reject(chunkLines.get(failure.getKey()), failure.getValue());
+        }
+        chunk.clear();
+        chunkLines.clear();
+    }
+
+    private void reject(long line, String reason) {
+        rejected++;
+        rejects.println("line " + line + ": " + reason);
+    }
+
+    /**
+     * Validate a record and build the complaint to insert
+     */
+    private static Complaint toComplaint(Map<String, String> record) {
+        Complaint complaint = new Complaint();
+
+        String userId = ValidationUtil.sanitizeInput(record.get("user_id"));
+        try {
+            complaint.setUserId(Integer.parseInt(userId));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid user_id '" + userId + "'");
+        }
+        if (complaint.getUserId() <= 0) {
+            throw new IllegalArgumentException("invalid user_id '" + userId + "'");
+        }
+
+        String title = record.get("title");
+        if (!ValidationUtil.isValidText(title, 3, 255)) {
+            throw new IllegalArgumentException("title must be 3-255 characters");
+        }
+        complaint.setTitle(ValidationUtil.sanitizeInput(title));
+
+        String description = record.get("description");
+        if (!ValidationUtil.isValidText(description, 1, 65535)) {
+            throw new IllegalArgumentException("description is required");
+        }
+        complaint.setDescription(ValidationUtil.sanitizeInput(description));
+
+        String category = record.get("category");
+        if (!ValidationUtil.isValidText(category, 1, 100)) {
+            throw new IllegalArgumentException("category must be 1-100 characters");
+        }
+        complaint.setCategory(ValidationUtil.sanitizeInput(category));
+
+        String priority = record.get("priority");
+        if (priority != null) {
+            priority = ValidationUtil.sanitizeInput(priority).toUpperCase();
+            ComplaintPriority parsed = ComplaintPriority.fromName(priority);
+            if (parsed == null) {
+                throw new IllegalArgumentException("invalid priority '" + priority + "'");
+            }
+            complaint.setPriority(parsed);
+        }
+
+        String status = record.get("status");
+        if (status != null) {
+            status = ValidationUtil.sanitizeInput(status).toUpperCase();
+            ComplaintStatus parsed = ComplaintStatus.fromName(status);
+            if (parsed == null) {
+                throw new IllegalArgumentException("invalid status '" + status + "'");
+            }
+            complaint.setStatus(parsed);
+        }
+
+        String createdAt = record.get("created_at");
+        if (createdAt != null) {
+            complaint.setCreatedAt(parseDateTime(ValidationUtil.sanitizeInput(createdAt)));
+        }
+        return complaint;
+    }
+
+    private static LocalDateTime parseDateTime(String text) {
+        try {
+            return text.indexOf('T') >= 0 ? LocalDateTime.parse(text) : LocalDateTime.parse(text, SQL_DATE_TIME);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("invalid created_at '" + text + "'");
+        }
+    }
+}
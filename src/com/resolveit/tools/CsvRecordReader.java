@@ -0,0 +1,120 @@
+package com.resolveit.tools;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RFC 4180 style CSV reader: the first record is the header, fields may be quoted,
+ * quoted fields may contain commas, doubled quotes and line breaks.
+ * Empty fields are treated as missing.
+ */
+class CsvRecordReader implements RecordReader {
+    private final BufferedReader reader;
+    private final String[] header;
+    private long line = 1;
+    private long recordLine;
+    private boolean eof;
+
+    CsvRecordReader(Reader input) throws IOException {
+        this.reader = input instanceof BufferedReader ? (BufferedReader) input : new BufferedReader(input);
+        List<String> fields = readFields();
+        if (fields == null) {
+            throw new IOException("CSV input is empty");
+        }
+        this.header = new String[fields.size()];
+        for (int i = 0; i < header.length; i++) {
+            header[i] = fields.get(i).trim().toLowerCase();
+        }
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+        List<String> fields;
+        do {
+            fields = readFields();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isEmpty());  // blank line
+
+        if (fields.size() > header.length) {
+            throw new MalformedRecordException(fields.size() + " fields but the header has " + header.length);
+        }
+        Map<String, String> record = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            if (!fields.get(i).isEmpty()) {
+                record.put(header[i], fields.get(i));
+            }
+        }
+        return record;
+    }
+
+    @Override
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private List<String> readFields() throws IOException {
+        if (eof) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean sawAny = false;
+
+        while (true) {
+            int c = reader.read();
+            if (c == -1) {
+                eof = true;
+                if (quoted) {
+                    throw new IOException("Line " + recordLine + ": unterminated quoted field");
+                }
+                if (!sawAny) {
+                    return null;
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            sawAny = true;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                line++;
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+    }
+}
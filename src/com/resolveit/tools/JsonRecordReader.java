@@ -0,0 +1,207 @@
+package com.resolveit.tools;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streaming reader for flat JSON objects, either one per line (JSON Lines)
+ * or as the elements of a single top-level array. Values must be strings,
+ * numbers, booleans or null; nested objects and arrays are rejected.
+ */
+public class JsonRecordReader implements RecordReader {
+    private final BufferedReader reader;
+    private long line = 1;
+    private long recordLine;
+    private int peeked = -2;
+    private Boolean inArray;
+    private boolean first = true;
+
+    public JsonRecordReader(Reader input) {
+        this.reader = input instanceof BufferedReader ? (BufferedReader) input : new BufferedReader(input);
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+        int c = skipWhitespace();
+        if (inArray == null) {
+            inArray = c == '[';
+            if (inArray) {
+                read();
+                c = skipWhitespace();
+            }
+        }
+        if (inArray) {
+            if (c == ']') {
+                read();
+                expectEnd();
+                return null;
+            }
+            if (!first) {
+                expect(',');
+                c = skipWhitespace();
+            }
+        }
+        if (c == -1) {
+            if (inArray) {
+                throw error("unterminated array");
+            }
+            return null;
+        }
+        first = false;
+        recordLine = line;
+        return readObject();
+    }
+
+    @Override
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Map<String, String> readObject() throws IOException {
+        expect('{');
+        Map<String, String> record = new HashMap<>();
+        if (skipWhitespace() == '}') {
+            read();
+            return record;
+        }
+        while (true) {
+            skipWhitespace();
+            String name = readString().toLowerCase();
+            skipWhitespace();
+            expect(':');
+            String value = readValue();
+            if (value != null) {
+                record.put(name, value);
+            }
+            int c = skipWhitespace();
+            read();
+            if (c == '}') {
+                return record;
+            }
+            if (c != ',') {
+                throw error("expected ',' or '}'");
+            }
+        }
+    }
+
+    private String readValue() throws IOException {
+        int c = skipWhitespace();
+        if (c == '"') {
+            return readString();
+        }
+        if (c == '{' || c == '[') {
+            throw error("nested values are not supported");
+        }
+        StringBuilder literal = new StringBuilder();
+        while ((c = peek()) != -1 && c != ',' && c != '}' && !Character.isWhitespace(c)) {
+            literal.append((char) read());
+        }
+        String text = literal.toString();
+        if (text.isEmpty()) {
+            throw error("missing value");
+        }
+        return "null".equals(text) ? null : text;
+    }
+
+    private String readString() throws IOException {
+        expect('"');
+        StringBuilder sb = new StringBuilder();
+        while (true) {
+            int c = read();
+            if (c == -1 || c == '\n') {
+                throw error("unterminated string");
+            }
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append((char) c);
+                continue;
+            }
+            int escape = read();
+            switch (escape) {
+                case '"':
+                case '\\':
+                case '/':
+                    sb.append((char) escape);
+                    break;
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'u':
+                    char[] hex = new char[4];
+                    for (int i = 0; i < 4; i++) {
+                        hex[i] = (char) read();
+                    }
+                    try {
+                        sb.append((char) Integer.parseInt(new String(hex), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("bad unicode escape");
+                    }
+                    break;
+                default:
+                    throw error("bad escape");
+            }
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        if (read() != expected) {
+            throw error("expected '" + expected + "'");
+        }
+    }
+
+    private void expectEnd() throws IOException {
+        if (skipWhitespace() != -1) {
+            throw error("unexpected content after array");
+        }
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c;
+        while ((c = peek()) != -1 && Character.isWhitespace(c)) {
+            read();
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (peeked == -2) {
+            peeked = reader.read();
+        }
+        return peeked;
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        peeked = -2;
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    private IOException error(String message) {
+        return new IOException("Line " + line + ": " + message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.resolveit.tools;
+
+import java.io.IOException;
+
+/**
+ * Thrown by RecordReader.next() for a record that cannot be turned into fields. Unlike other
+ * IOExceptions the reader has consumed the record and can continue with the next one.
+ */
+class MalformedRecordException extends IOException {
+
+    MalformedRecordException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,38 @@
+package com.resolveit.tools;
+
+import com.resolveit.dao.DatabaseConnection;
+import com.resolveit.dao.FeedbackDAO;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command-line tool that rebuilds complaint rating summaries from the feedback table
+ *
+ * Usage: java com.resolveit.tools.RatingSummaryRepair [complaintId ...]
+ * With no arguments every summary is rebuilt.
+ */
+public class RatingSummaryRepair {
+
+    public static void main(String[] args) {
+        List<Integer> complaintIds = new ArrayList<>();
+        for (String arg : args) {
+            try {
+                complaintIds.add(Integer.parseInt(arg));
+            } catch (NumberFormatException e) {
+                System.err.println("Not a complaint id: " + arg);
+                System.exit(2);
+            }
+        }
+
+        long start = System.nanoTime();
+        int rebuilt = FeedbackDAO.rebuildRatingSummaries(complaintIds);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        DatabaseConnection.shutdownPool();
+
+        if (rebuilt < 0) {
+            System.err.println("Rating summary rebuild failed");
+            System.exit(1);
+        }
+        System.out.println("Rebuilt " + rebuilt + " rating summaries in " + elapsedMillis + " ms");
+    }
+}
@@ -0,0 +1,23 @@
+package com.resolveit.tools;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Streams flat records (field name to text value) from an import file, one at a time
+ */
+interface RecordReader extends Closeable {
+
+    /**
+     * Next record, or null at end of input. Missing or null fields are absent from the map.
+     * A record that is malformed on its own is skipped with MalformedRecordException, after which
+     * reading can continue; any other IOException ends the input.
+     */
+    Map<String, String> next() throws IOException;
+
+    /**
+     * Line of the input on which the last returned record started
+     */
+    long getRecordLine();
+}
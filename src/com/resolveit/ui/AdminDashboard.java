@@ -1,35 +1,60 @@
 package com.resolveit.ui;
 
+import com.resolveit.dao.BatchResult;
 import com.resolveit.dao.ComplaintDAO;
 import com.resolveit.dao.FeedbackDAO;
+import com.resolveit.dao.WriteBehindQueue;
+import com.resolveit.export.ComplaintExport;
+import com.resolveit.export.ExportFormat;
 import com.resolveit.model.Complaint;
+import com.resolveit.model.ComplaintStatus;
 import com.resolveit.model.User;
+import com.resolveit.search.ComplaintSearch;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.File;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
 
 /**
  * Admin Dashboard - Management interface for administrators
  * Allows admins to view all complaints and update their status
  */
 public class AdminDashboard extends JFrame {
+    private static final int PAGE_SIZE = 200;
+    private static final int MAX_CACHED_PAGES = 10;
+    private static final int SEARCH_RESULT_LIMIT = 200;
+    private static final int SEARCH_DELAY_MILLIS = 150;
+    private static final long SUBMIT_FLUSH_MILLIS = 3000;
+    
     private User currentAdmin;
     private JTable complaintsTable;
-    private DefaultTableModel tableModel;
+    private ComplaintTableModel tableModel;
+    private DataLoader dataLoader;
+    private JTextField searchField;
+    private Timer searchTimer;
+    private StatisticsPanel statisticsPanel;
     
     public AdminDashboard(User user) {
         this.currentAdmin = user;
+        this.dataLoader = new DataLoader();
         initializeUI();
         loadAllComplaints();
+        if (!ComplaintSearch.isReady()) {
+            ComplaintSearch.startRebuild();
+        }
     }
     
     private void initializeUI() {
         setTitle("ResolveIt - Admin Dashboard");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setSize(900, 650);
+        setSize(900, 750);
         setLocationRelativeTo(null);
         
         JPanel mainPanel = new JPanel(new BorderLayout(10, 10));
@@ -37,7 +62,7 @@ public class AdminDashboard extends JFrame {
         
         // Header
         JPanel headerPanel = new JPanel();
-        headerPanel.add(new JLabel("Admin: " + currentAdmin.getUsername()));
+        headerPanel.add(new JLabel("Admin: " + currentAdmin.getName()));
         JButton logoutButton = new JButton("Logout");
         logoutButton.addActionListener(new ActionListener() {
             @Override
@@ -46,12 +71,47 @@ public class AdminDashboard extends JFrame {
             }
         });
         headerPanel.add(logoutButton);
-        mainPanel.add(headerPanel, BorderLayout.NORTH);
+        headerPanel.add(new JLabel("Search:"));
+        searchField = new JTextField(20);
+        // Search as you type, once typing pauses
+        searchTimer = new Timer(SEARCH_DELAY_MILLIS, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                searchComplaints();
+            }
+        });
+        searchTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+            
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+            
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+        });
+        headerPanel.add(searchField);
+        headerPanel.add(dataLoader.getIndicator());
+        
+        // Summary statistics under the header
+        JPanel northPanel = new JPanel(new BorderLayout());
+        northPanel.add(headerPanel, BorderLayout.NORTH);
+        statisticsPanel = new StatisticsPanel();
+        northPanel.add(statisticsPanel, BorderLayout.CENTER);
+        mainPanel.add(northPanel, BorderLayout.NORTH);
         
         // Center - Complaints Table
-        String[] columnNames = {"ID", "User ID", "Title", "Category", "Status", "Rating", "Date"};
-        tableModel = new DefaultTableModel(columnNames, 0);
+        tableModel = new ComplaintTableModel(PAGE_SIZE, MAX_CACHED_PAGES, dataLoader);
         complaintsTable = new JTable(tableModel);
+        complaintsTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        ScrollPositionKeeper.install(complaintsTable);
         JScrollPane scrollPane = new JScrollPane(complaintsTable);
         mainPanel.add(scrollPane, BorderLayout.CENTER);
         
@@ -80,44 +140,64 @@ public class AdminDashboard extends JFrame {
         refreshButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                loadAllComplaints();
+                refreshComplaints();
             }
         });
         buttonPanel.add(refreshButton);
         
+        JButton exportButton = new JButton("Export");
+        exportButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                showExportDialog(exportButton);
+            }
+        });
+        buttonPanel.add(exportButton);
+        
         mainPanel.add(buttonPanel, BorderLayout.SOUTH);
         
         add(mainPanel);
     }
     
     private void loadAllComplaints() {
-        tableModel.setRowCount(0);
-        List<Complaint> complaints = ComplaintDAO.getAllComplaints();
-        
-        for (Complaint complaint : complaints) {
-            double avgRating = FeedbackDAO.getAverageRating(complaint.getId());
-            tableModel.addRow(new Object[]{
-                complaint.getId(),
-                complaint.getUserId(),
-                complaint.getTitle(),
-                complaint.getCategory(),
-                complaint.getStatus(),
-                String.format("%.2f", avgRating),
-                complaint.getCreatedAt()
-            });
+        // Pages are fetched on demand as the table is scrolled
+        tableModel.reload();
+    }
+    
+    private void refreshComplaints() {
+        // Only complaints changed since the last load are fetched and patched into the table
+        tableModel.refresh();
+        // Statistics follow this application's own writes; reloading picks up everyone else's
+        statisticsPanel.reload();
+    }
+    
+    private void searchComplaints() {
+        String query = searchField.getText().trim();
+        if (query.isEmpty()) {
+            tableModel.clearSearch();
+        } else {
+            tableModel.search(searchField.getText(), SEARCH_RESULT_LIMIT);
         }
     }
     
     private void showUpdateStatusDialog() {
-        if (complaintsTable.getSelectedRow() == -1) {
+        // The versions shown are sent along, so changes made elsewhere since then are not overwritten
+        Map<Integer, Integer> complaintVersions = new LinkedHashMap<>();
+        for (int row : complaintsTable.getSelectedRows()) {
+            Complaint complaint = tableModel.getComplaintAt(row);
+            if (complaint != null) {
+                complaintVersions.put(complaint.getComplaintId(), complaint.getVersion());
+            }
+        }
+        if (complaintVersions.isEmpty()) {
             JOptionPane.showMessageDialog(this, "Please select a complaint first");
             return;
         }
         
-        String[] statuses = {"PENDING", "IN_PROGRESS", "RESOLVED", "CLOSED"};
-        String newStatus = (String) JOptionPane.showInputDialog(
+        ComplaintStatus[] statuses = ComplaintStatus.values();
+        ComplaintStatus newStatus = (ComplaintStatus) JOptionPane.showInputDialog(
             this,
-            "Select new status:",
+            complaintVersions.size() == 1 ? "Select new status:" : "Select new status for " + complaintVersions.size() + " complaints:",
             "Update Complaint Status",
             JOptionPane.QUESTION_MESSAGE,
             null,
@@ -126,13 +206,40 @@ public class AdminDashboard extends JFrame {
         );
         
         if (newStatus != null) {
-            int complaintId = (int) tableModel.getValueAt(complaintsTable.getSelectedRow(), 0);
-            if (ComplaintDAO.updateComplaintStatus(complaintId, newStatus)) {
-                JOptionPane.showMessageDialog(this, "Status updated successfully!");
-                loadAllComplaints();
-            } else {
-                JOptionPane.showMessageDialog(this, "Failed to update status");
-            }
+            dataLoader.load("update-status", new Callable<BatchResult<Integer>>() {
+                @Override
+                public BatchResult<Integer> call() {
+                    return ComplaintDAO.updateComplaintStatuses(complaintVersions, newStatus);
+                }
+            }, new DataLoader.Callback<BatchResult<Integer>>() {
+                @Override
+                public void onSuccess(BatchResult<Integer> result) {
+                    // Patch the updated rows in place rather than reloading the table; the rows that
+                    // were not updated are reloaded too, so a conflict shows the other change
+                    tableModel.refreshComplaints(result.getSucceeded());
+                    if (result.getFailureCount() == 0) {
+                        JOptionPane.showMessageDialog(AdminDashboard.this, result.getSuccessCount() == 1
+                                ? "Status updated successfully!"
+                                : result.getSuccessCount() + " complaints updated successfully!");
+                    } else {
+                        tableModel.refreshComplaints(result.getFailed().keySet());
+                        StringBuilder message = new StringBuilder();
+                        message.append("Updated ").append(result.getSuccessCount()).append(" complaints, not updated ")
+                                .append(result.getFailureCount()).append(":");
+                        for (Map.Entry<Integer, String> failure : result.getFailed().entrySet()) {
+                            message.append("\n  #").append(failure.getKey()).append(": ").append(failure.getValue());
+                        }
+                        message.append("\n\nComplaints changed by another user have been reloaded; review them and try again.");
+                        JOptionPane.showMessageDialog(AdminDashboard.this, message.toString());
+                    }
+                }
+                
+                @Override
+                public void onFailure(Exception e) {
+                    super.onFailure(e);
+                    JOptionPane.showMessageDialog(AdminDashboard.this, "Failed to update status");
+                }
+            });
         }
     }
     
@@ -141,6 +248,10 @@ public class AdminDashboard extends JFrame {
             JOptionPane.showMessageDialog(this, "Please select a complaint first");
             return;
         }
+        Object selectedId = tableModel.getValueAt(complaintsTable.getSelectedRow(), 0);
+        if (selectedId == null) {
+            return;
+        }
         
         JDialog dialog = new JDialog(this, "Add Feedback", true);
         dialog.setSize(400, 300);
@@ -157,20 +268,46 @@ public class AdminDashboard extends JFrame {
         panel.add(new JLabel("Rating (1-5):"));
         panel.add(ratingSpinner);
         
+        int complaintId = (int) selectedId;
         JButton submitButton = new JButton("Submit Feedback");
         submitButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                int complaintId = (int) tableModel.getValueAt(complaintsTable.getSelectedRow(), 0);
                 String comment = commentArea.getText();
                 int rating = (int) ratingSpinner.getValue();
                 
                 if (!comment.isEmpty()) {
-                    if (FeedbackDAO.submitFeedback(complaintId, currentAdmin.getId(), comment, rating)) {
-                        JOptionPane.showMessageDialog(dialog, "Feedback submitted successfully!");
-                        loadAllComplaints();
-                        dialog.dispose();
-                    }
+                    submitButton.setEnabled(false);
+                    dataLoader.load("submit-feedback", new Callable<String>() {
+                        @Override
+                        public String call() {
+                            if (!FeedbackDAO.submitFeedback(complaintId, currentAdmin.getUserId(), comment, rating)) {
+                                return null;
+                            }
+                            // With write-behind the row is committed later; wait for it so the refresh shows it
+                            if (!WriteBehindQueue.flush(SUBMIT_FLUSH_MILLIS)) {
+                                return "Feedback received. It will appear once it has been saved.";
+                            }
+                            return "Feedback submitted successfully!";
+                        }
+                    }, new DataLoader.Callback<String>() {
+                        @Override
+                        public void onSuccess(String message) {
+                            submitButton.setEnabled(true);
+                            if (message != null) {
+                                JOptionPane.showMessageDialog(dialog, message);
+                                tableModel.refreshComplaint(complaintId);
+                                dialog.dispose();
+                            }
+                        }
+                        
+                        @Override
+                        public void onFailure(Exception ex) {
+                            super.onFailure(ex);
+                            submitButton.setEnabled(true);
+                            JOptionPane.showMessageDialog(dialog, "Failed to submit feedback");
+                        }
+                    });
                 } else {
                     JOptionPane.showMessageDialog(dialog, "Please enter a comment");
                 }
@@ -181,4 +318,62 @@ public class AdminDashboard extends JFrame {
         dialog.add(panel);
         dialog.setVisible(true);
     }
+    
+    private void showExportDialog(JButton exportButton) {
+        String[] formats = {"CSV", "CSV (gzip)", "JSON Lines", "JSON Lines (gzip)"};
+        String choice = (String) JOptionPane.showInputDialog(
+            this,
+            "Export all complaints with their feedback as:",
+            "Export Complaints",
+            JOptionPane.QUESTION_MESSAGE,
+            null,
+            formats,
+            formats[0]
+        );
+        if (choice == null) {
+            return;
+        }
+        ExportFormat format = choice.startsWith("CSV") ? ExportFormat.CSV : ExportFormat.JSON_LINES;
+        boolean gzip = choice.endsWith("(gzip)");
+        
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("complaints." + format.getExtension() + (gzip ? ".gz" : "")));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = chooser.getSelectedFile();
+        
+        exportButton.setEnabled(false);
+        dataLoader.load("export", new Callable<Long>() {
+            @Override
+            public Long call() {
+                return ComplaintExport.exportToFile(file.toPath(), format, gzip);
+            }
+        }, new DataLoader.Callback<Long>() {
+            @Override
+            public void onSuccess(Long rows) {
+                exportButton.setEnabled(true);
+                if (rows >= 0) {
+                    JOptionPane.showMessageDialog(AdminDashboard.this, "Exported " + rows + " rows to " + file);
+                } else {
+                    JOptionPane.showMessageDialog(AdminDashboard.this, "Failed to export complaints");
+                }
+            }
+            
+            @Override
+            public void onFailure(Exception e) {
+                super.onFailure(e);
+                exportButton.setEnabled(true);
+                JOptionPane.showMessageDialog(AdminDashboard.this, "Failed to export complaints");
+            }
+        });
+    }
+    
+    @Override
+    public void dispose() {
+        searchTimer.stop();
+        statisticsPanel.stop();
+        dataLoader.cancelAll();
+        super.dispose();
+    }
 }
@@ -0,0 +1,590 @@
+package com.resolveit.ui;
+
+import com.resolveit.dao.ComplaintChanges;
+import com.resolveit.dao.ComplaintCursor;
+import com.resolveit.dao.ComplaintDAO;
+import com.resolveit.dao.FeedbackDAO;
+import com.resolveit.dao.ParallelQueries;
+import com.resolveit.dao.UserDAO;
+import com.resolveit.model.Complaint;
+import com.resolveit.model.RatingSummary;
+import com.resolveit.model.User;
+import com.resolveit.search.ComplaintSearch;
+import com.resolveit.search.SearchHit;
+import javax.swing.table.AbstractTableModel;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * Lazily loading table model for the admin complaint list.
+ * Rows are fetched one keyset page at a time as the table scrolls towards the end;
+ * only the most recently viewed pages are kept in memory, older ones are re-fetched
+ * from their remembered cursor when scrolled back into view.
+ * Pages are fetched through a DataLoader, so rows show as loading until they arrive.
+ *
+ * refresh() only fetches complaints changed since the last load: loaded rows are
+ * updated in place and complaints newer than the first page are inserted above it.
+ *
+ * search() temporarily replaces the rows with ranked search results; the loaded pages
+ * are kept up to date underneath and shown again by clearSearch().
+ *
+ * Submitter and assignee names are fetched with each batch of rows through
+ * UserDAO.getUsersByIds(), so no row needs a query of its own. The ratings and the
+ * names of a batch are fetched concurrently with ParallelQueries.
+ */
+public class ComplaintTableModel extends AbstractTableModel {
+    private static final String[] COLUMN_NAMES = {"ID", "Submitted By", "Assigned To", "Title", "Category", "Status", "Rating", "Date"};
+    private static final String LOADING = "Loading...";
+
+    private final int pageSize;
+    private final int maxCachedPages;
+    private final DataLoader loader;
+
+    // pageStarts.get(i) is the cursor that fetches page i (null until the first page is loaded)
+    private final List<ComplaintCursor> pageStarts = new ArrayList<>();
+    private final Map<Integer, Page> pages;
+    private final Set<Integer> pendingPages = new HashSet<>();
+    private int pagedRowCount;
+    private boolean exhausted;
+    private int generation;
+
+    // Complaints that appeared after the first page was loaded, shown above the paged rows
+    private final List<Complaint> headRows = new ArrayList<>();
+    private final Map<Integer, RatingSummary> headRatings = new HashMap<>();
+    private Complaint newestPagedRow;
+    private LocalDateTime watermark;
+    private int batchRefreshes;
+
+    // Ranked search results shown instead of the paged list, or null when not searching
+    private List<Complaint> searchRows;
+    private final Map<Integer, RatingSummary> searchRatings = new HashMap<>();
+    private int searchGeneration;
+
+    // Names of the submitters and assignees of every row fetched so far
+    private final Map<Integer, String> userNames = new HashMap<>();
+
+    public ComplaintTableModel(int pageSize, int maxCachedPages, DataLoader loader) {
+        if (pageSize < 1 || maxCachedPages < 2) {
+            throw new IllegalArgumentException("Page size must be positive and at least two pages must be cached");
+        }
+        this.pageSize = pageSize;
+        this.maxCachedPages = maxCachedPages;
+        this.loader = loader;
+        this.pages = new LinkedHashMap<Integer, Page>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Page> eldest) {
+                return size() > ComplaintTableModel.this.maxCachedPages;
+            }
+        };
+    }
+
+    /**
+     * Discard everything and load the first page again; fetches from a previous load are dropped
+     */
+    public void reload() {
+        for (Integer pageIndex : pendingPages) {
+            loader.cancel(pageKey(pageIndex));
+        }
+        loader.cancel("complaint-changes");
+        generation++;
+        pageStarts.clear();
+        pages.clear();
+        pendingPages.clear();
+        headRows.clear();
+        headRatings.clear();
+        newestPagedRow = null;
+        watermark = null;
+        pagedRowCount = 0;
+        exhausted = false;
+        pageStarts.add(null);
+        fireTableDataChanged();
+        requestPage(0);
+    }
+
+    /**
+     * Apply complaints changed since the last load or refresh, or reload if that is cheaper
+     */
+    public void refresh() {
+        if (watermark == null) {
+            reload();
+            return;
+        }
+        int requestGeneration = generation;
+        LocalDateTime since = watermark;
+        int limit = pageSize * maxCachedPages;
+        loader.load("complaint-changes", new Callable<Delta>() {
+            @Override
+            public Delta call() {
+                ComplaintChanges changes = ComplaintDAO.getComplaintsChangedSince(since, null, limit);
+                Page details = fetchDetails(changes.getComplaints());
+                return new Delta(changes, details.ratings, details.users);
+            }
+        }, new DataLoader.Callback<Delta>() {
+            @Override
+            public void onSuccess(Delta delta) {
+                if (requestGeneration != generation) {
+                    return;
+                }
+                if (delta.changes.isTruncated()) {
+                    // The rows past the limit were never read, so the search index has not seen them either
+                    ComplaintSearch.complaintsChangedUnreported();
+                    reload();
+                    return;
+                }
+                rememberUsers(delta.users);
+                applyChanges(delta.changes.getComplaints(), delta.ratings);
+                watermark = delta.changes.getWatermark();
+            }
+        });
+    }
+
+    /**
+     * Re-read a single complaint and its rating, e.g. after feedback was added to it
+     */
+    public void refreshComplaint(int complaintId) {
+        refreshComplaints("complaint-" + complaintId, Collections.singletonList(complaintId));
+    }
+
+    /**
+     * Re-read a set of complaints and their ratings and apply them in one update, e.g. after a bulk status change
+     */
+    public void refreshComplaints(Collection<Integer> complaintIds) {
+        refreshComplaints("complaint-batch-" + (++batchRefreshes), new ArrayList<>(complaintIds));
+    }
+
+    private void refreshComplaints(String key, List<Integer> complaintIds) {
+        int requestGeneration = generation;
+        loader.load(key, new Callable<Delta>() {
+            @Override
+            public Delta call() {
+                List<Complaint> changed = ComplaintDAO.getComplaintsByIds(complaintIds);
+                Page details = fetchDetails(changed);
+                return new Delta(new ComplaintChanges(changed, null, false), details.ratings, details.users);
+            }
+        }, new DataLoader.Callback<Delta>() {
+            @Override
+            public void onSuccess(Delta delta) {
+                if (requestGeneration == generation) {
+                    rememberUsers(delta.users);
+                    applyChanges(delta.changes.getComplaints(), delta.ratings);
+                }
+            }
+        });
+    }
+
+    /**
+     * Show the best matches for the query instead of the paged list
+     */
+    public void search(String query, int limit) {
+        int requestSearch = ++searchGeneration;
+        loader.load("complaint-search", new Callable<Delta>() {
+            @Override
+            public Delta call() {
+                List<SearchHit> hits = ComplaintSearch.search(query, limit);
+                List<Integer> ids = new ArrayList<>(hits.size());
+                for (SearchHit hit : hits) {
+                    ids.add(hit.getComplaintId());
+                }
+                // Fetch the rows and put them back into ranking order
+                Map<Integer, Complaint> byId = new HashMap<>();
+                for (Complaint complaint : ComplaintDAO.getComplaintsByIds(ids)) {
+                    byId.put(complaint.getComplaintId(), complaint);
+                }
+                List<Complaint> ranked = new ArrayList<>(ids.size());
+                for (Integer id : ids) {
+                    if (byId.containsKey(id)) {
+                        ranked.add(byId.get(id));
+                    }
+                }
+                Page details = fetchDetails(ranked);
+                return new Delta(new ComplaintChanges(ranked, null, false), details.ratings, details.users);
+            }
+        }, new DataLoader.Callback<Delta>() {
+            @Override
+            public void onSuccess(Delta delta) {
+                if (requestSearch == searchGeneration) {
+                    rememberUsers(delta.users);
+                    searchRows = new ArrayList<>(delta.changes.getComplaints());
+                    searchRatings.clear();
+                    searchRatings.putAll(delta.ratings);
+                    fireTableDataChanged();
+                }
+            }
+        });
+    }
+
+    /**
+     * Leave search results and show the paged list again
+     */
+    public void clearSearch() {
+        searchGeneration++;
+        loader.cancel("complaint-search");
+        if (searchRows != null) {
+            searchRows = null;
+            searchRatings.clear();
+            fireTableDataChanged();
+        }
+    }
+
+    public boolean isShowingSearchResults() {
+        return searchRows != null;
+    }
+
+    /**
+     * Update loaded rows in place and insert complaints newer than the loaded list at the top.
+     * Complaints that belong to pages not currently in memory are picked up when those pages load.
+     */
+    public void applyChanges(List<Complaint> changed, Map<Integer, RatingSummary> ratings) {
+        for (Complaint complaint : changed) {
+            RatingSummary rating = ratings.get(complaint.getComplaintId());
+            int row = replaceLoaded(complaint, rating);
+            if (searchRows != null) {
+                // Paged rows are updated silently; only matching search results are repainted
+                int searchRow = replaceSearchResult(complaint, rating);
+                if (searchRow >= 0) {
+                    fireTableRowsUpdated(searchRow, searchRow);
+                }
+                if (row < 0 && (newestPagedRow == null || sortsBefore(complaint, newestPagedRow))) {
+                    headRows.add(insertionIndex(complaint), complaint);
+                    if (rating != null) {
+                        headRatings.put(complaint.getComplaintId(), rating);
+                    }
+                }
+            } else if (row >= 0) {
+                fireTableRowsUpdated(row, row);
+            } else if (newestPagedRow == null || sortsBefore(complaint, newestPagedRow)) {
+                int index = insertionIndex(complaint);
+                headRows.add(index, complaint);
+                if (rating != null) {
+                    headRatings.put(complaint.getComplaintId(), rating);
+                }
+                fireTableRowsInserted(index, index);
+            }
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return searchRows != null ? searchRows.size() : headRows.size() + pagedRowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        Complaint complaint = getComplaintAt(rowIndex);
+        if (complaint == null) {
+            return columnIndex == 3 ? LOADING : null;
+        }
+        switch (columnIndex) {
+            case 0:
+                return complaint.getComplaintId();
+            case 1:
+                return userName(complaint.getUserId());
+            case 2:
+                return complaint.getAssignedTo() == null ? null : userName(complaint.getAssignedTo());
+            case 3:
+                return complaint.getTitle();
+            case 4:
+                return complaint.getCategory();
+            case 5:
+                return complaint.getStatus();
+            case 6:
+                RatingSummary rating = searchRows != null ? searchRatings.get(complaint.getComplaintId())
+                        : rowIndex < headRows.size()
+                        ? headRatings.get(complaint.getComplaintId())
+                        : pages.get((rowIndex - headRows.size()) / pageSize).ratings.get(complaint.getComplaintId());
+                return String.format("%.2f", rating == null ? 0.0 : rating.getAverageRating());
+            case 7:
+                return complaint.getCreatedAt();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Complaint shown at the given row, or null while its page is being fetched
+     */
+    public Complaint getComplaintAt(int rowIndex) {
+        if (rowIndex < 0 || rowIndex >= getRowCount()) {
+            return null;
+        }
+        if (searchRows != null) {
+            return searchRows.get(rowIndex);
+        }
+        if (rowIndex < headRows.size()) {
+            return headRows.get(rowIndex);
+        }
+        int pagedIndex = rowIndex - headRows.size();
+        int pageIndex = pagedIndex / pageSize;
+        if (!exhausted && pagedIndex >= pagedRowCount - pageSize / 2) {
+            // The end of the loaded rows is visible, append the next page
+            requestPage(pageStarts.size() - 1);
+        }
+        Page page = pages.get(pageIndex);
+        if (page == null) {
+            requestPage(pageIndex);
+            return null;
+        }
+        int offset = pagedIndex % pageSize;
+        return offset < page.rows.size() ? page.rows.get(offset) : null;
+    }
+
+    private void requestPage(int pageIndex) {
+        if (!pendingPages.add(pageIndex)) {
+            return;
+        }
+        int requestGeneration = generation;
+        boolean initial = pageIndex == 0 && watermark == null;
+        ComplaintCursor start = pageStarts.get(pageIndex);
+        loader.load(pageKey(pageIndex), new Callable<Page>() {
+            @Override
+            public Page call() {
+                // Read the watermark before the first page so no change falls between the two
+                LocalDateTime loadWatermark = initial ? ComplaintDAO.getChangeWatermark(null) : null;
+                Page page = fetchPage(start);
+                page.watermark = loadWatermark;
+                return page;
+            }
+        }, new DataLoader.Callback<Page>() {
+            @Override
+            public void onSuccess(Page page) {
+                if (requestGeneration == generation) {
+                    pendingPages.remove(pageIndex);
+                    rememberUsers(page.users);
+                    pageLoaded(pageIndex, page);
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                super.onFailure(e);
+                if (requestGeneration == generation) {
+                    pendingPages.remove(pageIndex);
+                }
+            }
+        });
+    }
+
+    private void pageLoaded(int pageIndex, Page page) {
+        if (page.watermark != null) {
+            watermark = page.watermark;
+        }
+        boolean appending = pageIndex == pageStarts.size() - 1 && !exhausted;
+        if (!appending) {
+            // Re-fetch of an evicted page that scrolled back into view
+            pages.put(pageIndex, page);
+            if (searchRows == null) {
+                int firstRow = headRows.size() + pageIndex * pageSize;
+                fireTableRowsUpdated(firstRow, Math.min(firstRow + pageSize, getRowCount()) - 1);
+            }
+            return;
+        }
+
+        if (pageIndex == 0 && !page.rows.isEmpty()) {
+            // Pin the first page to its top row so re-fetching it never pulls in newer complaints
+            newestPagedRow = page.rows.get(0);
+            pageStarts.set(0, new ComplaintCursor(newestPagedRow.getCreatedAt(), newestPagedRow.getComplaintId() + 1));
+        }
+        if (page.rows.size() < pageSize) {
+            exhausted = true;
+        } else {
+            pageStarts.add(ComplaintCursor.after(page.rows.get(page.rows.size() - 1)));
+        }
+        if (page.rows.isEmpty()) {
+            return;
+        }
+        pages.put(pageIndex, page);
+        int firstRow = headRows.size() + pagedRowCount;
+        pagedRowCount += page.rows.size();
+        if (searchRows == null) {
+            fireTableRowsInserted(firstRow, getRowCount() - 1);
+        }
+    }
+
+    /**
+     * Replace a loaded copy of the complaint; returns its table row or -1 if it is not in memory
+     */
+    private int replaceLoaded(Complaint complaint, RatingSummary rating) {
+        for (int i = 0; i < headRows.size(); i++) {
+            if (headRows.get(i).getComplaintId() == complaint.getComplaintId()) {
+                headRows.set(i, complaint);
+                headRatings.remove(complaint.getComplaintId());
+                if (rating != null) {
+                    headRatings.put(complaint.getComplaintId(), rating);
+                }
+                return i;
+            }
+        }
+        for (Map.Entry<Integer, Page> entry : pages.entrySet()) {
+            List<Complaint> rows = entry.getValue().rows;
+            for (int i = 0; i < rows.size(); i++) {
+                if (rows.get(i).getComplaintId() == complaint.getComplaintId()) {
+                    rows.set(i, complaint);
+                    entry.getValue().ratings.remove(complaint.getComplaintId());
+                    if (rating != null) {
+                        entry.getValue().ratings.put(complaint.getComplaintId(), rating);
+                    }
+                    return headRows.size() + entry.getKey() * pageSize + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private int replaceSearchResult(Complaint complaint, RatingSummary rating) {
+        for (int i = 0; i < searchRows.size(); i++) {
+            if (searchRows.get(i).getComplaintId() == complaint.getComplaintId()) {
+                searchRows.set(i, complaint);
+                searchRatings.remove(complaint.getComplaintId());
+                if (rating != null) {
+                    searchRatings.put(complaint.getComplaintId(), rating);
+                }
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Position in headRows keeping (created_at DESC, id DESC) order
+     */
+    private int insertionIndex(Complaint complaint) {
+        int index = 0;
+        while (index < headRows.size() && sortsBefore(headRows.get(index), complaint)) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * True if a comes before b in (created_at DESC, id DESC) order
+     */
+    private static boolean sortsBefore(Complaint a, Complaint b) {
+        if (b.getCreatedAt() == null) {
+            return false;
+        }
+        if (a.getCreatedAt() == null) {
+            return true;
+        }
+        int byTime = a.getCreatedAt().compareTo(b.getCreatedAt());
+        return byTime > 0 || (byTime == 0 && a.getComplaintId() > b.getComplaintId());
+    }
+
+    private static String pageKey(int pageIndex) {
+        return "complaint-page-" + pageIndex;
+    }
+
+    private static List<Integer> idsOf(List<Complaint> complaints) {
+        List<Integer> ids = new ArrayList<>(complaints.size());
+        for (Complaint complaint : complaints) {
+            ids.add(complaint.getComplaintId());
+        }
+        return ids;
+    }
+
+    /**
+     * Submitters and assignees of the complaints
+     */
+    private static Set<Integer> userIdsOf(List<Complaint> complaints) {
+        Set<Integer> ids = new HashSet<>();
+        for (Complaint complaint : complaints) {
+            ids.add(complaint.getUserId());
+            if (complaint.getAssignedTo() != null) {
+                ids.add(complaint.getAssignedTo());
+            }
+        }
+        return ids;
+    }
+
+    private void rememberUsers(Map<Integer, User> users) {
+        for (User user : users.values()) {
+            userNames.put(user.getUserId(), user.getName());
+        }
+    }
+
+    /**
+     * Name of a user, or their id if it could not be looked up
+     */
+    private String userName(int userId) {
+        String name = userNames.get(userId);
+        return name != null ? name : "#" + userId;
+    }
+
+    private Page fetchPage(ComplaintCursor start) {
+        return fetchDetails(ComplaintDAO.getComplaintsPage(start, pageSize));
+    }
+
+    /**
+     * The rows with their ratings and users, both looked up at the same time
+     */
+    private static Page fetchDetails(final List<Complaint> rows) {
+        if (rows.isEmpty()) {
+            return new Page(rows, Collections.<Integer, RatingSummary>emptyMap(), Collections.<Integer, User>emptyMap());
+        }
+        try (ParallelQueries queries = new ParallelQueries()) {
+            ParallelQueries.Task<Map<Integer, RatingSummary>> ratings = queries.fork(new Callable<Map<Integer, RatingSummary>>() {
+                @Override
+                public Map<Integer, RatingSummary> call() {
+                    return FeedbackDAO.getRatingSummaries(idsOf(rows));
+                }
+            });
+            ParallelQueries.Task<Map<Integer, User>> users = queries.fork(new Callable<Map<Integer, User>>() {
+                @Override
+                public Map<Integer, User> call() {
+                    return UserDAO.getUsersByIds(userIdsOf(rows));
+                }
+            });
+            queries.join();
+            return new Page(rows, ratings.get(), users.get());
+        }
+    }
+
+    /**
+     * One keyset page and the ratings and users of its complaints
+     */
+    private static class Page {
+        private final List<Complaint> rows;
+        private final Map<Integer, RatingSummary> ratings;
+        private final Map<Integer, User> users;
+        private LocalDateTime watermark;
+
+        Page(List<Complaint> rows, Map<Integer, RatingSummary> ratings, Map<Integer, User> users) {
+            this.rows = rows;
+            this.ratings = ratings;
+            this.users = users;
+        }
+    }
+
+    /**
+     * Changed complaints, their current ratings and their users
+     */
+    private static class Delta {
+        private final ComplaintChanges changes;
+        private final Map<Integer, RatingSummary> ratings;
+        private final Map<Integer, User> users;
+
+        Delta(ComplaintChanges changes, Map<Integer, RatingSummary> ratings, Map<Integer, User> users) {
+            this.changes = changes;
+            this.ratings = ratings;
+            this.users = users;
+        }
+    }
+}
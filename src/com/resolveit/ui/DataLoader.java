@@ -0,0 +1,122 @@
+package com.resolveit.ui;
+
+import javax.swing.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Runs DAO calls off the Event Dispatch Thread and hands results back on it.
+ * Each load has a key; starting a new load with the same key cancels the
+ * previous one and its result is never delivered. While anything is running
+ * the shared progress indicator is visible.
+ * All methods must be called on the Event Dispatch Thread.
+ */
+public class DataLoader {
+    private final JProgressBar indicator;
+    private final Map<String, SwingWorker<?, ?>> latest = new HashMap<>();
+    private int running;
+
+    public DataLoader() {
+        this.indicator = new JProgressBar();
+        indicator.setIndeterminate(true);
+        indicator.setStringPainted(true);
+        indicator.setString("Loading...");
+        indicator.setVisible(false);
+    }
+
+    /**
+     * Indicator to place in the owning window; shown while loads are running
+     */
+    public JProgressBar getIndicator() {
+        return indicator;
+    }
+
+    /**
+     * Run the task in the background, superseding any running task with the same key
+     */
+    public <T> void load(String key, Callable<T> task, Callback<T> callback) {
+        cancel(key);
+
+        SwingWorker<T, Void> worker = new SwingWorker<T, Void>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                return task.call();
+            }
+
+            @Override
+            protected void done() {
+                // A worker that was superseded may finish before its cancellation takes effect
+                boolean current = latest.get(key) == this;
+                if (current) {
+                    latest.remove(key);
+                }
+                finished();
+                if (!current || isCancelled()) {
+                    return;
+                }
+                try {
+                    callback.onSuccess(get());
+                } catch (InterruptedException | CancellationException e) {
+                    // superseded while finishing; nothing to deliver
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    callback.onFailure(cause instanceof Exception ? (Exception) cause : e);
+                }
+            }
+        };
+
+        latest.put(key, worker);
+        started();
+        worker.execute();
+    }
+
+    /**
+     * Cancel the running task with this key, if any; its callback is not invoked
+     */
+    public void cancel(String key) {
+        SwingWorker<?, ?> previous = latest.remove(key);
+        if (previous != null) {
+            previous.cancel(true);
+        }
+    }
+
+    /**
+     * Cancel everything, e.g. when the owning window is disposed
+     */
+    public void cancelAll() {
+        for (SwingWorker<?, ?> worker : latest.values()) {
+            worker.cancel(true);
+        }
+        latest.clear();
+    }
+
+    public boolean isLoading(String key) {
+        return latest.containsKey(key);
+    }
+
+    private void started() {
+        running++;
+        indicator.setVisible(true);
+    }
+
+    private void finished() {
+        running--;
+        if (running == 0) {
+            indicator.setVisible(false);
+        }
+    }
+
+    /**
+     * Receives the result of a load on the Event Dispatch Thread
+     */
+    public abstract static class Callback<T> {
+        public abstract void onSuccess(T result);
+
+        public void onFailure(Exception e) {
+            System.err.println("Background load failed: " + e.getMessage());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.resolveit.ui;
 
+import com.resolveit.dao.AuthenticationBusyException;
 import com.resolveit.dao.UserDAO;
 import com.resolveit.model.User;
 import com.resolveit.util.ValidationUtil;
@@ -7,6 +8,7 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.concurrent.Callable;
 
 /**
  * Login Frame - GUI for user authentication
@@ -16,8 +18,11 @@ public class LoginFrame extends JFrame {
     private JTextField emailField;
     private JPasswordField passwordField;
     private JLabel statusLabel;
+    private JButton loginButton;
+    private DataLoader dataLoader;
     
     public LoginFrame() {
+        this.dataLoader = new DataLoader();
         initializeUI();
     }
     
@@ -51,7 +56,7 @@ public class LoginFrame extends JFrame {
         panel.add(statusLabel);
         
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 0));
-        JButton loginButton = new JButton("Login");
+        loginButton = new JButton("Login");
         loginButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
@@ -82,26 +87,51 @@ public class LoginFrame extends JFrame {
             return;
         }
         
-        User user = UserDAO.authenticateUser(email, password);
+        loginButton.setEnabled(false);
+        statusLabel.setForeground(Color.GRAY);
+        statusLabel.setText("Signing in...");
         
-        if (user != null) {
-            statusLabel.setForeground(Color.GREEN);
-            statusLabel.setText("Login successful!");
-            
-            if ("ADMIN".equals(user.getRole())) {
-                AdminDashboard adminDashboard = new AdminDashboard(user);
-                adminDashboard.setVisible(true);
-            } else {
-                UserDashboard userDashboard = new UserDashboard(user);
-                userDashboard.setVisible(true);
+        dataLoader.load("login", new Callable<User>() {
+            @Override
+            public User call() {
+                return UserDAO.authenticateUser(email, password);
+            }
+        }, new DataLoader.Callback<User>() {
+            @Override
+            public void onSuccess(User user) {
+                loginButton.setEnabled(true);
+                if (user != null) {
+                    statusLabel.setForeground(Color.GREEN);
+                    statusLabel.setText("Login successful!");
+                    
+                    if ("ADMIN".equals(user.getRole())) {
+                        AdminDashboard adminDashboard = new AdminDashboard(user);
+                        adminDashboard.setVisible(true);
+                    } else {
+                        UserDashboard userDashboard = new UserDashboard(user);
+                        userDashboard.setVisible(true);
+                    }
+                    
+                    dispose();
+                } else {
+                    statusLabel.setForeground(Color.RED);
+                    statusLabel.setText("Invalid credentials");
+                    passwordField.setText("");
+                }
             }
             
-            this.dispose();
-        } else {
-            statusLabel.setForeground(Color.RED);
-            statusLabel.setText("Invalid credentials");
-            passwordField.setText("");
-        }
+            @Override
+            public void onFailure(Exception e) {
+                super.onFailure(e);
+                loginButton.setEnabled(true);
+                statusLabel.setForeground(Color.RED);
+                if (e instanceof AuthenticationBusyException) {
+                    statusLabel.setText("Server busy, please try again in a moment");
+                } else {
+                    statusLabel.setText("Login failed, please try again");
+                }
+            }
+        });
     }
     
     private void showRegisterDialog() {
@@ -132,12 +162,31 @@ public class LoginFrame extends JFrame {
                 String password = new String(regPasswordField.getPassword());
                 
                 if (ValidationUtil.isValidUsername(username) && ValidationUtil.isValidEmail(email) && ValidationUtil.isValidPassword(password)) {
-                    if (UserDAO.registerUser(username, email, password)) {
-                        JOptionPane.showMessageDialog(registerDialog, "Registration successful!");
-                        registerDialog.dispose();
-                    } else {
-                        JOptionPane.showMessageDialog(registerDialog, "Registration failed");
-                    }
+                    registerConfirmButton.setEnabled(false);
+                    dataLoader.load("register", new Callable<Boolean>() {
+                        @Override
+                        public Boolean call() {
+                            return UserDAO.registerUser(username, email, password);
+                        }
+                    }, new DataLoader.Callback<Boolean>() {
+                        @Override
+                        public void onSuccess(Boolean registered) {
+                            registerConfirmButton.setEnabled(true);
+                            if (registered) {
+                                JOptionPane.showMessageDialog(registerDialog, "Registration successful!");
+                                registerDialog.dispose();
+                            } else {
+                                JOptionPane.showMessageDialog(registerDialog, "Registration failed");
+                            }
+                        }
+                        
+                        @Override
+                        public void onFailure(Exception ex) {
+                            super.onFailure(ex);
+                            registerConfirmButton.setEnabled(true);
+                            JOptionPane.showMessageDialog(registerDialog, "Registration failed");
+                        }
+                    });
                 } else {
                     JOptionPane.showMessageDialog(registerDialog, "Invalid input");
                 }
@@ -148,4 +197,10 @@ public class LoginFrame extends JFrame {
         registerDialog.add(panel);
         registerDialog.setVisible(true);
     }
+    
+    @Override
+    public void dispose() {
+        dataLoader.cancelAll();
+        super.dispose();
+    }
 }
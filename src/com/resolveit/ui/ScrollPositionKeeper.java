@@ -0,0 +1,45 @@
+package com.resolveit.ui;
+
+import javax.swing.JTable;
+import javax.swing.JViewport;
+import javax.swing.SwingUtilities;
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+import java.awt.Point;
+
+/**
+ * Keeps the rows a user is looking at in place when a refresh inserts rows above them
+ */
+public class ScrollPositionKeeper implements TableModelListener {
+    private final JTable table;
+
+    private ScrollPositionKeeper(JTable table) {
+        this.table = table;
+    }
+
+    public static void install(JTable table) {
+        table.getModel().addTableModelListener(new ScrollPositionKeeper(table));
+    }
+
+    @Override
+    public void tableChanged(TableModelEvent e) {
+        if (e.getType() != TableModelEvent.INSERT || !(table.getParent() instanceof JViewport)) {
+            return;
+        }
+        JViewport viewport = (JViewport) table.getParent();
+        Point position = viewport.getViewPosition();
+        int firstVisibleRow = table.rowAtPoint(position);
+        if (position.y == 0 || firstVisibleRow < 0 || e.getFirstRow() > firstVisibleRow) {
+            return;
+        }
+        int insertedRows = e.getLastRow() - e.getFirstRow() + 1;
+        Point shifted = new Point(position.x, position.y + insertedRows * table.getRowHeight());
+        // Listeners run before the table has resized for the new rows, so move the view afterwards
+        SwingUtilities.invokeLater(new Runnable() {
+            @Override
+            public void run() {
+                viewport.setViewPosition(shifted);
+            }
+        });
+    }
+}
@@ -0,0 +1,121 @@
+package com.resolveit.ui;
+
+import com.resolveit.stats.ComplaintStatistics;
+import com.resolveit.stats.StatisticsSnapshot;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Summary of all complaints for the admin dashboard: totals, open complaint ages and the
+ * breakdowns by status, priority and category. It only reads ComplaintStatistics snapshots,
+ * so rendering costs the same however many complaints there are.
+ */
+public class StatisticsPanel extends JPanel {
+    private static final int POLL_MILLIS = 1000;
+    private static final int TOP_CATEGORIES = 5;
+
+    private final JLabel totalLabel = new JLabel();
+    private final JLabel openLabel = new JLabel();
+    private final JLabel statusLabel = new JLabel();
+    private final JLabel priorityLabel = new JLabel();
+    private final JLabel categoryLabel = new JLabel();
+    private final Timer pollTimer;
+    private StatisticsSnapshot rendered;
+
+    public StatisticsPanel() {
+        super(new GridLayout(0, 1, 0, 2));
+        setBorder(BorderFactory.createTitledBorder("Summary"));
+        JPanel countsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 15, 0));
+        countsPanel.add(totalLabel);
+        countsPanel.add(openLabel);
+        add(countsPanel);
+        add(statusLabel);
+        add(priorityLabel);
+        add(categoryLabel);
+        totalLabel.setText("Loading statistics...");
+
+        // Updates arrive as new snapshots; ages also change with the clock, so render on every tick
+        pollTimer = new Timer(POLL_MILLIS, new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                render();
+            }
+        });
+        pollTimer.start();
+        if (ComplaintStatistics.getSnapshot() == null) {
+            ComplaintStatistics.startReload();
+        }
+        render();
+    }
+
+    /**
+     * Recompute the statistics from the database in the background
+     */
+    public void reload() {
+        ComplaintStatistics.startReload();
+    }
+
+    public void stop() {
+        pollTimer.stop();
+    }
+
+    private void render() {
+        StatisticsSnapshot snapshot = ComplaintStatistics.getSnapshot();
+        if (snapshot == null) {
+            return;
+        }
+        if (snapshot != rendered) {
+            totalLabel.setText("Total: " + snapshot.getTotal());
+            statusLabel.setText("  By status: " + describe(snapshot.getByStatus(), Integer.MAX_VALUE));
+            priorityLabel.setText("  By priority: " + describe(snapshot.getByPriority(), Integer.MAX_VALUE));
+            categoryLabel.setText("  Top categories: " + describe(snapshot.getByCategory(), TOP_CATEGORIES));
+            rendered = snapshot;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (snapshot.getOpenCount() == 0) {
+            openLabel.setText("Open: 0");
+        } else {
+            openLabel.setText("Open: " + snapshot.getOpenCount()
+                    + "   Average age: " + formatAge(snapshot.getAverageOpenAge(now))
+                    + "   Oldest: " + formatAge(snapshot.getOldestOpenAge(now)));
+        }
+    }
+
+    private static String describe(Map<String, Long> counts, int limit) {
+        if (counts.isEmpty()) {
+            return "none";
+        }
+        StringBuilder text = new StringBuilder();
+        int shown = 0;
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            if (shown == limit) {
+                text.append(", ...");
+                break;
+            }
+            if (shown > 0) {
+                text.append(", ");
+            }
+            text.append(entry.getKey()).append(' ').append(entry.getValue());
+            shown++;
+        }
+        return text.toString();
+    }
+
+    private static String formatAge(Duration age) {
+        if (age == null) {
+            return "-";
+        }
+        if (age.toDays() > 0) {
+            return age.toDays() + "d " + age.toHours() % 24 + "h";
+        }
+        if (age.toHours() > 0) {
+            return age.toHours() + "h " + age.toMinutes() % 60 + "m";
+        }
+        return age.toMinutes() + "m";
+    }
+}
@@ -0,0 +1,118 @@
+package com.resolveit.ui;
+
+import com.resolveit.model.Complaint;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Table model for the user's own complaints.
+ * Refreshes are applied in place: changed rows are updated, new rows are inserted
+ * at their position, and untouched rows (and the table selection) are left alone.
+ */
+public class UserComplaintTableModel extends AbstractTableModel {
+    private static final String[] COLUMN_NAMES = {"ID", "Title", "Category", "Status", "Date"};
+
+    private final List<Complaint> rows = new ArrayList<>();
+    private final Map<Integer, Integer> rowById = new HashMap<>();
+
+    /**
+     * Replace all rows
+     */
+    public void setComplaints(List<Complaint> complaints) {
+        rows.clear();
+        rows.addAll(complaints);
+        reindex();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Apply inserted/updated complaints in place. Returns the number of rows inserted.
+     */
+    public int applyChanges(List<Complaint> changed) {
+        int inserted = 0;
+        for (Complaint complaint : changed) {
+            Integer row = rowById.get(complaint.getComplaintId());
+            if (row != null) {
+                rows.set(row, complaint);
+                fireTableRowsUpdated(row, row);
+            } else {
+                int index = insertionIndex(complaint);
+                rows.add(index, complaint);
+                reindex();
+                fireTableRowsInserted(index, index);
+                inserted++;
+            }
+        }
+        return inserted;
+    }
+
+    public Complaint getComplaintAt(int rowIndex) {
+        return rows.get(rowIndex);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        Complaint complaint = rows.get(rowIndex);
+        switch (columnIndex) {
+            case 0:
+                return complaint.getComplaintId();
+            case 1:
+                return complaint.getTitle();
+            case 2:
+                return complaint.getCategory();
+            case 3:
+                return complaint.getStatus();
+            case 4:
+                return complaint.getCreatedAt();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Position keeping the (created_at DESC, id DESC) order of the list
+     */
+    private int insertionIndex(Complaint complaint) {
+        int index = 0;
+        while (index < rows.size() && sortsBefore(rows.get(index), complaint)) {
+            index++;
+        }
+        return index;
+    }
+
+    private static boolean sortsBefore(Complaint a, Complaint b) {
+        if (b.getCreatedAt() == null) {
+            return false;
+        }
+        if (a.getCreatedAt() == null) {
+            return true;
+        }
+        int byTime = a.getCreatedAt().compareTo(b.getCreatedAt());
+        return byTime > 0 || (byTime == 0 && a.getComplaintId() > b.getComplaintId());
+    }
+
+    private void reindex() {
+        rowById.clear();
+        for (int i = 0; i < rows.size(); i++) {
+            rowById.put(rows.get(i).getComplaintId(), i);
+        }
+    }
+}
@@ -1,29 +1,39 @@
 package com.resolveit.ui;
 
+import com.resolveit.dao.ComplaintChanges;
 import com.resolveit.dao.ComplaintDAO;
 import com.resolveit.dao.FeedbackDAO;
+import com.resolveit.dao.WriteBehindQueue;
+import com.resolveit.model.CategoryDictionary;
 import com.resolveit.model.Complaint;
 import com.resolveit.model.Feedback;
 import com.resolveit.model.User;
 import com.resolveit.util.ValidationUtil;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.Callable;
 
 /**
  * User Dashboard - Main interface for regular users
  * Allows users to submit and view complaints, and provide feedback
  */
 public class UserDashboard extends JFrame {
+    private static final int MAX_DELTA_ROWS = 1000;
+    private static final long SUBMIT_FLUSH_MILLIS = 3000;
+    
     private User currentUser;
     private JTable complaintsTable;
-    private DefaultTableModel tableModel;
+    private UserComplaintTableModel tableModel;
+    private DataLoader dataLoader;
+    private LocalDateTime watermark;
     
     public UserDashboard(User user) {
         this.currentUser = user;
+        this.dataLoader = new DataLoader();
         initializeUI();
         loadComplaints();
     }
@@ -39,7 +49,7 @@ public class UserDashboard extends JFrame {
         
         // Header
         JPanel headerPanel = new JPanel();
-        headerPanel.add(new JLabel("Welcome, " + currentUser.getUsername()));
+        headerPanel.add(new JLabel("Welcome, " + currentUser.getName()));
         JButton logoutButton = new JButton("Logout");
         logoutButton.addActionListener(new ActionListener() {
             @Override
@@ -48,12 +58,13 @@ public class UserDashboard extends JFrame {
             }
         });
         headerPanel.add(logoutButton);
+        headerPanel.add(dataLoader.getIndicator());
         mainPanel.add(headerPanel, BorderLayout.NORTH);
         
         // Center - Complaints Table
-        String[] columnNames = {"ID", "Title", "Category", "Status", "Date"};
-        tableModel = new DefaultTableModel(columnNames, 0);
+        tableModel = new UserComplaintTableModel();
         complaintsTable = new JTable(tableModel);
+        ScrollPositionKeeper.install(complaintsTable);
         JScrollPane scrollPane = new JScrollPane(complaintsTable);
         mainPanel.add(scrollPane, BorderLayout.CENTER);
         
@@ -93,18 +104,49 @@ public class UserDashboard extends JFrame {
     }
     
     private void loadComplaints() {
-        tableModel.setRowCount(0);
-        List<Complaint> complaints = ComplaintDAO.getUserComplaints(currentUser.getId());
-        
-        for (Complaint complaint : complaints) {
-            tableModel.addRow(new Object[]{
-                complaint.getId(),
-                complaint.getTitle(),
-                complaint.getCategory(),
-                complaint.getStatus(),
-                complaint.getCreatedAt()
-            });
+        if (watermark != null) {
+            refreshComplaints();
+            return;
         }
+        
+        // A newer refresh supersedes one that is still running
+        dataLoader.load("complaints", new Callable<ComplaintChanges>() {
+            @Override
+            public ComplaintChanges call() {
+                // Take the watermark first so changes made during the load are seen by the next refresh;
+                // the rows must come from the database, as a cached list may predate the watermark
+                LocalDateTime loadWatermark = ComplaintDAO.getChangeWatermark(currentUser.getUserId());
+                List<Complaint> complaints = ComplaintDAO.reloadUserComplaints(currentUser.getUserId());
+                return new ComplaintChanges(complaints, loadWatermark, false);
+            }
+        }, new DataLoader.Callback<ComplaintChanges>() {
+            @Override
+            public void onSuccess(ComplaintChanges loaded) {
+                tableModel.setComplaints(loaded.getComplaints());
+                watermark = loaded.getWatermark();
+            }
+        });
+    }
+    
+    private void refreshComplaints() {
+        LocalDateTime since = watermark;
+        dataLoader.load("complaints", new Callable<ComplaintChanges>() {
+            @Override
+            public ComplaintChanges call() {
+                return ComplaintDAO.getComplaintsChangedSince(since, currentUser.getUserId(), MAX_DELTA_ROWS);
+            }
+        }, new DataLoader.Callback<ComplaintChanges>() {
+            @Override
+            public void onSuccess(ComplaintChanges changes) {
+                if (changes.isTruncated()) {
+                    watermark = null;
+                    loadComplaints();
+                    return;
+                }
+                tableModel.applyChanges(changes.getComplaints());
+                watermark = changes.getWatermark();
+            }
+        });
     }
     
     private void showSubmitComplaintDialog() {
@@ -117,7 +159,7 @@ public class UserDashboard extends JFrame {
         
         JTextField titleField = new JTextField();
         JTextArea descriptionArea = new JTextArea();
-        JComboBox<String> categoryCombo = new JComboBox<>(new String[]{"General", "Technical", "Payment", "Service"});
+        JComboBox<String> categoryCombo = new JComboBox<>(CategoryDictionary.STANDARD.toArray(new String[0]));
         
         panel.add(new JLabel("Title:"));
         panel.add(titleField);
@@ -135,11 +177,37 @@ public class UserDashboard extends JFrame {
                 String category = (String) categoryCombo.getSelectedItem();
                 
                 if (ValidationUtil.isValidText(title, 3, 100) && ValidationUtil.isValidText(description, 10, 1000)) {
-                    if (ComplaintDAO.submitComplaint(currentUser.getId(), title, description, category)) {
-                        JOptionPane.showMessageDialog(dialog, "Complaint submitted successfully!");
-                        loadComplaints();
-                        dialog.dispose();
-                    }
+                    submitButton.setEnabled(false);
+                    dataLoader.load("submit-complaint", new Callable<String>() {
+                        @Override
+                        public String call() {
+                            if (!ComplaintDAO.submitComplaint(currentUser.getUserId(), title, description, category)) {
+                                return null;
+                            }
+                            // With write-behind the row is committed later; wait for it so the refresh shows it
+                            if (!WriteBehindQueue.flush(SUBMIT_FLUSH_MILLIS)) {
+                                return "Complaint received. It will appear in your list once it has been saved.";
+                            }
+                            return "Complaint submitted successfully!";
+                        }
+                    }, new DataLoader.Callback<String>() {
+                        @Override
+                        public void onSuccess(String message) {
+                            submitButton.setEnabled(true);
+                            if (message != null) {
+                                JOptionPane.showMessageDialog(dialog, message);
+                                loadComplaints();
+                                dialog.dispose();
+                            }
+                        }
+                        
+                        @Override
+                        public void onFailure(Exception ex) {
+                            super.onFailure(ex);
+                            submitButton.setEnabled(true);
+                            JOptionPane.showMessageDialog(dialog, "Failed to submit complaint");
+                        }
+                    });
                 } else {
                     JOptionPane.showMessageDialog(dialog, "Invalid input");
                 }
@@ -158,18 +226,32 @@ public class UserDashboard extends JFrame {
         }
         
         int complaintId = (int) tableModel.getValueAt(complaintsTable.getSelectedRow(), 0);
-        List<Feedback> feedbackList = FeedbackDAO.getComplaintFeedback(complaintId);
-        
-        StringBuilder feedbackText = new StringBuilder();
-        for (Feedback feedback : feedbackList) {
-            feedbackText.append("Rating: ").append(feedback.getRating())
-                    .append(" - ").append(feedback.getComment())
-                    .append("\n");
-        }
-        
-        JTextArea textArea = new JTextArea(feedbackText.toString());
-        textArea.setEditable(false);
-        JScrollPane scrollPane = new JScrollPane(textArea);
-        JOptionPane.showMessageDialog(this, scrollPane, "Feedback", JOptionPane.INFORMATION_MESSAGE);
+        dataLoader.load("feedback", new Callable<List<Feedback>>() {
+            @Override
+            public List<Feedback> call() {
+                return FeedbackDAO.getComplaintFeedback(complaintId);
+            }
+        }, new DataLoader.Callback<List<Feedback>>() {
+            @Override
+            public void onSuccess(List<Feedback> feedbackList) {
+                StringBuilder feedbackText = new StringBuilder();
+                for (Feedback feedback : feedbackList) {
+                    feedbackText.append("Rating: ").append(feedback.getRating())
+                            .append(" - ").append(feedback.getComments())
+                            .append("\n");
+                }
+                
+                JTextArea textArea = new JTextArea(feedbackText.toString());
+                textArea.setEditable(false);
+                JScrollPane scrollPane = new JScrollPane(textArea);
+                JOptionPane.showMessageDialog(UserDashboard.this, scrollPane, "Feedback", JOptionPane.INFORMATION_MESSAGE);
+            }
+        });
+    }
+    
+    @Override
+    public void dispose() {
+        dataLoader.cancelAll();
+        super.dispose();
     }
 }
@@ -0,0 +1,151 @@
+package com.resolveit.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Locale;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Password hashing for users.password_hash
+ * New hashes are salted PBKDF2-HMAC-SHA256, stored as "pbkdf2-sha256$iterations$salt$hash"
+ * (Base64 salt and hash). Older rows hold unsalted MD5 or SHA-256 hex digests, or the
+ * plain password; they still verify, and needsRehash() reports them so that they can be
+ * replaced after a successful login. A stored value is only compared as a plain password
+ * when it is in none of the hash formats, so a digest never works as its own password.
+ * The iteration count defaults to 600000 and can be set with -Dresolveit.auth.iterations
+ * or RESOLVEIT_AUTH_ITERATIONS.
+ */
+public class PasswordHasher {
+
+    private static final String PREFIX = "pbkdf2-sha256";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int DEFAULT_ITERATIONS = 600_000;
+    private static final int MIN_ITERATIONS = 1_000;
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BYTES = 32;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int ITERATIONS = configuredIterations();
+
+    /**
+     * Hash a password with a new random salt and the current iteration count
+     */
+    public static String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        byte[] hash = pbkdf2(password, salt, ITERATIONS);
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + "$" + ITERATIONS + "$" + base64.encodeToString(salt) + "$" + base64.encodeToString(hash);
+    }
+
+    /**
+     * Check a password against a stored hash in any of the supported formats
+     */
+    public static boolean verify(String password, String stored) {
+        if (password == null || stored == null) {
+            return false;
+        }
+        if (stored.startsWith(PREFIX + "$")) {
+            String[] parts = stored.split("\\$");
+            if (parts.length != 4) {
+                return false;
+            }
+            try {
+                int iterations = Integer.parseInt(parts[1]);
+                byte[] salt = Base64.getDecoder().decode(parts[2]);
+                byte[] expected = Base64.getDecoder().decode(parts[3]);
+                if (iterations < 1 || expected.length == 0) {
+                    return false;
+                }
+                return MessageDigest.isEqual(expected, pbkdf2(password, salt, iterations, expected.length * 8));
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+        byte[] digest = stored.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+        if (isHex(stored, 32)) {
+            return MessageDigest.isEqual(digest, hexDigest("MD5", password));
+        }
+        if (isHex(stored, 64)) {
+            return MessageDigest.isEqual(digest, hexDigest("SHA-256", password));
+        }
+        // Rows written before passwords were hashed hold the password itself
+        return MessageDigest.isEqual(stored.getBytes(StandardCharsets.UTF_8), password.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Whether a stored hash is in a legacy format or uses fewer iterations than configured
+     */
+    public static boolean needsRehash(String stored) {
+        if (stored == null || !stored.startsWith(PREFIX + "$")) {
+            return true;
+        }
+        String[] parts = stored.split("\\$");
+        try {
+            return parts.length != 4 || Integer.parseInt(parts[1]) < ITERATIONS;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    public static int getIterations() {
+        return ITERATIONS;
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        return pbkdf2(password, salt, iterations, HASH_BYTES * 8);
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations, int keyBits) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, keyBits);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static byte[] hexDigest(String algorithm, String password) {
+        try {
+            byte[] digest = MessageDigest.getInstance(algorithm).digest(password.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString().getBytes(StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(algorithm + " is not available", e);
+        }
+    }
+
+    private static boolean isHex(String value, int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (Character.digit(value.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int configuredIterations() {
+        String value = System.getProperty("resolveit.auth.iterations", System.getenv("RESOLVEIT_AUTH_ITERATIONS"));
+        if (value == null) {
+            return DEFAULT_ITERATIONS;
+        }
+        try {
+            return Math.max(MIN_ITERATIONS, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid resolveit.auth.iterations: " + value);
+            return DEFAULT_ITERATIONS;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.resolveit.util;
 
+import com.resolveit.model.ComplaintPriority;
+import com.resolveit.model.ComplaintStatus;
 import java.util.regex.Pattern;
 
 /**
@@ -16,6 +18,14 @@ public class ValidationUtil {
         "^[0-9]{10}$"
     );
     
+    private static final Pattern USERNAME_PATTERN = Pattern.compile(
+        "^[a-zA-Z0-9]{3,20}$"
+    );
+    
+    private static final Pattern LETTER_PATTERN = Pattern.compile("[A-Za-z]");
+    
+    private static final Pattern DIGIT_PATTERN = Pattern.compile("[0-9]");
+    
     /**
      * Validates if email is in correct format
      */
@@ -37,8 +47,8 @@ public class ValidationUtil {
             return false;
         }
         
-        boolean hasLetter = password.matches(".*[A-Za-z].*");
-        boolean hasDigit = password.matches(".*[0-9].*");
+        boolean hasLetter = LETTER_PATTERN.matcher(password).find();
+        boolean hasDigit = DIGIT_PATTERN.matcher(password).find();
         
         return hasLetter && hasDigit;
     }
@@ -72,7 +82,21 @@ public class ValidationUtil {
         if (username == null) {
             return false;
         }
-        return username.matches("^[a-zA-Z0-9]{3,20}$");
+        return USERNAME_PATTERN.matcher(username).matches();
+    }
+    
+    /**
+     * Validates if priority is one of LOW, MEDIUM, HIGH, URGENT
+     */
+    public static boolean isValidPriority(String priority) {
+        return ComplaintPriority.fromName(priority) != null;
+    }
+    
+    /**
+     * Validates if status is one of OPEN, IN_PROGRESS, RESOLVED, CLOSED
+     */
+    public static boolean isValidStatus(String status) {
+        return ComplaintStatus.fromName(status) != null;
     }
     
     /**
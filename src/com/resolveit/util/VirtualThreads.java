@@ -0,0 +1,25 @@
+package com.resolveit.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to Java 21 virtual threads from code compiled for Java 11
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() if this JVM supports virtual threads, otherwise null
+     */
+    public static ExecutorService newPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Older JVM (or a preview JVM without --enable-preview)
+            return null;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.resolveit.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.resolveit.model.Complaint;
+import com.resolveit.model.ComplaintStatus;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ComplaintDAOTest {
+    private static final String DATABASE = "complaint-dao-test";
+    private static final int MISSING_ID = 999;
+
+    @BeforeAll
+    static void createDatabase() {
+        DatabaseConnection.configure(DatabaseConfig.embeddedInMemory(DATABASE));
+    }
+
+    @AfterAll
+    static void closeDatabase() {
+        DatabaseConnection.shutdownPool();
+    }
+
+    @Test
+    void staleVersionConflictsWithTheCurrentRow() {
+        Complaint loaded = ComplaintDAO.getComplaintById(1);
+        int version = loaded.getVersion();
+
+        ComplaintUpdateResult first = ComplaintDAO.updateComplaintStatus(1, version, ComplaintStatus.IN_PROGRESS);
+        assertEquals(ComplaintUpdateResult.Outcome.UPDATED, first.getOutcome());
+        assertEquals(version + 1, first.getComplaint().getVersion());
+        assertEquals(ComplaintStatus.IN_PROGRESS, first.getComplaint().getStatus());
+
+        // A second user still holding the version read before the first update
+        ComplaintUpdateResult second = ComplaintDAO.updateComplaintStatus(1, version, ComplaintStatus.CLOSED);
+        assertEquals(ComplaintUpdateResult.Outcome.CONFLICT, second.getOutcome());
+        assertEquals(version + 1, second.getComplaint().getVersion());
+        assertEquals(ComplaintStatus.IN_PROGRESS, second.getComplaint().getStatus());
+
+        ComplaintUpdateResult note = ComplaintDAO.updateResolutionNote(1, version, "Password reset sent");
+        assertEquals(ComplaintUpdateResult.Outcome.CONFLICT, note.getOutcome());
+
+        Complaint stored = ComplaintDAO.getComplaintById(1);
+        assertEquals(version + 1, stored.getVersion());
+        assertEquals(ComplaintStatus.IN_PROGRESS, stored.getStatus());
+        assertNull(stored.getResolutionNote());
+    }
+
+    @Test
+    void missingComplaintIsNotFound() {
+        ComplaintUpdateResult status = ComplaintDAO.updateComplaintStatus(MISSING_ID, 0, ComplaintStatus.CLOSED);
+        assertEquals(ComplaintUpdateResult.Outcome.NOT_FOUND, status.getOutcome());
+        assertNull(status.getComplaint());
+
+        ComplaintUpdateResult assign = ComplaintDAO.assignComplaint(MISSING_ID, 0, 1);
+        assertEquals(ComplaintUpdateResult.Outcome.NOT_FOUND, assign.getOutcome());
+    }
+
+    @Test
+    void batchUpdatesOnlyUnchangedComplaints() {
+        int version2 = ComplaintDAO.getComplaintById(2).getVersion();
+        int version3 = ComplaintDAO.getComplaintById(3).getVersion();
+        int version4 = ComplaintDAO.getComplaintById(4).getVersion();
+        ComplaintStatus status4 = ComplaintDAO.getComplaintById(4).getStatus();
+
+        Map<Integer, Integer> expectedVersions = new LinkedHashMap<>();
+        expectedVersions.put(2, version2);
+        expectedVersions.put(4, version4 - 1);
+        expectedVersions.put(MISSING_ID, 0);
+        expectedVersions.put(3, version3);
+        BatchResult<Integer> result = ComplaintDAO.updateComplaintStatuses(expectedVersions, ComplaintStatus.RESOLVED);
+
+        assertEquals(Arrays.asList(2, 3), result.getSucceeded());
+        assertEquals(2, result.getFailureCount());
+        assertEquals("Changed by another user since it was loaded", result.getFailed().get(4));
+        assertEquals("Complaint not found", result.getFailed().get(MISSING_ID));
+
+        assertEquals(version2 + 1, ComplaintDAO.getComplaintById(2).getVersion());
+        assertEquals(ComplaintStatus.RESOLVED, ComplaintDAO.getComplaintById(2).getStatus());
+        assertEquals(version3 + 1, ComplaintDAO.getComplaintById(3).getVersion());
+        assertEquals(ComplaintStatus.RESOLVED, ComplaintDAO.getComplaintById(3).getStatus());
+        Complaint untouched = ComplaintDAO.getComplaintById(4);
+        assertEquals(version4, untouched.getVersion());
+        assertEquals(status4, untouched.getStatus());
+    }
+
+    @Test
+    void batchWithoutUpdateCountsChecksTheNewVersion() {
+        DatabaseConfig config = DatabaseConfig.embeddedInMemory(DATABASE);
+        // The in-memory database outlives the pool, so the same data is reached without it
+        DatabaseConnection.setDataSource(withoutUpdateCounts(config));
+        try {
+            Map<Integer, Integer> expectedVersions = new HashMap<>();
+            Map<Integer, Integer> before = new HashMap<>();
+            for (int id : new int[] {2, 3}) {
+                before.put(id, ComplaintDAO.getComplaintById(id).getVersion());
+                expectedVersions.put(id, before.get(id));
+            }
+            BatchResult<Integer> result = ComplaintDAO.updateComplaintStatuses(expectedVersions, ComplaintStatus.CLOSED);
+
+            assertEquals(2, result.getSuccessCount());
+            assertTrue(result.getFailed().isEmpty());
+            for (int id : new int[] {2, 3}) {
+                Complaint stored = ComplaintDAO.getComplaintById(id);
+                assertEquals(before.get(id) + 1, stored.getVersion());
+                assertEquals(ComplaintStatus.CLOSED, stored.getStatus());
+            }
+        } finally {
+            DatabaseConnection.configure(config);
+        }
+    }
+
+    /**
+     * Plain DriverManager connections whose batches report Statement.SUCCESS_NO_INFO, as some drivers do
+     */
+    private static DataSource withoutUpdateCounts(DatabaseConfig config) {
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[] {DataSource.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if (!method.getName().equals("getConnection")) {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                        Connection connection = DriverManager.getConnection(config.getUrl(), config.getUser(),
+                                config.getPassword());
+                        return wrap(Connection.class, connection, "prepareStatement");
+                    }
+                });
+    }
+
+    private static Object wrap(Class<?> type, Object target, String wrappedFactory) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                if (method.getName().equals(wrappedFactory)) {
+                    return wrap(PreparedStatement.class, result, null);
+                }
+                if (method.getName().equals("executeBatch")) {
+                    int[] counts = (int[]) result;
+                    Arrays.fill(counts, Statement.SUCCESS_NO_INFO);
+                }
+                return result;
+            }
+        });
+    }
+}
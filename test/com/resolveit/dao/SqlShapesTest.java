@@ -0,0 +1,75 @@
+package com.resolveit.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.BitSet;
+import org.junit.jupiter.api.Test;
+
+class SqlShapesTest {
+
+    @Test
+    void insertRedactsThePasswordColumn() {
+        BitSet sensitive = SqlShapes.sensitiveParameters(
+                "INSERT INTO users (name, email, password_hash, role) VALUES (?, ?, ?, ?)");
+        assertEquals(bits(2), sensitive);
+    }
+
+    @Test
+    void multiRowInsertRedactsThePasswordColumnOfEveryRow() {
+        BitSet sensitive = SqlShapes.sensitiveParameters(
+                "INSERT INTO users (name, email, password_hash, role) VALUES (?, ?, ?, 'USER'), (?, ?, ?, 'USER'),"
+                        + " (?, LOWER(?), ?, 'ADMIN')");
+        assertEquals(bits(2, 5, 8), sensitive);
+    }
+
+    @Test
+    void updateRedactsAssignedAndComparedPasswords() {
+        BitSet sensitive = SqlShapes.sensitiveParameters(
+                "UPDATE users SET password_hash = ? WHERE user_id = ? AND password_hash = ?");
+        assertEquals(bits(0, 2), sensitive);
+    }
+
+    @Test
+    void qualifiedAndQuotedColumnsAreRecognised() {
+        assertEquals(bits(1), SqlShapes.sensitiveParameters(
+                "SELECT u.user_id FROM users u WHERE u.email = ? AND u.`password_hash` LIKE ?"));
+    }
+
+    @Test
+    void selectReadingThePasswordRedactsEverything() {
+        // No parameter is bound to the password column, so they cannot be told apart from one that is
+        BitSet sensitive = SqlShapes.sensitiveParameters(
+                "SELECT user_id, name, email, role, password_hash FROM users WHERE email = ?");
+        assertEquals(bits(0), sensitive);
+    }
+
+    @Test
+    void unmappableStatementRedactsEverything() {
+        BitSet sensitive = SqlShapes.sensitiveParameters(
+                "UPDATE users SET password_hash = COALESCE(?, password_hash), role = ? WHERE user_id = ?");
+        assertEquals(bits(0, 1, 2), sensitive);
+    }
+
+    @Test
+    void statementsWithoutPasswordsRedactNothing() {
+        assertTrue(SqlShapes.sensitiveParameters("SELECT * FROM complaints WHERE complaint_id IN (?, ?, ?)").isEmpty());
+        assertTrue(SqlShapes.sensitiveParameters(
+                "INSERT INTO feedback (complaint_id, user_id, comments, rating, created_at) VALUES (?, ?, ?, ?, ?)")
+                .isEmpty());
+    }
+
+    @Test
+    void placeholdersInLiteralsAreNotParameters() {
+        assertEquals(bits(1), SqlShapes.sensitiveParameters(
+                "UPDATE users SET name = ?, password_hash = ? WHERE email <> '?' AND role <> 'password?'"));
+    }
+
+    private static BitSet bits(int... indexes) {
+        BitSet bits = new BitSet();
+        for (int index : indexes) {
+            bits.set(index);
+        }
+        return bits;
+    }
+}
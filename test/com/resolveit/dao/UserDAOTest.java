@@ -0,0 +1,61 @@
+package com.resolveit.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.resolveit.model.User;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class UserDAOTest {
+    private static final String ADMIN_EMAIL = "admin@resolveit.com";
+    private static final String ADMIN123_MD5 = "0192023a7bbd73250516f069df18b500";
+
+    @BeforeAll
+    static void createDatabase() {
+        DatabaseConnection.configure(DatabaseConfig.embeddedInMemory("user-dao-test"));
+    }
+
+    @AfterAll
+    static void closeDatabase() {
+        DatabaseConnection.shutdownPool();
+    }
+
+    @Test
+    void legacyDigestIsRejectedAndRehashedOnLogin() throws SQLException {
+        assertEquals(ADMIN123_MD5, storedHash(ADMIN_EMAIL));
+
+        // The seeded MD5 digest must not work as a password, nor trigger the upgrade
+        assertNull(UserDAO.authenticateUser(ADMIN_EMAIL, ADMIN123_MD5));
+        assertEquals(ADMIN123_MD5, storedHash(ADMIN_EMAIL));
+
+        User admin = UserDAO.authenticateUser(ADMIN_EMAIL, "admin123");
+        assertNotNull(admin);
+        assertEquals("ADMIN", admin.getRole());
+        String upgraded = storedHash(ADMIN_EMAIL);
+        assertTrue(upgraded.startsWith("pbkdf2-sha256$"), upgraded);
+
+        // The upgraded hash keeps working and is not rewritten again
+        assertNotNull(UserDAO.authenticateUser(ADMIN_EMAIL, "admin123"));
+        assertEquals(upgraded, storedHash(ADMIN_EMAIL));
+        assertNull(UserDAO.authenticateUser(ADMIN_EMAIL, upgraded));
+        assertNull(UserDAO.authenticateUser(ADMIN_EMAIL, ADMIN123_MD5));
+    }
+
+    private static String storedHash(String email) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT password_hash FROM users WHERE email = ?")) {
+            pstmt.setString(1, email);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+}
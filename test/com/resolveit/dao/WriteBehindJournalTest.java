@@ -0,0 +1,190 @@
+package com.resolveit.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.resolveit.model.Complaint;
+import com.resolveit.model.Feedback;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WriteBehindJournalTest {
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 3, 1, 9, 30, 15);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysSubmissionsAfterTheLastCommitMarker() throws IOException {
+        Path file = dir.resolve("journal");
+        WriteBehindJournal journal = openRecovered(file);
+        journal.append(complaint(1, "Broken heater"));
+        journal.append(feedback(2, 7));
+        journal.commit(2);
+        journal.append(complaint(3, null));
+        journal.append(feedback(4, 8));
+        journal.close();
+
+        List<WriteBehindQueue.Submission> recovered = recover(file);
+        assertEquals(Arrays.asList(3L, 4L), sequences(recovered));
+
+        Complaint complaint = recovered.get(0).complaint;
+        assertEquals(CREATED_AT, complaint.getCreatedAt());
+        assertEquals(2, complaint.getUserId());
+        assertNull(complaint.getTitle());
+        assertEquals("Heating does not work in room 4", complaint.getDescription());
+        assertEquals("Facilities", complaint.getCategory());
+
+        Feedback feedback = recovered.get(1).feedback;
+        assertEquals(CREATED_AT, feedback.getCreatedAt());
+        assertEquals(8, feedback.getComplaintId());
+        assertEquals(1, feedback.getUserId());
+        assertEquals(4, feedback.getRating());
+        assertEquals("Fixed quickly", feedback.getComments());
+    }
+
+    @Test
+    void tornTailIsCutOff() throws IOException {
+        Path file = dir.resolve("journal");
+        WriteBehindJournal journal = openRecovered(file);
+        journal.append(complaint(1, "First"));
+        long complete = journal.append(complaint(2, "Second"));
+        journal.close();
+        // A record header promising more payload than was written before the crash
+        appendBytes(file, ByteBuffer.allocate(12).putInt(100).putInt(0x12345678).putInt(42).array());
+
+        journal = open(file);
+        assertEquals(Arrays.asList(1L, 2L), sequences(journal.recover()));
+        assertEquals(complete, Files.size(file));
+
+        // Appends after the cut are readable again
+        journal.append(complaint(3, "Third"));
+        journal.close();
+        assertEquals(Arrays.asList(1L, 2L, 3L), sequences(recover(file)));
+    }
+
+    @Test
+    void recordWithABadChecksumEndsTheJournal() throws IOException {
+        Path file = dir.resolve("journal");
+        WriteBehindJournal journal = openRecovered(file);
+        journal.append(complaint(1, "First"));
+        long intact = journal.append(complaint(2, "Second"));
+        journal.append(complaint(3, "Third"));
+        journal.append(complaint(4, "Fourth"));
+        journal.close();
+        // Flip a byte in the payload of the third record; the fourth is lost with it
+        flipByte(file, intact + 20);
+
+        journal = open(file);
+        assertEquals(Arrays.asList(1L, 2L), sequences(journal.recover()));
+        assertEquals(intact, Files.size(file));
+        journal.close();
+    }
+
+    @Test
+    void commitMarkerCoveringEverythingLeavesNothingToReplay() throws IOException {
+        Path file = dir.resolve("journal");
+        WriteBehindJournal journal = openRecovered(file);
+        journal.append(complaint(1, "First"));
+        journal.append(complaint(2, "Second"));
+        journal.commit(2);
+        journal.close();
+
+        journal = open(file);
+        assertTrue(journal.recover().isEmpty());
+        journal.truncate();
+        assertEquals(0, Files.size(file));
+
+        // Sequence numbers restart after a truncate; the old marker must not hide the new records
+        journal.append(complaint(1, "After restart"));
+        journal.close();
+        List<WriteBehindQueue.Submission> recovered = recover(file);
+        assertEquals(Arrays.asList(1L), sequences(recovered));
+        assertEquals("After restart", recovered.get(0).complaint.getTitle());
+    }
+
+    @Test
+    void truncateDropsCommittedRecordsWrittenSinceRecovery() throws IOException {
+        Path file = dir.resolve("journal");
+        WriteBehindJournal journal = openRecovered(file);
+        journal.append(complaint(1, "First"));
+        journal.commit(1);
+        journal.truncate();
+        journal.append(complaint(2, "Second"));
+        journal.close();
+
+        assertEquals(Arrays.asList(2L), sequences(recover(file)));
+    }
+
+    private static WriteBehindJournal open(Path file) throws IOException {
+        return new WriteBehindJournal(file);
+    }
+
+    private static WriteBehindJournal openRecovered(Path file) throws IOException {
+        WriteBehindJournal journal = open(file);
+        journal.recover();
+        return journal;
+    }
+
+    private static List<WriteBehindQueue.Submission> recover(Path file) throws IOException {
+        WriteBehindJournal journal = open(file);
+        try {
+            return journal.recover();
+        } finally {
+            journal.close();
+        }
+    }
+
+    private static List<Long> sequences(List<WriteBehindQueue.Submission> submissions) {
+        List<Long> sequences = new ArrayList<>();
+        for (WriteBehindQueue.Submission submission : submissions) {
+            sequences.add(submission.sequence);
+        }
+        return sequences;
+    }
+
+    private static WriteBehindQueue.Submission complaint(long sequence, String title) {
+        Complaint complaint = new Complaint();
+        complaint.setCreatedAt(CREATED_AT);
+        complaint.setUserId(2);
+        complaint.setTitle(title);
+        complaint.setDescription("Heating does not work in room 4");
+        complaint.setCategory("Facilities");
+        return new WriteBehindQueue.Submission(sequence, complaint, null);
+    }
+
+    private static WriteBehindQueue.Submission feedback(long sequence, int complaintId) {
+        Feedback feedback = new Feedback();
+        feedback.setCreatedAt(CREATED_AT);
+        feedback.setComplaintId(complaintId);
+        feedback.setUserId(1);
+        feedback.setRating(4);
+        feedback.setComments("Fixed quickly");
+        return new WriteBehindQueue.Submission(sequence, null, feedback);
+    }
+
+    private static void appendBytes(Path file, byte[] bytes) throws IOException {
+        Files.write(file, bytes, StandardOpenOption.APPEND);
+    }
+
+    private static void flipByte(Path file, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1);
+            channel.read(buffer, position);
+            buffer.put(0, (byte) (buffer.get(0) ^ 0xFF));
+            buffer.rewind();
+            channel.write(buffer, position);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.resolveit.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class PasswordHasherTest {
+    private static final String ADMIN123_MD5 = "0192023a7bbd73250516f069df18b500";
+    private static final String HELLO_SHA256 = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @Test
+    void verifiesCurrentHashes() {
+        String stored = PasswordHasher.hash("admin123");
+        assertTrue(stored.startsWith("pbkdf2-sha256$" + PasswordHasher.getIterations() + "$"));
+        assertTrue(PasswordHasher.verify("admin123", stored));
+        assertFalse(PasswordHasher.verify("admin124", stored));
+        assertFalse(PasswordHasher.needsRehash(stored));
+        assertNotEquals(stored, PasswordHasher.hash("admin123"));
+    }
+
+    @Test
+    void verifiesLegacyDigests() {
+        assertTrue(PasswordHasher.verify("admin123", ADMIN123_MD5));
+        assertTrue(PasswordHasher.verify("admin123", ADMIN123_MD5.toUpperCase()));
+        assertTrue(PasswordHasher.verify("hello", HELLO_SHA256));
+        assertFalse(PasswordHasher.verify("admin124", ADMIN123_MD5));
+    }
+
+    @Test
+    void storedDigestIsNotAPassword() {
+        assertFalse(PasswordHasher.verify(ADMIN123_MD5, ADMIN123_MD5));
+        assertFalse(PasswordHasher.verify(HELLO_SHA256, HELLO_SHA256));
+        String stored = PasswordHasher.hash("admin123");
+        assertFalse(PasswordHasher.verify(stored, stored));
+    }
+
+    @Test
+    void plainPasswordsStillVerify() {
+        assertTrue(PasswordHasher.verify("hello", "hello"));
+        assertFalse(PasswordHasher.verify("hello!", "hello"));
+    }
+
+    @Test
+    void legacyAndWeakerHashesNeedRehash() {
+        assertTrue(PasswordHasher.needsRehash(ADMIN123_MD5));
+        assertTrue(PasswordHasher.needsRehash(HELLO_SHA256));
+        assertTrue(PasswordHasher.needsRehash("hello"));
+        assertTrue(PasswordHasher.needsRehash(null));
+
+        String weaker = PasswordHasher.hash("admin123").replaceFirst("\\$\\d+\\$",
+                "\\$" + (PasswordHasher.getIterations() - 1) + "\\$");
+        assertTrue(PasswordHasher.needsRehash(weaker));
+
+        String rehashed = PasswordHasher.hash("admin123");
+        assertTrue(PasswordHasher.verify("admin123", rehashed));
+        assertFalse(PasswordHasher.needsRehash(rehashed));
+        assertEquals(4, rehashed.split("\\$").length);
+    }
+}